@@ -0,0 +1,103 @@
+package com.foodtrackerclitool;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/*
+ * Writes food, menu and meal files in the same format the food tracker saves them, so the benchmarks read and
+ * write files of any size without needing real data.
+ * Every value comes from the row number, the same row count always gives the same files.
+ * */
+final class BenchmarkData {
+    static final int INGREDIENTS_PER_ITEM = 3;
+    static final int ITEMS_PER_MEAL = 2;
+
+    private BenchmarkData() {
+    }
+
+    static Path TempDirectory() throws IOException {
+        return Files.createTempDirectory("food-tracker-benchmark");
+    }
+
+    static void Delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) return;
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    static String FoodName(int row) {
+        return "Food " + row;
+    }
+
+    static String MenuItemName(int row) {
+        return "Menu Item " + row;
+    }
+
+    static File WriteFoods(File file, int rows) throws IOException {
+        try (PrintWriter writer = Open(file)) {
+            writer.println(Main.FoodHeader(rows));
+            for (int row = 0; row < rows; row++) {
+                double fat = row % 30;
+                double carbs = row % 70;
+                double protein = row % 40;
+                double cals = (9 * fat) + (4 * (carbs + protein));
+                writer.println(row + "," + FoodName(row) + "," + cals + "," + fat + "," + carbs + "," + protein + "," + (50 + row % 200));
+            }
+        }
+        return file;
+    }
+
+    //Each menu item uses foods spread over the whole food file
+    static File WriteMenu(File file, int rows, int foods) throws IOException {
+        try (PrintWriter writer = Open(file)) {
+            writer.println(Main.MenuHeader(rows));
+            for (int row = 0; row < rows; row++) {
+                writer.println(row + "," + MenuItemName(row));
+                for (int i = 0; i < INGREDIENTS_PER_ITEM; i++) {
+                    writer.println("," + (((long) row * 7919 + i * 104729L) % foods) + "," + (10 + (row + i) % 300));
+                }
+                writer.println(",,0.0");
+            }
+        }
+        return file;
+    }
+
+    //Meals fill each day in meal type order, starting on 01/01/1900
+    static File WriteMeals(File file, int rows, int menuItems) throws IOException {
+        int day = (int) LocalDate.of(1900, 1, 1).toEpochDay();
+
+        try (PrintWriter writer = Open(file)) {
+            writer.println(Main.mealHeader);
+            for (int row = 0; row < rows; row++) {
+                if (row % MealType.COUNT == 0) {
+                    if (row > 0) day++;
+                    writer.println(Days.Format(day));
+                }
+
+                writer.println("," + MealType.Of(row % MealType.COUNT));
+                for (int i = 0; i < ITEMS_PER_MEAL; i++) {
+                    writer.println(",," + (row * ITEMS_PER_MEAL + i) % menuItems);
+                }
+                writer.println(",,," + (200 + row % 900));
+            }
+        }
+        return file;
+    }
+
+    private static PrintWriter Open(File file) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        return new PrintWriter(writer);
+    }
+}
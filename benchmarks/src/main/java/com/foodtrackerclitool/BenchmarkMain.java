@@ -0,0 +1,37 @@
+package com.foodtrackerclitool;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Runs the benchmarks with the usual JMH command line, always adding the GC profiler so every result comes with
+ * its allocation rate (gc.alloc.rate.norm is bytes per operation).
+ * Each benchmark reports throughput and, from the sampled times, latency percentiles.
+ *   Examples:
+ *       java -jar benchmarks.jar
+ *       java -jar benchmarks.jar LoadBenchmark.readInFood -p rows=10000,1000000
+ *       java -jar benchmarks.jar -rf json -rff results.json
+ * */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            //Listing and help are handled by the plain JMH entry point
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
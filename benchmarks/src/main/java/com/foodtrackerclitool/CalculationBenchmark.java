@@ -0,0 +1,98 @@
+package com.foodtrackerclitool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The calculations done for every food, ingredient and menu item: calories for a weight, building a menu item
+ * and its totals, finding an ingredient by name, and the title casing every typed name goes through.
+ * */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculationBenchmark {
+    private static final int FOODS = 1000;
+
+    @Param({"3", "20"})
+    int ingredients;
+
+    private FoodStore foods;
+    private Food storedFood;
+    private Food newFood;
+    private List<Ingredient> ingredientList;
+    private MenuItem menuItem;
+    private String lastIngredient;
+    private String typedName;
+
+    @Setup(Level.Trial)
+    public void buildData() {
+        foods = new FoodStore();
+        for (int i = 0; i < FOODS; i++) {
+            foods.put(BenchmarkData.FoodName(i), 100 + i % 400, i % 30, i % 70, i % 40, 50 + i % 200);
+        }
+        storedFood = foods.get(FOODS / 2);
+        newFood = new Food("Rolled Oats", 389, 6.9, 66.3, 16.9, 100);
+
+        ingredientList = new ArrayList<>(ingredients);
+        for (int i = 0; i < ingredients; i++) {
+            ingredientList.add(new Ingredient(foods, (i * 37) % FOODS, 10 + i));
+        }
+        menuItem = new MenuItem("Benchmark Item", ingredientList);
+        lastIngredient = ingredientList.get(ingredients - 1).getFoodName().toLowerCase();
+        typedName = "peanut BUTTER and jelly sandwich on whole wheat";
+    }
+
+    @Benchmark
+    public double calculateCaloriesStored() {
+        return Food.CalculateCalories(storedFood, 150);
+    }
+
+    @Benchmark
+    public double calculateCaloriesNew() {
+        return Food.CalculateCalories(newFood, 150);
+    }
+
+    @Benchmark
+    public MenuItem buildMenuItem() {
+        return new MenuItem("Benchmark Item", ingredientList);
+    }
+
+    @Benchmark
+    public double recalculateMenuItem() {
+        menuItem.recalculateTotal();
+        return menuItem.getTotalCalories();
+    }
+
+    //The last ingredient is the worst case, every other one is compared first
+    @Benchmark
+    public Ingredient getIngredientByName() {
+        return menuItem.getIngredientByName(lastIngredient);
+    }
+
+    @Benchmark
+    public Ingredient getMissingIngredientByName() {
+        return menuItem.getIngredientByName("Not An Ingredient");
+    }
+
+    @Benchmark
+    public String toTitleCase() {
+        return Utilities.ToTitleCase(typedName);
+    }
+}
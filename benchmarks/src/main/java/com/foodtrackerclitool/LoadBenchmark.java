@@ -0,0 +1,76 @@
+package com.foodtrackerclitool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Reading each data file at startup, with the given number of foods, menu items or meals in it.
+ * The meals use a menu of at most MEAL_MENU_ITEMS items, so the 10M row run is about the meal file and not
+ * about holding ten million menu items as well.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class LoadBenchmark {
+    private static final int MEAL_MENU_ITEMS = 10_000;
+
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    private Path directory;
+    private File foodFile;
+    private File menuFile;
+    private File mealFile;
+    private FoodStore foods;
+    private MenuStore mealMenu;
+
+    @Setup(Level.Trial)
+    public void writeFiles() throws Exception {
+        directory = BenchmarkData.TempDirectory();
+        foodFile = BenchmarkData.WriteFoods(new File(directory.toFile(), "FoodItems.csv"), rows);
+        menuFile = BenchmarkData.WriteMenu(new File(directory.toFile(), "MenuItems.csv"), rows, rows);
+        mealFile = BenchmarkData.WriteMeals(new File(directory.toFile(), "MealItems.csv"), rows, Math.min(rows, MEAL_MENU_ITEMS));
+
+        foods = Main.ReadInFood(foodFile);
+        File mealMenuFile = BenchmarkData.WriteMenu(new File(directory.toFile(), "MealMenuItems.csv"), Math.min(rows, MEAL_MENU_ITEMS), rows);
+        mealMenu = Main.ReadMenuItems(mealMenuFile, foods);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws Exception {
+        BenchmarkData.Delete(directory);
+    }
+
+    @Benchmark
+    public FoodStore readInFood() throws Exception {
+        return Main.ReadInFood(foodFile);
+    }
+
+    @Benchmark
+    public MenuStore readMenuItems() throws Exception {
+        return Main.ReadMenuItems(menuFile, foods);
+    }
+
+    @Benchmark
+    public MealDays readMealData() throws Exception {
+        return Main.ReadMealData(mealFile, mealMenu);
+    }
+}
@@ -0,0 +1,99 @@
+package com.foodtrackerclitool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Writing each data file on save, with the same row counts as LoadBenchmark.
+ * The meal history only writes the months that changed, so before every save all of its meals are put back in
+ * and every month is written again.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class SaveBenchmark {
+    private static final int MEAL_MENU_ITEMS = 10_000;
+
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    private Path directory;
+    private String foodPath;
+    private String menuPath;
+    private FoodStore foods;
+    private MenuStore menuItems;
+    private MealDays meals;
+    private MenuStore mealMenu;
+
+    @Setup(Level.Trial)
+    public void readData() throws Exception {
+        directory = BenchmarkData.TempDirectory();
+        File data = directory.toFile();
+        foods = Main.ReadInFood(BenchmarkData.WriteFoods(new File(data, "FoodItems.csv"), rows));
+        menuItems = Main.ReadMenuItems(BenchmarkData.WriteMenu(new File(data, "MenuItems.csv"), rows, rows), foods);
+
+        mealMenu = Main.ReadMenuItems(
+                BenchmarkData.WriteMenu(new File(data, "MealMenuItems.csv"), Math.min(rows, MEAL_MENU_ITEMS), rows), foods);
+        meals = Main.ReadMealData(BenchmarkData.WriteMeals(new File(data, "MealItems.csv"), rows, mealMenu.size()), mealMenu);
+
+        foodPath = new File(data, "SavedFoodItems.csv").getPath();
+        menuPath = new File(data, "SavedMenuItems.csv").getPath();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws Exception {
+        BenchmarkData.Delete(directory);
+    }
+
+    @Benchmark
+    public void writeFood() throws Exception {
+        Main.WriteFood(foodPath, foods);
+    }
+
+    @Benchmark
+    public void writeMenu() throws Exception {
+        Main.WriteMenu(menuPath, menuItems);
+    }
+
+    @Benchmark
+    public void writeMeals(SavedHistory saved) throws Exception {
+        saved.history.save();
+    }
+
+    //Kept apart so only the meal benchmark pays for putting the meals back before each save
+    @State(Scope.Benchmark)
+    public static class SavedHistory {
+        private MealHistory history;
+        private MealDays meals;
+
+        @Setup(Level.Trial)
+        public void openHistory(SaveBenchmark data) {
+            meals = data.meals;
+            history = MealHistory.Open(new File(data.directory.toFile(), "MealHistory"), Main.mealHeader,
+                    file -> Main.ReadMealData(file, data.mealMenu), new DependencyGraph());
+        }
+
+        @Setup(Level.Invocation)
+        public void changeEveryMonth() {
+            history.putAll(meals);
+        }
+    }
+}
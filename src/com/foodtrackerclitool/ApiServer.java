@@ -0,0 +1,498 @@
+package com.foodtrackerclitool;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * HTTP server that reads and edits the same data as the console, with JSON request and response bodies.
+ *   Endpoints:
+ *       GET    /foods?prefix=<name>&limit=<count>                    foods whose names start with the prefix
+ *       GET    /foods/<name>                                          one food
+ *       PUT    /foods/<name>              {"fat", "carbs", "protein", "servingSize"}
+ *       DELETE /foods/<name>
+ *       GET    /menu-items?prefix=<name>&limit=<count>
+ *       GET    /menu-items/<name>
+ *       PUT    /menu-items/<name>/ingredients/<food>   {"grams"}     creates the menu item if it is not there
+ *       DELETE /menu-items/<name>/ingredients/<food>
+ *       DELETE /menu-items/<name>
+ *       GET    /meals?from=<MM/DD/YYYY>&to=<MM/DD/YYYY>
+ *       POST   /meals                     {"date": "MM/DD/YYYY", "meal", "items": [<menu item>, ...]}
+ *       GET    /totals?from=<MM/DD/YYYY>&to=<MM/DD/YYYY>              totals and daily averages of every macro
+ *
+ * Every request runs on a thread of its own, a virtual thread when the JVM has them and a pooled thread when it
+ * does not. Edits are applied as batch mode commands, so they are checked and journaled the same way.
+ * Reads do not wait for edits, each response shows every food, menu item or meal as it was after some whole edit.
+ * */
+final class ApiServer {
+    static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_BODY = 1 << 20;
+    private static final int SUGGESTIONS = 5;
+
+    private static final Metrics.Timer requests = Metrics.Timer("api.request");
+    private static final LongAdder clientErrors = Metrics.Counter("api.client-errors");
+    private static final LongAdder serverErrors = Metrics.Counter("api.server-errors");
+
+    //Reads from and applies edits to the program's data
+    interface Handler {
+        //Ignoring case and extra spaces, null when there is no such food
+        Food food(String name);
+
+        List<Food> foodsStartingWith(String prefix, int limit);
+
+        List<String> suggestFoods(String name, int limit);
+
+        MenuItem menuItem(String name);
+
+        List<MenuItem> menuItemsStartingWith(String prefix, int limit);
+
+        List<String> suggestMenuItems(String name, int limit);
+
+        MealDays meals(int from, int to);
+
+        double[] totals(int from, int to);
+
+        double[] dailyAverages(int from, int to);
+
+        //Applies one batch mode command, throws IllegalArgumentException with the reason it can not be applied
+        void apply(String... command) throws ParseException;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Handler handler;
+    private final boolean virtualThreads;
+
+    private ApiServer(HttpServer server, ExecutorService executor, boolean virtualThreads, Handler handler) {
+        this.server = server;
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+        this.handler = handler;
+    }
+
+    static ApiServer Start(int port, Handler handler) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        ExecutorService executor = VirtualThreadExecutor();
+        boolean virtualThreads = executor != null;
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "api-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        ApiServer api = new ApiServer(server, executor, virtualThreads, handler);
+        server.createContext("/", api::Handle);
+        server.setExecutor(executor);
+        server.start();
+        return api;
+    }
+
+    void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    //Virtual threads arrived after the Java version this is built for, so they are looked up when the server starts
+    private static ExecutorService VirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void Handle(HttpExchange exchange) throws IOException {
+        long started = System.nanoTime();
+        int status = 200;
+        String body;
+
+        try {
+            List<String> path = PathParts(exchange.getRequestURI().getRawPath());
+            Map<String, String> query = QueryParameters(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            String resource = path.isEmpty() ? "" : path.get(0);
+
+            switch (resource) {
+                case "foods":
+                    body = Foods(method, path, query, exchange);
+                    break;
+                case "menu-items":
+                    body = MenuItems(method, path, query, exchange);
+                    break;
+                case "meals":
+                    body = Meals(method, path, query, exchange);
+                    if (method.equals("POST")) status = 201;
+                    break;
+                case "totals":
+                    body = Totals(method, path, query);
+                    break;
+                default:
+                    throw Failure(404, "Unknown Resource");
+            }
+        } catch (ApiException e) {
+            status = e.status;
+            body = e.body;
+        } catch (IllegalArgumentException | ParseException e) {
+            status = 400;
+            body = Error(e.getMessage(), null);
+        } catch (RuntimeException e) {
+            //The client only learns that the request failed, the detail stays in the server's output
+            System.err.println("Server Error On " + exchange.getRequestMethod() + " " + exchange.getRequestURI());
+            e.printStackTrace();
+            status = 500;
+            body = Error("Server Error", null);
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+
+        requests.recordSince(started);
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        }
+    }
+
+    private String Foods(String method, List<String> path, Map<String, String> query, HttpExchange exchange)
+            throws IOException, ParseException {
+        if (path.size() == 1) {
+            Expect(method, "GET");
+            String prefix = query.getOrDefault("prefix", "");
+            int limit = Limit(query);
+
+            StringBuilder out = new StringBuilder("[");
+            for (Food food : handler.foodsStartingWith(prefix, limit)) {
+                if (out.length() > 1) out.append(',');
+                FoodJson(out, food);
+            }
+            return out.append(']').toString();
+        }
+        if (path.size() != 2) throw Failure(404, "Unknown Resource");
+
+        String name = path.get(1);
+        switch (method) {
+            case "GET":
+                break;
+            case "PUT": {
+                Map<String, Object> fields = ReadObject(exchange);
+                handler.apply("food upsert", name, NumberField(fields, "fat"), NumberField(fields, "carbs"),
+                        NumberField(fields, "protein"), NumberField(fields, "servingSize"));
+                break;
+            }
+            case "DELETE":
+                handler.apply("food delete", name);
+                return "{\"deleted\":true}";
+            default:
+                throw Failure(405, "Method Not Allowed");
+        }
+
+        Food food = handler.food(name);
+        if (food == null) throw NotFound("Food Does Not Exist", handler.suggestFoods(name, SUGGESTIONS));
+        return FoodJson(new StringBuilder(), food).toString();
+    }
+
+    private String MenuItems(String method, List<String> path, Map<String, String> query, HttpExchange exchange)
+            throws IOException, ParseException {
+        if (path.size() == 1) {
+            Expect(method, "GET");
+            String prefix = query.getOrDefault("prefix", "");
+            int limit = Limit(query);
+
+            StringBuilder out = new StringBuilder("[");
+            for (MenuItem item : handler.menuItemsStartingWith(prefix, limit)) {
+                if (out.length() > 1) out.append(',');
+                MenuItemJson(out, item);
+            }
+            return out.append(']').toString();
+        }
+
+        String name = path.get(1);
+        if (path.size() == 4 && path.get(2).equals("ingredients")) {
+            String food = path.get(3);
+            switch (method) {
+                case "PUT":
+                    handler.apply("menu add-ingredient", name, food, NumberField(ReadObject(exchange), "grams"));
+                    break;
+                case "DELETE":
+                    handler.apply("menu remove-ingredient", name, food);
+                    break;
+                default:
+                    throw Failure(405, "Method Not Allowed");
+            }
+        } else if (path.size() == 2) {
+            switch (method) {
+                case "GET":
+                    break;
+                case "DELETE":
+                    handler.apply("menu delete", name);
+                    return "{\"deleted\":true}";
+                default:
+                    throw Failure(405, "Method Not Allowed");
+            }
+        } else {
+            throw Failure(404, "Unknown Resource");
+        }
+
+        MenuItem item = handler.menuItem(name);
+        if (item == null) {
+            //Removing the last ingredient deletes the menu item
+            if (method.equals("DELETE")) return "{\"deleted\":true}";
+            throw NotFound("Menu Item Does Not Exist", handler.suggestMenuItems(name, SUGGESTIONS));
+        }
+        return MenuItemJson(new StringBuilder(), item).toString();
+    }
+
+    private String Meals(String method, List<String> path, Map<String, String> query, HttpExchange exchange)
+            throws IOException, ParseException {
+        if (path.size() != 1) throw Failure(404, "Unknown Resource");
+
+        if (method.equals("POST")) {
+            Map<String, Object> fields = ReadObject(exchange);
+            Object items = fields.get("items");
+            if (!(items instanceof List) || ((List<?>) items).isEmpty()) {
+                throw new IllegalArgumentException("Field items Must Be A List Of Menu Items");
+            }
+
+            List<String> command = new ArrayList<>();
+            command.add("meal log");
+            command.add(StringField(fields, "date"));
+            command.add(StringField(fields, "meal"));
+            for (Object item : (List<?>) items) {
+                if (!(item instanceof String)) throw new IllegalArgumentException("Field items Must Be A List Of Menu Items");
+                command.add((String) item);
+            }
+            handler.apply(command.toArray(new String[0]));
+            return "{\"saved\":true}";
+        }
+
+        Expect(method, "GET");
+        int from = DateParameter(query, "from");
+        int to = DateParameter(query, "to");
+        if (to < from) throw new IllegalArgumentException("End Date Is Before Start Date");
+
+        StringBuilder out = new StringBuilder("[");
+        MealDays days = handler.meals(from, to);
+        for (int i = 0; i < days.size(); i++) {
+            for (Meal meal : days.meals(i)) {
+                if (out.length() > 1) out.append(',');
+                MealJson(out, meal);
+            }
+        }
+        return out.append(']').toString();
+    }
+
+    private String Totals(String method, List<String> path, Map<String, String> query) throws ParseException {
+        if (path.size() != 1) throw Failure(404, "Unknown Resource");
+        Expect(method, "GET");
+        int from = DateParameter(query, "from");
+        int to = DateParameter(query, "to");
+        if (to < from) throw new IllegalArgumentException("End Date Is Before Start Date");
+
+        StringBuilder out = new StringBuilder("{\"total\":");
+        MacrosJson(out, handler.totals(from, to));
+        out.append(",\"dailyAverage\":");
+        MacrosJson(out, handler.dailyAverages(from, to));
+        return out.append('}').toString();
+    }
+
+    private static StringBuilder FoodJson(StringBuilder out, Food food) {
+        Json.Quote(out.append("{\"name\":"), food.getName());
+        Json.Number(out.append(",\"calories\":"), food.getCals());
+        Json.Number(out.append(",\"fat\":"), food.getFat());
+        Json.Number(out.append(",\"carbs\":"), food.getCarbs());
+        Json.Number(out.append(",\"protein\":"), food.getProtein());
+        Json.Number(out.append(",\"servingSize\":"), food.getServingSize());
+        return out.append('}');
+    }
+
+    private static StringBuilder MenuItemJson(StringBuilder out, MenuItem item) {
+        Json.Quote(out.append("{\"name\":"), item.getName());
+        out.append(",\"ingredients\":[");
+        boolean first = true;
+        for (Ingredient ingredient : item.getIngredients()) {
+            if (!first) out.append(',');
+            first = false;
+            Json.Quote(out.append("{\"food\":"), ingredient.getFoodName());
+            Json.Number(out.append(",\"grams\":"), ingredient.getWeight()).append('}');
+        }
+        out.append("],\"macros\":");
+        return MacrosJson(out, item.getMacros()).append('}');
+    }
+
+    private static StringBuilder MealJson(StringBuilder out, Meal meal) {
+        Json.Quote(out.append("{\"date\":"), Days.Format(meal.getMealDay()));
+        Json.Quote(out.append(",\"meal\":"), meal.getMealType().toString());
+        out.append(",\"items\":[");
+        boolean first = true;
+        for (MenuItem item : meal.getMealItems()) {
+            if (!first) out.append(',');
+            first = false;
+            Json.Quote(out, item.getName());
+        }
+        out.append("],\"macros\":");
+        return MacrosJson(out, meal.getMacros()).append('}');
+    }
+
+    private static StringBuilder MacrosJson(StringBuilder out, Macros macros) {
+        double[] values = new double[Macros.COUNT];
+        for (int i = 0; i < Macros.COUNT; i++) values[i] = macros.get(i);
+        return MacrosJson(out, values);
+    }
+
+    private static StringBuilder MacrosJson(StringBuilder out, double[] values) {
+        Json.Number(out.append("{\"calories\":"), values[Macros.CALORIES]);
+        Json.Number(out.append(",\"fat\":"), values[Macros.FAT]);
+        Json.Number(out.append(",\"carbs\":"), values[Macros.CARBS]);
+        Json.Number(out.append(",\"protein\":"), values[Macros.PROTEIN]);
+        Json.Number(out.append(",\"grams\":"), values[Macros.GRAMS]);
+        return out.append('}');
+    }
+
+    private static String Error(String message, List<String> suggestions) {
+        StringBuilder out = Json.Quote(new StringBuilder("{\"error\":"), message);
+        if (suggestions != null) {
+            out.append(",\"suggestions\":[");
+            for (int i = 0; i < suggestions.size(); i++) {
+                if (i > 0) out.append(',');
+                Json.Quote(out, suggestions.get(i));
+            }
+            out.append(']');
+        }
+        return out.append('}').toString();
+    }
+
+    private static ApiException NotFound(String message, List<String> suggestions) {
+        return new ApiException(404, Error(message, suggestions));
+    }
+
+    private static ApiException Failure(int status, String message) {
+        return new ApiException(status, Error(message, null));
+    }
+
+    private static void Expect(String method, String expected) {
+        if (!method.equals(expected)) throw Failure(405, "Method Not Allowed");
+    }
+
+    private static int Limit(Map<String, String> query) {
+        String limit = query.get("limit");
+        if (limit == null) return DEFAULT_LIMIT;
+        try {
+            return Math.max(0, Math.min(MAX_LIMIT, Integer.parseInt(limit)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+    }
+
+    private static int DateParameter(Map<String, String> query, String name) throws ParseException {
+        String value = query.get(name);
+        if (value == null) throw new IllegalArgumentException("Missing Parameter " + name + " (MM/DD/YYYY)");
+        return Days.Parse(value);
+    }
+
+    //Numbers are handed on as text, the command they are used in checks them
+    private static String NumberField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof Double)) throw new IllegalArgumentException("Field " + name + " Must Be A Number");
+        return Double.toString((Double) value);
+    }
+
+    private static String StringField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof String)) throw new IllegalArgumentException("Field " + name + " Must Be Text");
+        return (String) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> ReadObject(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY) throw Failure(413, "Request Body Is Too Large");
+            }
+        }
+
+        Object value = Json.Parse(body.toString(StandardCharsets.UTF_8));
+        if (!(value instanceof Map)) throw new IllegalArgumentException("Request Body Must Be A JSON Object");
+        return (Map<String, Object>) value;
+    }
+
+    private static List<String> PathParts(String rawPath) {
+        List<String> parts = new ArrayList<>();
+        for (String part : rawPath.split("/")) {
+            if (!part.isEmpty()) parts.add(Decode(part));
+        }
+        return parts;
+    }
+
+    private static Map<String, String> QueryParameters(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) return parameters;
+
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals < 0) {
+                parameters.put(Decode(pair), "");
+            } else {
+                parameters.put(Decode(pair.substring(0, equals)), Decode(pair.substring(equals + 1)));
+            }
+        }
+        return parameters;
+    }
+
+    private static String Decode(String part) {
+        try {
+            return URLDecoder.decode(part, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid Escape In Address: " + part);
+        }
+    }
+
+    //Carries the status and JSON body of a response that is not a success
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+        private final String body;
+
+        ApiException(int status, String body) {
+            super(body, null, false, false);
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
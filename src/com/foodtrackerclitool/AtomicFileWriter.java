@@ -0,0 +1,81 @@
+package com.foodtrackerclitool;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Writes a file next to its target and only replaces the target once everything is on disk.
+ * If the program stops part way through, the old file is left as it was.
+ * */
+final class AtomicFileWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final OutputStream stream;
+    private PrintWriter writer;
+    private boolean committed;
+
+    AtomicFileWriter(String path) throws IOException {
+        target = Paths.get(path).toAbsolutePath();
+        temp = target.resolveSibling(target.getFileName() + ".tmp");
+        channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        stream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+    }
+
+    OutputStream stream() {
+        return stream;
+    }
+
+    PrintWriter writer() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    //Forces the new contents to disk and swaps them in place of the old file
+    void commit() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Failed to write to " + target.getFileName());
+            }
+        }
+
+        stream.flush();
+        channel.force(true);
+        channel.close();
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    //Without a commit the new contents are thrown away
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.foodtrackerclitool;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/*
+ * Shows a catalog sorted by name one page at a time instead of printing every row.
+ * A page remembers the names of its first and last rows. The next page is read from just after the last name
+ * and the previous page from just before the first, both found by a search of the sorted data, so turning a page
+ * never walks the rows in front of it. Rows added or deleted between pages only move the page along.
+ *
+ * Every row of a page is formatted into one reused StringBuilder and written through one buffered writer over
+ * System.out that is flushed once per page.
+ * */
+final class CatalogPager<T> {
+    static final String NEXT = "n";
+    static final String PREVIOUS = "p";
+
+    //Shared by every pager so there is one buffer in front of System.out
+    private static final PrintWriter OUT = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16), false);
+
+    //Up to count rows in name order that come after, or before, the name
+    interface Source<T> {
+        List<T> rows(String name, int count);
+    }
+
+    private final String heading;
+    private final int pageSize;
+    private final Source<T> after;
+    private final Source<T> before;
+    private final Function<T, String> name;
+    private final BiConsumer<T, StringBuilder> format;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private String first;
+    private String last;
+
+    CatalogPager(String heading, int pageSize, Source<T> after, Source<T> before,
+                 Function<T, String> name, BiConsumer<T, StringBuilder> format) {
+        this.heading = heading;
+        this.pageSize = pageSize;
+        this.after = after;
+        this.before = before;
+        this.name = name;
+        this.format = format;
+    }
+
+    synchronized void showFirst() {
+        Show(after.rows(null, pageSize + 1), true);
+    }
+
+    synchronized void showNext() {
+        if (last == null) {
+            showFirst();
+            return;
+        }
+
+        List<T> rows = after.rows(last, pageSize + 1);
+        if (rows.isEmpty()) {
+            System.out.println("Already On The Last Page");
+            System.out.println();
+            return;
+        }
+        Show(rows, true);
+    }
+
+    synchronized void showPrevious() {
+        if (first == null) {
+            showFirst();
+            return;
+        }
+
+        //Near the start there may not be a whole page left, the first page is shown instead
+        List<T> rows = before.rows(first, pageSize);
+        if (rows.size() < pageSize) {
+            showFirst();
+            return;
+        }
+        Show(rows, false);
+    }
+
+    //Returns false when the input is not a page command, so the caller can handle it
+    boolean turn(String input) {
+        String command = input.trim().toLowerCase(Locale.ROOT);
+        if (command.equals(NEXT)) {
+            showNext();
+        } else if (command.equals(PREVIOUS)) {
+            showPrevious();
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    //Rows read forward hold one more than a page, to tell whether a next page exists without reading it
+    //A page read backward always has one after it
+    private void Show(List<T> rows, boolean forward) {
+        boolean more = !forward || rows.size() > pageSize;
+        int count = Math.min(rows.size(), pageSize);
+
+        OUT.println(heading);
+        for (int i = 0; i < count; i++) {
+            line.setLength(0);
+            format.accept(rows.get(i), line);
+            OUT.append(line).println();
+        }
+
+        if (count == 0) {
+            first = null;
+            last = null;
+        } else {
+            first = name.apply(rows.get(0));
+            last = name.apply(rows.get(count - 1));
+            if (more || !before.rows(first, 1).isEmpty()) {
+                OUT.println("Enter " + NEXT + " For The Next Page Or " + PREVIOUS + " For The Previous Page");
+            }
+        }
+        OUT.println();
+        OUT.flush();
+    }
+}
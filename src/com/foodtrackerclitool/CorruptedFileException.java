@@ -0,0 +1,9 @@
+package com.foodtrackerclitool;
+
+class CorruptedFileException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    CorruptedFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,343 @@
+package com.foodtrackerclitool;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Reads a CSV file one record at a time straight out of a byte buffer.
+ * Field boundaries are stored as offsets into the buffer so nothing is copied until a caller asks for a value,
+ * and numbers are parsed from the bytes without building a String.
+ * Up to MAX_COPY bytes are read into the heap in one go, larger files are memory mapped in windows and the window is
+ * moved forward whenever a record runs past its end. Java cannot unmap a buffer, a mapping lasts until it is garbage
+ * collected even after close, and on Windows a mapped file cannot be renamed or deleted until then. Small files,
+ * which are most of what is read, are therefore never mapped and can be moved as soon as the reader is closed.
+ * Files from other programs can be opened with quoting, then a field wrapped in double quotes may hold commas
+ * and "" stands for one quote. A quoted field still has to fit on one line.
+ * */
+final class CsvTokenizer implements Closeable {
+    private static final int MAX_WINDOW = 1 << 30;
+    private static final int MAX_COPY = 1 << 24;
+    private static final byte DELIMITER = ',';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte QUOTE = '"';
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long end;
+    private ByteBuffer buffer;
+    private long windowStart;
+    private int windowLimit;
+    private long position;
+    private int recordStart;
+    private int recordEnd;
+    private int[] fieldStarts = new int[8];
+    private int[] fieldEnds = new int[8];
+    private int fieldCount;
+    private boolean exhausted;
+    private boolean quoted;
+    private byte[] scratch = new byte[64];
+
+    private CsvTokenizer(FileChannel channel, long start, long end) throws IOException {
+        this.channel = channel;
+        this.end = end;
+        this.position = start;
+        map(start);
+    }
+
+    static CsvTokenizer Open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new CsvTokenizer(channel, 0, channel.size());
+    }
+
+    static CsvTokenizer OpenQuoted(File file) throws IOException {
+        CsvTokenizer tokenizer = Open(file);
+        tokenizer.quoted = true;
+        return tokenizer;
+    }
+
+    //Reads only the bytes between start and end, used to split one file between several readers
+    static CsvTokenizer Open(File file, long start, long end) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new CsvTokenizer(channel, start, Math.min(end, channel.size()));
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        windowLimit = (int) Math.min(MAX_WINDOW, end - start);
+        if (end - start <= MAX_COPY) {
+            buffer = read(start, windowLimit);
+        } else {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, windowLimit);
+        }
+    }
+
+    private ByteBuffer read(long start, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, start + bytes.position()) < 0) {
+                throw new IOException("File Was Shortened While Being Read");
+            }
+        }
+        return bytes;
+    }
+
+    //Moves to the next line, returns false once the end of the file has been reached
+    boolean nextRecord() throws IOException {
+        if (position >= end) {
+            fieldCount = 0;
+            exhausted = true;
+            return false;
+        }
+
+        int from = (int) (position - windowStart);
+        int lineFeed = indexOf(LINE_FEED, from, windowLimit);
+
+        if (lineFeed < 0 && windowStart + windowLimit < end) {
+            if (from == 0) {
+                throw new IOException("Record Is Too Large To Read");
+            }
+            map(position);
+            from = 0;
+            lineFeed = indexOf(LINE_FEED, from, windowLimit);
+        }
+
+        int lineEnd = lineFeed < 0 ? windowLimit : lineFeed;
+        position = windowStart + lineEnd + 1;
+
+        if (lineEnd > from && buffer.get(lineEnd - 1) == CARRIAGE_RETURN) {
+            lineEnd--;
+        }
+
+        recordStart = from;
+        recordEnd = lineEnd;
+        splitFields();
+        return true;
+    }
+
+    private void splitFields() {
+        fieldCount = 0;
+        int start = recordStart;
+        boolean inQuotes = false;
+
+        for (int i = recordStart; i <= recordEnd; i++) {
+            if (quoted && i < recordEnd && buffer.get(i) == QUOTE) {
+                inQuotes = !inQuotes;
+            } else if (i == recordEnd || (!inQuotes && buffer.get(i) == DELIMITER)) {
+                if (fieldCount == fieldStarts.length) {
+                    int[] starts = new int[fieldCount * 2];
+                    int[] ends = new int[fieldCount * 2];
+                    System.arraycopy(fieldStarts, 0, starts, 0, fieldCount);
+                    System.arraycopy(fieldEnds, 0, ends, 0, fieldCount);
+                    fieldStarts = starts;
+                    fieldEnds = ends;
+                }
+                fieldStarts[fieldCount] = start;
+                fieldEnds[fieldCount] = i;
+                fieldCount++;
+                start = i + 1;
+            }
+        }
+    }
+
+    private int indexOf(byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //Absolute file offset of the record that the next call to nextRecord will read
+    long position() {
+        return position;
+    }
+
+    //True once nextRecord has run past the end, false if the reader stopped early
+    boolean isExhausted() {
+        return exhausted;
+    }
+
+    //Continuation rows (ingredients, meal items) start with a delimiter, new records never do
+    boolean startsWithDelimiter() {
+        return recordEnd > recordStart && buffer.get(recordStart) == DELIMITER;
+    }
+
+    boolean isEmptyRecord() {
+        return recordEnd == recordStart;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    //Fields past the end of the record are treated as blank, the same as trailing commas
+    boolean isBlank(int field) {
+        if (field >= fieldCount) {
+            return true;
+        }
+
+        for (int i = fieldStarts[field]; i < fieldEnds[field]; i++) {
+            byte b = buffer.get(i);
+            if (!Character.isWhitespace(b) && !(quoted && b == QUOTE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String getString(int field) {
+        if (field >= fieldCount) {
+            return "";
+        }
+
+        int length = fieldEnds[field] - fieldStarts[field];
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        if (quoted) {
+            return Unquote(fieldStarts[field], fieldEnds[field]);
+        }
+
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(fieldStarts[field] + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    //Drops the quotes around quoted text and turns each "" inside it into one quote
+    private String Unquote(int start, int stop) {
+        int length = 0;
+        boolean inQuotes = false;
+
+        for (int i = start; i < stop; i++) {
+            byte b = buffer.get(i);
+            if (b == QUOTE) {
+                if (inQuotes && i + 1 < stop && buffer.get(i + 1) == QUOTE) {
+                    scratch[length++] = QUOTE;
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else {
+                scratch[length++] = b;
+            }
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Parses plain decimals (an optional sign, digits and a decimal point) directly from the mapping.
+     * When the value has too many digits to be exact, or uses exponents or special values, it falls back to
+     * Double.parseDouble so the result always matches what the JDK would have produced.
+     * */
+    double getDouble(int field) {
+        if (field >= fieldCount) {
+            throw new NumberFormatException("empty String");
+        }
+
+        int start = fieldStarts[field];
+        int stop = fieldEnds[field];
+
+        while (start < stop && Character.isWhitespace(buffer.get(start))) start++;
+        while (stop > start && Character.isWhitespace(buffer.get(stop - 1))) stop--;
+
+        if (quoted && stop - start >= 2 && buffer.get(start) == QUOTE && buffer.get(stop - 1) == QUOTE) {
+            start++;
+            stop--;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < stop && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int fractionDigits = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+
+        for (; i < stop; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                seenDigit = true;
+                if (seenPoint) fractionDigits++;
+                if (mantissa > MAX_EXACT_MANTISSA || fractionDigits >= POWERS_OF_TEN.length) {
+                    return parseFallback(field);
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return parseFallback(field);
+            }
+        }
+
+        if (!seenDigit) {
+            return parseFallback(field);
+        }
+
+        double value = (double) mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    //Whole numbers such as ids, anything else throws NumberFormatException
+    int getInt(int field) {
+        return Integer.parseInt(getString(field).trim());
+    }
+
+    //Splits one line of text with the same quoting, throws IllegalArgumentException when a quote is never closed
+    static String[] SplitQuoted(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == QUOTE) {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    field.append(c);
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == DELIMITER && !inQuotes) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (inQuotes) {
+            throw new IllegalArgumentException("Quote Is Never Closed");
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private double parseFallback(int field) {
+        return Double.parseDouble(getString(field));
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,304 @@
+package com.foodtrackerclitool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+ * Writes a made up FoodItems.csv, MenuItems.csv and MealHistory of any size, for trying the program out on far
+ * more data than anyone has typed in. MealHistory holds one file per month and the manifest listing them, the same
+ * as the program saves it.
+ *   Options:
+ *       foods=<count>;menu-items=<count>;ingredients=<per menu item>;meals-per-day=<1 to 6>;items-per-meal=<most>;
+ *       years=<of meal history>;start=<MM/dd/yyyy>;seed=<number>
+ *       Any option left out keeps its default, the same options always give the same files
+ *
+ * Nothing is kept in memory: every food and menu item is made again from the seed and its number whenever it is
+ * needed, so a menu item's total can be written without holding the foods, and a meal's without holding the menu.
+ * Every menu item only uses foods in the food file and every meal only uses menu items in the menu file.
+ * A food's or menu item's number is also its id.
+ * */
+final class DatasetGenerator {
+    static final String FOOD_FILE = "FoodItems.csv";
+    static final String MENU_FILE = "MenuItems.csv";
+    static final String MEAL_DIRECTORY = "MealHistory";
+    //Meals from an older version, the program would import them over the generated ones
+    static final String LEGACY_MEAL_FILE = "MealItems.csv";
+
+    //Salts keep the random numbers for food 5 apart from those for menu item 5 and day 5
+    private static final long FOOD_SALT = 0x1F00DL;
+    private static final long MENU_SALT = 0x2AE17L;
+    private static final long DAY_SALT = 0x3DA75L;
+    private static final double[] SERVING_SIZES = {1, 28, 50, 100, 100, 100, 150, 240};
+    private static final String[] FOOD_WORDS = {"raw", "roasted", "smoked", "baked", "fresh", "dried", "boiled", "salted", "grilled", "frozen"};
+    private static final String[] FOOD_NAMES = {"apple", "oats", "chicken", "rice", "beans", "cheese", "salmon", "spinach", "almonds", "potato", "egg", "bread"};
+    private static final String[] DISH_NAMES = {"bowl", "salad", "wrap", "plate", "soup", "sandwich", "stir fry", "casserole"};
+
+    private int foods = 10000;
+    private int menuItems = 2000;
+    private int ingredients = 4;
+    private int mealsPerDay = 3;
+    private int itemsPerMeal = 2;
+    private int years = 5;
+    private int start = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+    private long seed = 1;
+
+    private long meals;
+
+    //Throws IllegalArgumentException for an option it does not understand
+    static DatasetGenerator Run(File directory, String options) throws IOException {
+        DatasetGenerator generator = new DatasetGenerator();
+        generator.ReadOptions(options);
+
+        File foodFile = new File(directory, FOOD_FILE);
+        File menuFile = new File(directory, MENU_FILE);
+        File mealDirectory = new File(directory, MEAL_DIRECTORY);
+        if (foodFile.exists() || menuFile.exists() || mealDirectory.exists() || new File(directory, LEGACY_MEAL_FILE).exists()) {
+            throw new IOException("Data Files Already Exist In " + directory.getPath());
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could Not Create " + directory.getPath());
+        }
+
+        generator.WriteFoods(foodFile);
+        generator.WriteMenu(menuFile);
+        generator.WriteMeals(mealDirectory);
+        return generator;
+    }
+
+    int foods() {
+        return foods;
+    }
+
+    int menuItems() {
+        return menuItems;
+    }
+
+    long meals() {
+        return meals;
+    }
+
+    private void WriteFoods(File file) throws IOException {
+        try (AtomicFileWriter out = new AtomicFileWriter(file.getPath())) {
+            PrintWriter writer = out.writer();
+            writer.println(Main.FoodHeader(foods));
+            for (int id = 0; id < foods; id++) {
+                writer.println(id + "," + MakeFood(id).toString().replace("\t", ","));
+            }
+            out.commit();
+        }
+    }
+
+    private void WriteMenu(File file) throws IOException {
+        try (AtomicFileWriter out = new AtomicFileWriter(file.getPath())) {
+            PrintWriter writer = out.writer();
+            writer.println(Main.MenuHeader(menuItems));
+
+            int[] foodIds = new int[ingredients];
+            double[] weights = new double[ingredients];
+            for (int item = 0; item < menuItems; item++) {
+                double total = MakeMenuItem(item, foodIds, weights);
+                writer.println(item + "," + MenuItemName(item));
+                for (int i = 0; i < ingredients; i++) {
+                    writer.println("," + foodIds[i] + "," + weights[i]);
+                }
+                writer.println(",," + total);
+            }
+            out.commit();
+        }
+    }
+
+    //One file per month and then the manifest, which is what tells the program the months are there
+    private void WriteMeals(File directory) throws IOException {
+        if (!directory.mkdir()) {
+            throw new IOException("Could Not Create " + directory.getPath());
+        }
+
+        long end = LocalDate.ofEpochDay(start).plusYears(years).toEpochDay();
+        StringBuilder manifest = new StringBuilder(MealHistory.MANIFEST_HEADER).append(System.lineSeparator());
+
+        int[] foodIds = new int[ingredients];
+        double[] weights = new double[ingredients];
+        boolean[] eaten = new boolean[MealType.COUNT];
+
+        for (int day = start; day < end; ) {
+            int month = Days.MonthOf(day);
+            String name = MealHistory.SegmentName(month);
+            long monthMeals = 0;
+
+            try (AtomicFileWriter out = new AtomicFileWriter(new File(directory, name).getPath())) {
+                PrintWriter writer = out.writer();
+                writer.println(Main.mealHeader);
+                for (; day < end && Days.MonthOf(day) == month; day++) {
+                    monthMeals += WriteDay(writer, day, eaten, foodIds, weights);
+                }
+                out.commit();
+            }
+
+            manifest.append(name.replace(".csv", "")).append(',').append(monthMeals).append(System.lineSeparator());
+            meals += monthMeals;
+        }
+
+        try (AtomicFileWriter out = new AtomicFileWriter(new File(directory, MealHistory.MANIFEST).getPath())) {
+            out.writer().print(manifest);
+            out.commit();
+        }
+    }
+
+    //Each day has meals-per-day of the meal types, always in the same order the program lists them
+    private int WriteDay(PrintWriter writer, int day, boolean[] eaten, int[] foodIds, double[] weights) {
+        SplittableRandom random = Random(DAY_SALT, day - start);
+        ChooseMeals(random, eaten);
+        writer.println(Days.Format(day));
+
+        int written = 0;
+        for (int type = 0; type < eaten.length; type++) {
+            if (!eaten[type]) continue;
+            writer.println("," + MealType.Of(type));
+
+            double total = 0;
+            int items = 1 + random.nextInt(itemsPerMeal);
+            for (int i = 0; i < items; i++) {
+                int item = random.nextInt(menuItems);
+                writer.println(",," + item);
+                total += MakeMenuItem(item, foodIds, weights);
+            }
+            writer.println(",,," + total);
+            written++;
+        }
+        return written;
+    }
+
+    //Picks meals-per-day different meal types, a partial shuffle of the types
+    private void ChooseMeals(SplittableRandom random, boolean[] eaten) {
+        int[] types = new int[eaten.length];
+        for (int i = 0; i < types.length; i++) types[i] = i;
+        for (int i = 0; i < mealsPerDay; i++) {
+            int pick = i + random.nextInt(types.length - i);
+            int swap = types[i];
+            types[i] = types[pick];
+            types[pick] = swap;
+        }
+
+        Arrays.fill(eaten, false);
+        for (int i = 0; i < mealsPerDay; i++) eaten[types[i]] = true;
+    }
+
+    private Food MakeFood(int id) {
+        SplittableRandom random = Random(FOOD_SALT, id);
+        double fat = Tenths(random, 30);
+        double carbs = Tenths(random, 80);
+        double protein = Tenths(random, 40);
+        double cals = Math.round(((9 * fat) + (4 * (carbs + protein))) * 10) / 10.0;
+        double servingSize = SERVING_SIZES[random.nextInt(SERVING_SIZES.length)];
+        return new Food(FoodName(id), cals, fat, carbs, protein, servingSize);
+    }
+
+    //Fills in the item's foods and weights and returns its total calories, the foods are all different
+    private double MakeMenuItem(int item, int[] foodIds, double[] weights) {
+        SplittableRandom random = Random(MENU_SALT, item);
+        double total = 0;
+
+        for (int i = 0; i < ingredients; i++) {
+            int food = random.nextInt(foods);
+            for (int j = 0; j < i; j++) {
+                if (foodIds[j] == food) {
+                    food = (food + 1) % foods;
+                    j = -1;
+                }
+            }
+            foodIds[i] = food;
+            weights[i] = 5 + random.nextInt(396);
+
+            Food made = MakeFood(food);
+            total += weights[i] / made.getServingSize() * made.getCals();
+        }
+        return total;
+    }
+
+    //Names are stored the way the food editor stores them, the number keeps every name different
+    private static String FoodName(int id) {
+        return FOOD_WORDS[id % FOOD_WORDS.length] + " " + FOOD_NAMES[(id / FOOD_WORDS.length) % FOOD_NAMES.length] + " " + id;
+    }
+
+    private static String MenuItemName(int item) {
+        return FOOD_NAMES[item % FOOD_NAMES.length] + " " + DISH_NAMES[(item / FOOD_NAMES.length) % DISH_NAMES.length] + " " + item;
+    }
+
+    private static double Tenths(SplittableRandom random, int most) {
+        return random.nextInt(most * 10 + 1) / 10.0;
+    }
+
+    private SplittableRandom Random(long salt, long index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + salt * 0xBF58476D1CE4E5B9L + index);
+    }
+
+    private void ReadOptions(String options) {
+        if (options.isBlank()) return;
+
+        for (String pair : options.split(";")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid Generator Option: " + pair);
+            String option = parts[0].trim().toLowerCase();
+            String value = parts[1].trim();
+
+            switch (option) {
+                case "foods":
+                    foods = Count(option, value, 1);
+                    break;
+                case "menu-items":
+                    menuItems = Count(option, value, 1);
+                    break;
+                case "ingredients":
+                    ingredients = Count(option, value, 1);
+                    break;
+                case "meals-per-day":
+                    mealsPerDay = Count(option, value, 1);
+                    break;
+                case "items-per-meal":
+                    itemsPerMeal = Count(option, value, 1);
+                    break;
+                case "years":
+                    years = Count(option, value, 0);
+                    break;
+                case "start":
+                    try {
+                        start = Days.Parse(value);
+                    } catch (ParseException e) {
+                        throw new IllegalArgumentException("Invalid Start Date: " + value);
+                    }
+                    break;
+                case "seed":
+                    try {
+                        seed = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid Seed: " + value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown Generator Option: " + parts[0].trim());
+            }
+        }
+
+        if (ingredients > foods) {
+            throw new IllegalArgumentException("A Menu Item Cannot Have More Ingredients Than There Are Foods");
+        }
+        if (mealsPerDay > MealType.COUNT) {
+            throw new IllegalArgumentException("There Are Only " + MealType.COUNT + " Meals In A Day");
+        }
+    }
+
+    private static int Count(String option, String value, int least) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= least) return count;
+        } catch (NumberFormatException e) {
+            //Reported below
+        }
+        throw new IllegalArgumentException("Invalid " + option + ": " + value);
+    }
+}
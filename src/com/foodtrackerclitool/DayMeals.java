@@ -0,0 +1,70 @@
+package com.foodtrackerclitool;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+ * The meals of one day: a slot for each meal type indexed by its ordinal, and a bit for each filled slot so
+ * counting and walking the meals skips the empty ones. Meals are walked in meal type order.
+ *
+ * Nothing in it changes once it is built, with() returns a changed copy.
+ * */
+final class DayMeals implements Iterable<Meal> {
+    static final DayMeals EMPTY = new DayMeals(new Meal[MealType.COUNT], 0);
+
+    private final Meal[] slots;
+    private final int filled;
+
+    private DayMeals(Meal[] slots, int filled) {
+        this.slots = slots;
+        this.filled = filled;
+    }
+
+    //Returns null when there is no meal of that type on this day
+    Meal get(MealType type) {
+        return slots[type.ordinal()];
+    }
+
+    int size() {
+        return Integer.bitCount(filled);
+    }
+
+    boolean isEmpty() {
+        return filled == 0;
+    }
+
+    //A copy with the meal in place of any meal of the same type
+    DayMeals with(Meal meal) {
+        int slot = meal.getMealType().ordinal();
+        Meal[] copy = slots.clone();
+        copy[slot] = meal;
+        return new DayMeals(copy, filled | 1 << slot);
+    }
+
+    //A copy with every meal of the other day in place of the meals of the same types
+    DayMeals withAll(DayMeals other) {
+        Meal[] copy = slots.clone();
+        for (Meal meal : other) copy[meal.getMealType().ordinal()] = meal;
+        return new DayMeals(copy, filled | other.filled);
+    }
+
+    @Override
+    public Iterator<Meal> iterator() {
+        return new Iterator<>() {
+            private int remaining = filled;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            @Override
+            public Meal next() {
+                if (remaining == 0) throw new NoSuchElementException();
+                int slot = Integer.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return slots[slot];
+            }
+        };
+    }
+}
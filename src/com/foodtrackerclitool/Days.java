@@ -0,0 +1,98 @@
+package com.foodtrackerclitool;
+
+import java.text.ParseException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+
+/*
+ * Meal dates are kept as epoch days, the number of days since 01/01/1970, so a date is an int, comparing two
+ * dates is comparing two ints and the day after is day + 1. A date has no time or time zone.
+ *
+ * Dates are read and written as MM/dd/yyyy. The usual full width date is parsed and formatted by hand, anything
+ * else (1/5/2024) goes through one shared DateTimeFormatter, which unlike SimpleDateFormat is safe to use from
+ * every thread at once, so no formatter is made per file, row or request.
+ * Only years from FIRST_YEAR to LAST_YEAR are read, a date far outside them is a typo (01/01/0001) and would
+ * otherwise stretch every range over the meals across centuries.
+ * */
+final class Days {
+    private static final DateTimeFormatter INPUT = DateTimeFormatter.ofPattern("M/d/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter OUTPUT = DateTimeFormatter.ofPattern("MM/dd/uuuu");
+    static final int FIRST_YEAR = 1900;
+    static final int LAST_YEAR = 2199;
+
+    private Days() {
+    }
+
+    //Throws ParseException for anything that is not a real date, 02/30/2024 included, or is outside the years read
+    static int Parse(String text) throws ParseException {
+        text = text.trim();
+        LocalDate date;
+
+        try {
+            date = ParseDate(text);
+        } catch (DateTimeException e) {
+            throw new ParseException("Invalid Date: " + text, 0);
+        }
+
+        if (date.getYear() < FIRST_YEAR || date.getYear() > LAST_YEAR) {
+            throw new ParseException("Date Must Be Between " + FIRST_YEAR + " And " + LAST_YEAR + ": " + text, 0);
+        }
+        return (int) date.toEpochDay();
+    }
+
+    private static LocalDate ParseDate(String text) {
+        if (text.length() == 10 && text.charAt(2) == '/' && text.charAt(5) == '/') {
+            int month = Digits(text, 0, 2);
+            int day = Digits(text, 3, 5);
+            int year = Digits(text, 6, 10);
+            if (month >= 0 && day >= 0 && year >= 0) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(text, INPUT);
+    }
+
+    static String Format(int day) {
+        LocalDate date = LocalDate.ofEpochDay(day);
+        int year = date.getYear();
+        if (year < 0 || year > 9999) return OUTPUT.format(date);
+
+        char[] text = new char[10];
+        Write(text, 0, date.getMonthValue(), 2);
+        text[2] = '/';
+        Write(text, 3, date.getDayOfMonth(), 2);
+        text[5] = '/';
+        Write(text, 6, year, 4);
+        return new String(text);
+    }
+
+    static int Today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    //Months are numbered year * 12 + month (0 to 11) so neighbouring months are neighbouring numbers
+    static int MonthOf(int day) {
+        LocalDate date = LocalDate.ofEpochDay(day);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    //Returns -1 when any character is not a digit
+    private static int Digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void Write(char[] text, int start, int value, int width) {
+        for (int i = start + width - 1; i >= start; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
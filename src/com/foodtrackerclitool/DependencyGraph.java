@@ -0,0 +1,108 @@
+package com.foodtrackerclitool;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Which menu items use each food and which meals use each menu item.
+ *   Food --> MenuItem --> Meal
+ *
+ * When a food changes only the menu items that use it, and the meals that hold those menu items, have their
+ * totals recalculated. Menu items and meals are tracked by identity, a meal keeps pointing at the menu item
+ * object it was saved with even after that menu item is replaced.
+ * The food to menu item edges are only built the first time a food's users are asked for, so startup does not
+ * pay for them when no food is edited.
+ * */
+final class DependencyGraph {
+    private final Map<Integer, Set<MenuItem>> itemsByFood = new HashMap<>();
+    private final Map<MenuItem, Set<Meal>> mealsByItem = new IdentityHashMap<>();
+    private Collection<MenuItem> menuItems;
+    private boolean indexed;
+
+    //A live view of every saved menu item, read when the food edges are first needed
+    synchronized void setMenuItems(Collection<MenuItem> items) {
+        menuItems = items;
+        indexed = false;
+        itemsByFood.clear();
+    }
+
+    //Until the edges are built, changes are picked up from the menu items themselves
+    synchronized void addMenuItem(MenuItem item) {
+        if (!indexed) return;
+        for (Ingredient ingredient : item.getIngredients()) {
+            ingredientAdded(item, ingredient.getFoodId());
+        }
+    }
+
+    //Forgets a menu item that was deleted, unless a saved meal still holds it
+    synchronized void removeMenuItem(MenuItem item) {
+        if (!indexed || mealsByItem.containsKey(item)) {
+            return;
+        }
+        for (Ingredient ingredient : item.getIngredients()) {
+            ingredientRemoved(item, ingredient.getFoodId());
+        }
+    }
+
+    synchronized void ingredientAdded(MenuItem item, int foodId) {
+        if (!indexed) return;
+        itemsByFood.computeIfAbsent(foodId, id -> IdentitySet()).add(item);
+    }
+
+    synchronized void ingredientRemoved(MenuItem item, int foodId) {
+        if (!indexed) return;
+        Set<MenuItem> items = itemsByFood.get(foodId);
+        if (items != null && items.remove(item) && items.isEmpty()) {
+            itemsByFood.remove(foodId);
+        }
+    }
+
+    synchronized void addMeal(Meal meal) {
+        for (MenuItem item : meal.getMealItems()) {
+            mealsByItem.computeIfAbsent(item, i -> IdentitySet()).add(meal);
+        }
+    }
+
+    synchronized void removeMeal(Meal meal) {
+        for (MenuItem item : meal.getMealItems()) {
+            Set<Meal> meals = mealsByItem.get(item);
+            if (meals != null && meals.remove(meal) && meals.isEmpty()) {
+                mealsByItem.remove(item);
+            }
+        }
+    }
+
+    synchronized Set<MenuItem> itemsUsing(int foodId) {
+        if (!indexed) BuildFoodEdges();
+
+        Set<MenuItem> items = IdentitySet();
+        items.addAll(itemsByFood.getOrDefault(foodId, Collections.emptySet()));
+        return items;
+    }
+
+    synchronized Set<Meal> mealsUsing(Collection<MenuItem> items) {
+        Set<Meal> meals = IdentitySet();
+        for (MenuItem item : items) {
+            meals.addAll(mealsByItem.getOrDefault(item, Collections.emptySet()));
+        }
+        return meals;
+    }
+
+    //Menu items that were replaced or deleted but are still held by a meal count as users too
+    private void BuildFoodEdges() {
+        indexed = true;
+        if (menuItems != null) {
+            for (MenuItem item : menuItems) addMenuItem(item);
+        }
+        for (MenuItem item : mealsByItem.keySet()) addMenuItem(item);
+    }
+
+    //Most foods are used by a handful of menu items, so the sets start small
+    private static <T> Set<T> IdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>(4));
+    }
+}
@@ -0,0 +1,129 @@
+package com.foodtrackerclitool;
+
+class Food implements Comparable<Food> {
+    //Set when this food was read from a FoodStore, a food that has not been stored yet has no id
+    private final FoodStore store;
+    private final int id;
+    private String name;
+    private double cals;
+    private double fat;
+    private double carbs;
+    private double protein;
+    private double servingSize;
+
+    Food(String name, double cals, double fat, double carbs, double protein, double servingSize) {
+        this(null, -1, name, cals, fat, carbs, protein, servingSize);
+    }
+
+    Food(FoodStore store, int id, String name, double cals, double fat, double carbs, double protein, double servingSize) {
+        this.store = store;
+        this.id = id;
+        this.name = name;
+        this.cals = cals;
+        this.fat = fat;
+        this.carbs = carbs;
+        this.protein = protein;
+        this.servingSize = servingSize;
+    }
+
+    //Every way of adding a food stores its name like this, so the same food spelled differently is one food
+    //The data files are not quoted, so a comma in a name ("Apples, raw") is dropped
+    static String StoredName(String name) {
+        return NameIndex.Normalize(name.replace(',', ' '));
+    }
+
+    FoodStore getStore() {
+        return store;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    double getCals() {
+        return cals;
+    }
+
+    void setCals(double cals) {
+        this.cals = cals;
+    }
+
+    double getFat() {
+        return fat;
+    }
+
+    void setFat(double fat) {
+        this.fat = fat;
+    }
+
+    double getCarbs() {
+        return carbs;
+    }
+
+    void setCarbs(double carbs) {
+        this.carbs = carbs;
+    }
+
+    double getProtein() {
+        return protein;
+    }
+
+    void setProtein(double protein) {
+        this.protein = protein;
+    }
+
+    double getServingSize() {
+        return servingSize;
+    }
+
+    void setServingSize(double servingSize) {
+        this.servingSize = servingSize;
+    }
+
+    static double CalculateCalories(Food food, double weight) {
+        if (food == null) {
+            return 0;
+        }
+
+        if (food.store != null) {
+            return food.store.caloriesFor(food.id, weight);
+        }
+
+        double servingSize = food.getServingSize();
+        double servings = weight / servingSize;
+        return servings * food.getCals();
+    }
+
+    @Override
+    public String toString() {
+        return name + "\t" +
+                cals + "\t" +
+                fat + "\t" +
+                carbs + "\t" +
+                protein + "\t" +
+                servingSize;
+    }
+
+    //Writes the same text as toString() into a builder the caller can reuse
+    void appendTo(StringBuilder s) {
+        s.append(name).append('\t')
+                .append(cals).append('\t')
+                .append(fat).append('\t')
+                .append(carbs).append('\t')
+                .append(protein).append('\t')
+                .append(servingSize);
+    }
+
+    @Override
+    public int compareTo(Food food) {
+        return this.name.compareToIgnoreCase(food.name);
+    }
+}
@@ -0,0 +1,233 @@
+package com.foodtrackerclitool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/*
+ * Reads foods from a nutrient database exported by another program, where every row is one food and its
+ * nutrients are given per 100 g in columns of its own layout.
+ *   Column Mapping:
+ *       name=<column>;fat=<column>;carbs=<column>;protein=<column>[;serving=<column or grams>]
+ *       A column is a header name (any case) or #<index> counting from 0, serving defaults to 100 grams
+ *
+ * A reader thread turns rows into foods and hands them over in batches through a small bounded queue, so it
+ * waits whenever the batches are not applied as fast as they are read, and the file is never held in memory.
+ * */
+final class FoodImporter {
+    static final int BATCH_SIZE = 5000;
+    private static final int QUEUED_BATCHES = 4;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final double DEFAULT_SERVING_SIZE = 100;
+    private static final List<Food> END = Collections.emptyList();
+
+    //Applies one batch and returns how many of its foods were used
+    interface Sink {
+        int apply(List<Food> batch);
+    }
+
+    private final String mapping;
+    private int nameColumn = -1;
+    private int fatColumn = -1;
+    private int carbsColumn = -1;
+    private int proteinColumn = -1;
+    private int servingColumn = -1;
+    private double servingSize = DEFAULT_SERVING_SIZE;
+
+    private final BlockingQueue<List<Food>> batches = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+    private volatile IOException failure;
+    private long rows;
+    private long rejected;
+    private long applied;
+    private final List<String> errors = new ArrayList<>();
+
+    private FoodImporter(String mapping) {
+        this.mapping = mapping;
+    }
+
+    //Reads the whole file into the sink, the returned importer holds the counts and errors
+    static FoodImporter Run(File file, String mapping, Sink sink) throws IOException {
+        FoodImporter importer = new FoodImporter(mapping);
+
+        try (CsvTokenizer csvReader = CsvTokenizer.OpenQuoted(file)) {
+            if (!csvReader.nextRecord()) {
+                throw new IOException("Import File Is Empty");
+            }
+            importer.MapColumns(csvReader);
+
+            Thread reader = new Thread(() -> importer.ReadRows(csvReader), "food-importer");
+            reader.setDaemon(true);
+            reader.start();
+
+            try {
+                for (List<Food> batch = importer.Take(); batch != END; batch = importer.Take()) {
+                    importer.applied += sink.apply(batch);
+                }
+            } finally {
+                reader.interrupt();
+                Join(reader);
+            }
+        }
+
+        if (importer.failure != null) {
+            throw importer.failure;
+        }
+        return importer;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    long rejected() {
+        return rejected;
+    }
+
+    long applied() {
+        return applied;
+    }
+
+    List<String> errors() {
+        return errors;
+    }
+
+    private void ReadRows(CsvTokenizer csvReader) {
+        List<Food> batch = new ArrayList<>(BATCH_SIZE);
+        long line = 1;
+
+        try {
+            while (csvReader.nextRecord()) {
+                line++;
+                if (csvReader.isEmptyRecord()) continue;
+                rows++;
+
+                try {
+                    batch.add(ReadFood(csvReader));
+                } catch (IllegalArgumentException e) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) errors.add("Line " + line + ": " + e.getMessage());
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    batches.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+
+            if (!batch.isEmpty()) batches.put(batch);
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        try {
+            batches.put(END);
+        } catch (InterruptedException e) {
+            //The importer has already stopped taking batches
+        }
+    }
+
+    //Names are stored the way the food editor stores them, so the same food spelled differently is only added once
+    private Food ReadFood(CsvTokenizer csvReader) {
+        String name = Food.StoredName(csvReader.getString(nameColumn));
+        if (name.isEmpty()) throw new IllegalArgumentException("Missing Name");
+
+        double fat = Amount(csvReader, fatColumn, "Fat");
+        double carbs = Amount(csvReader, carbsColumn, "Carbs");
+        double protein = Amount(csvReader, proteinColumn, "Protein");
+        double serving = servingColumn < 0 ? servingSize : Amount(csvReader, servingColumn, "Serving Size");
+        if (serving <= 0) throw new IllegalArgumentException("Serving Size Must Be Positive");
+
+        double cals = (9 * fat) + (4 * (carbs + protein));
+        return new Food(name, cals, fat, carbs, protein, serving);
+    }
+
+    //A blank nutrient is taken as none of it
+    private static double Amount(CsvTokenizer csvReader, int column, String nutrient) {
+        if (csvReader.isBlank(column)) return 0;
+
+        try {
+            double amount = csvReader.getDouble(column);
+            if (Double.isNaN(amount) || Double.isInfinite(amount) || amount < 0) throw new NumberFormatException();
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + nutrient + ": " + csvReader.getString(column));
+        }
+    }
+
+    private void MapColumns(CsvTokenizer header) throws IOException {
+        for (String pair : mapping.split(";")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length != 2) throw new IOException("Invalid Column Mapping: " + pair);
+            String field = parts[0].trim().toLowerCase();
+            String column = parts[1].trim();
+
+            switch (field) {
+                case "name":
+                    nameColumn = Column(header, column);
+                    break;
+                case "fat":
+                    fatColumn = Column(header, column);
+                    break;
+                case "carbs":
+                    carbsColumn = Column(header, column);
+                    break;
+                case "protein":
+                    proteinColumn = Column(header, column);
+                    break;
+                case "serving":
+                    try {
+                        servingSize = Double.parseDouble(column);
+                    } catch (NumberFormatException e) {
+                        servingColumn = Column(header, column);
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown Column Mapping Field: " + parts[0].trim());
+            }
+        }
+
+        if (nameColumn < 0 || fatColumn < 0 || carbsColumn < 0 || proteinColumn < 0) {
+            throw new IOException("Column Mapping Needs name, fat, carbs And protein");
+        }
+    }
+
+    private static int Column(CsvTokenizer header, String column) throws IOException {
+        if (column.startsWith("#")) {
+            try {
+                return Integer.parseInt(column.substring(1));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid Column Index: " + column);
+            }
+        }
+
+        for (int i = 0; i < header.fieldCount(); i++) {
+            if (header.getString(i).trim().equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        throw new IOException("Import File Has No Column Named " + column);
+    }
+
+    private List<Food> Take() throws IOException {
+        try {
+            return batches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import Was Interrupted");
+        }
+    }
+
+    private static void Join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,594 @@
+package com.foodtrackerclitool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/*
+ * Every food's values kept in one array per nutrient, indexed by the food's id.
+ * Names are looked up through an open addressing table of ids, so there is no entry object per food.
+ * Ids are handed out in order. A deleted food keeps its row, its id and its values so menu items that still use it
+ * keep working, it is saved as a deleted row for the same reason. A food added again under a deleted food's name
+ * takes its row back, so those menu items use the new values the same as they would when the food is edited.
+ * Ids are saved with the foods, menu items refer to their foods by id on disk as well as here.
+ * Food objects returned from here are copies of one row, made when they are asked for.
+ *
+ * Reads take no lock. A writer holds a StampedLock while it changes anything, a read of one or more values checks
+ * the lock's stamp afterwards and reads again under the read lock only when a writer ran in between, so a row is
+ * never seen half written. The columns live in one holder that is swapped when they grow, and the name table is
+ * filled before it is swapped in, so a read that races a writer never runs off the end of an array.
+ * Scans over every food (sorting, listing names) take the read lock.
+ * */
+final class FoodStore {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int EMPTY = 0;
+
+    //One array per value, indexed by id, replaced as a whole when they grow
+    private static final class Columns {
+        final String[] names;
+        final double[] cals;
+        final double[] fat;
+        final double[] carbs;
+        final double[] protein;
+        final double[] servingSize;
+        final boolean[] live;
+
+        Columns(int capacity) {
+            names = new String[capacity];
+            cals = new double[capacity];
+            fat = new double[capacity];
+            carbs = new double[capacity];
+            protein = new double[capacity];
+            servingSize = new double[capacity];
+            live = new boolean[capacity];
+        }
+
+        Columns(Columns from, int capacity) {
+            names = Arrays.copyOf(from.names, capacity);
+            cals = Arrays.copyOf(from.cals, capacity);
+            fat = Arrays.copyOf(from.fat, capacity);
+            carbs = Arrays.copyOf(from.carbs, capacity);
+            protein = Arrays.copyOf(from.protein, capacity);
+            servingSize = Arrays.copyOf(from.servingSize, capacity);
+            live = Arrays.copyOf(from.live, capacity);
+        }
+
+        //True when the id has a row this holder can be asked about, a read racing a writer may see an older holder
+        boolean has(int id) {
+            return id >= 0 && id < names.length && names[id] != null;
+        }
+    }
+
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile int count;
+    private volatile int liveCount;
+
+    //Holds id + 1 for each name, deleted foods included, EMPTY for a free slot
+    private volatile int[] table = new int[INITIAL_CAPACITY * 2];
+    private int tableUsed;
+
+    //Live ids sorted by name, rebuilt after the set of names changes
+    private volatile int[] sorted;
+
+    private final StampedLock lock = new StampedLock();
+
+    int size() {
+        return liveCount;
+    }
+
+    //Every id handed out so far is below this, including ids of deleted foods
+    int idCount() {
+        return count;
+    }
+
+    //False for ids never handed out and for deleted foods
+    boolean contains(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        boolean live = c.has(id) && c.live[id];
+        if (lock.validate(stamp)) return live;
+
+        stamp = lock.readLock();
+        try {
+            c = columns;
+            return c.has(id) && c.live[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //True for every id with a row, deleted foods included
+    boolean hasRow(int id) {
+        long stamp = lock.tryOptimisticRead();
+        boolean has = columns.has(id);
+        if (lock.validate(stamp)) return has;
+
+        stamp = lock.readLock();
+        try {
+            return columns.has(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Returns -1 when there is no food with this name
+    int idOf(String name) {
+        long stamp = lock.tryOptimisticRead();
+        int id = Find(name);
+        if (lock.validate(stamp)) return id;
+
+        stamp = lock.readLock();
+        try {
+            return Find(name);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Also finds a deleted food, returns -1 when no food ever had this name
+    int rowOf(String name) {
+        long stamp = lock.tryOptimisticRead();
+        int id = FindRow(name);
+        if (lock.validate(stamp)) return id;
+
+        stamp = lock.readLock();
+        try {
+            return FindRow(name);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int Find(String name) {
+        int id = FindRow(name);
+        return id >= 0 && columns.live[id] ? id : -1;
+    }
+
+    private int FindRow(String name) {
+        int[] table = this.table;
+        Columns c = columns;
+        int mask = table.length - 1;
+        for (int slot = Spread(name.hashCode()) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if (c.has(id) && c.names[id].equals(name)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    Food get(String name) {
+        long stamp = lock.tryOptimisticRead();
+        int id = Find(name);
+        Food food = id < 0 ? null : Row(columns, id);
+        if (lock.validate(stamp)) return food;
+
+        stamp = lock.readLock();
+        try {
+            id = Find(name);
+            return id < 0 ? null : Row(columns, id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    Food get(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        Food food = c.has(id) ? Row(c, id) : null;
+        if (food != null && lock.validate(stamp)) return food;
+
+        stamp = lock.readLock();
+        try {
+            return Row(columns, id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Adds a new food or overwrites the values of the food with the same name, deleted or not, returns its id
+    int put(Food food) {
+        return put(food.getName(), food.getCals(), food.getFat(), food.getCarbs(), food.getProtein(), food.getServingSize());
+    }
+
+    int put(String name, double cals, double fat, double carbs, double protein, double servingSize) {
+        long stamp = lock.writeLock();
+        try {
+            return Put(name, cals, fat, carbs, protein, servingSize);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int Put(String name, double cals, double fat, double carbs, double protein, double servingSize) {
+        int id = FindRow(name);
+
+        if (id < 0) {
+            if (count == columns.names.length) Grow(count + 1);
+            if ((tableUsed + 1) * 2 > table.length) Rehash();
+
+            id = count;
+            columns.names[id] = name;
+            Insert(table, id);
+            count = id + 1;
+        }
+
+        Columns c = columns;
+        if (!c.live[id]) {
+            c.live[id] = true;
+            liveCount++;
+            sorted = null;
+        }
+
+        c.cals[id] = cals;
+        c.fat[id] = fat;
+        c.carbs[id] = carbs;
+        c.protein[id] = protein;
+        c.servingSize[id] = servingSize;
+        return id;
+    }
+
+    /*
+     * Adds a food read from a file under the id it was saved with, a deleted food when live is false.
+     * False when the id or the name is already used. The caller checks the id is one the file could have handed
+     * out, the columns are grown to hold it.
+     * */
+    boolean load(int id, String name, double cals, double fat, double carbs, double protein, double servingSize, boolean live) {
+        long stamp = lock.writeLock();
+        try {
+            if (id < 0 || (id < count && columns.names[id] != null) || FindRow(name) >= 0) return false;
+
+            if (id >= columns.names.length) Grow(id + 1);
+            if ((tableUsed + 1) * 2 > table.length) Rehash();
+
+            Columns c = columns;
+            c.names[id] = name;
+            Insert(table, id);
+            count = Math.max(count, id + 1);
+            if (live) {
+                c.live[id] = true;
+                liveCount++;
+                sorted = null;
+            }
+
+            c.cals[id] = cals;
+            c.fat[id] = fat;
+            c.carbs[id] = carbs;
+            c.protein[id] = protein;
+            c.servingSize[id] = servingSize;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //New foods get ids from here on, so ids of foods deleted before the data was saved are not handed out again
+    void reserveIds(int nextId) {
+        long stamp = lock.writeLock();
+        try {
+            if (nextId > columns.names.length) Grow(nextId);
+            count = Math.max(count, nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //The food's row stays, see the top of the file
+    boolean remove(String name) {
+        long stamp = lock.writeLock();
+        try {
+            int id = Find(name);
+            if (id < 0) return false;
+
+            columns.live[id] = false;
+            liveCount--;
+            sorted = null;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //Visits every food in name order, foods added while it runs may be missed
+    void forEach(Consumer<Food> action) {
+        for (int id : sortedIds()) {
+            action.accept(get(id));
+        }
+    }
+
+    //Names of every food in id order
+    List<String> names() {
+        long stamp = lock.readLock();
+        try {
+            Columns c = columns;
+            List<String> live = new ArrayList<>(liveCount);
+            for (int id = 0; id < count; id++) {
+                if (c.live[id]) live.add(c.names[id]);
+            }
+            return live;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Ids of deleted foods in id order
+    int[] deletedIds() {
+        long stamp = lock.readLock();
+        try {
+            Columns c = columns;
+            int[] ids = new int[count - liveCount];
+            int n = 0;
+            for (int id = 0; id < count; id++) {
+                if (c.names[id] != null && !c.live[id]) ids[n++] = id;
+            }
+            return Arrays.copyOf(ids, n);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Sorting happens under the read lock, two threads asking at once may both sort
+    int[] sortedIds() {
+        int[] ids = sorted;
+        if (ids != null) return ids;
+
+        long stamp = lock.readLock();
+        try {
+            Columns c = columns;
+            String[] liveNames = new String[liveCount];
+            int n = 0;
+            for (int id = 0; id < count; id++) {
+                if (c.live[id]) liveNames[n++] = c.names[id];
+            }
+            Arrays.sort(liveNames);
+
+            ids = new int[liveCount];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = Find(liveNames[i]);
+            }
+            sorted = ids;
+            return ids;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Up to count foods in name order after the name, from the first one when the name is null
+    List<Food> after(String name, int count) {
+        int[] ids = sortedIds();
+        long stamp = lock.readLock();
+        try {
+            int from = name == null ? 0 : Bound(ids, name, true);
+            return Rows(ids, from, Math.min(ids.length, from + count));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Up to count foods in name order before the name
+    List<Food> before(String name, int count) {
+        int[] ids = sortedIds();
+        long stamp = lock.readLock();
+        try {
+            int to = Bound(ids, name, false);
+            return Rows(ids, Math.max(0, to - count), to);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Position of the first id whose name sorts after the name, or at or after it when after is false
+    private int Bound(int[] ids, String name, boolean after) {
+        String[] names = columns.names;
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compared = names[ids[middle]].compareTo(name);
+            if (compared < 0 || (after && compared == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private List<Food> Rows(int[] ids, int from, int to) {
+        Columns c = columns;
+        List<Food> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            rows.add(Row(c, ids[i]));
+        }
+        return rows;
+    }
+
+    /*
+     * Single values are read the same way as whole rows: the read is kept only when no writer ran during it.
+     * An id past the columns is read under the lock, where it fails the same as an array index would.
+     * */
+    String name(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        String name = c.has(id) ? c.names[id] : null;
+        if (name != null && lock.validate(stamp)) return name;
+
+        stamp = lock.readLock();
+        try {
+            return columns.names[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    double calories(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        if (c.has(id)) {
+            double value = c.cals[id];
+            if (lock.validate(stamp)) return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return columns.cals[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    double fat(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        if (c.has(id)) {
+            double value = c.fat[id];
+            if (lock.validate(stamp)) return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return columns.fat[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    double carbs(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        if (c.has(id)) {
+            double value = c.carbs[id];
+            if (lock.validate(stamp)) return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return columns.carbs[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    double protein(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        if (c.has(id)) {
+            double value = c.protein[id];
+            if (lock.validate(stamp)) return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return columns.protein[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    double servingSize(int id) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        if (c.has(id)) {
+            double value = c.servingSize[id];
+            if (lock.validate(stamp)) return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return columns.servingSize[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Calories in the given weight of a food, read straight from the columns
+    double caloriesFor(int id, double weight) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        if (c.has(id)) {
+            double calories = weight / c.servingSize[id] * c.cals[id];
+            if (lock.validate(stamp)) return calories;
+        }
+
+        stamp = lock.readLock();
+        try {
+            c = columns;
+            return weight / c.servingSize[id] * c.cals[id];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //Adds the macros of a weight of one food, a sign of -1 takes them away
+    void addTo(Macros macros, int id, double weight, int sign) {
+        long stamp = lock.tryOptimisticRead();
+        Columns c = columns;
+        double servings = 0, cals = 0, fat = 0, carbs = 0, protein = 0;
+        boolean read = false;
+        if (c.has(id)) {
+            servings = weight / c.servingSize[id];
+            cals = c.cals[id];
+            fat = c.fat[id];
+            carbs = c.carbs[id];
+            protein = c.protein[id];
+            read = lock.validate(stamp);
+        }
+
+        if (!read) {
+            stamp = lock.readLock();
+            try {
+                c = columns;
+                servings = weight / c.servingSize[id];
+                cals = c.cals[id];
+                fat = c.fat[id];
+                carbs = c.carbs[id];
+                protein = c.protein[id];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        macros.add(Macros.CALORIES, sign * servings * cals);
+        macros.add(Macros.FAT, sign * servings * fat);
+        macros.add(Macros.CARBS, sign * servings * carbs);
+        macros.add(Macros.PROTEIN, sign * servings * protein);
+        macros.add(Macros.GRAMS, sign * weight);
+    }
+
+    private Food Row(Columns c, int id) {
+        return new Food(this, id, c.names[id], c.cals[id], c.fat[id], c.carbs[id], c.protein[id], c.servingSize[id]);
+    }
+
+    private void Insert(int[] table, int id) {
+        int mask = table.length - 1;
+        int slot = Spread(columns.names[id].hashCode()) & mask;
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        tableUsed++;
+        table[slot] = id + 1;
+    }
+
+    //Grows the columns to hold at least this many ids
+    private void Grow(int size) {
+        columns = new Columns(columns, Math.max(columns.names.length * 2, size));
+    }
+
+    //The new table is filled before it replaces the old one, which readers may still be probing
+    private void Rehash() {
+        int[] rebuilt = new int[Integer.highestOneBit(Math.max(INITIAL_CAPACITY, tableUsed + 1) * 4)];
+        tableUsed = 0;
+
+        String[] names = columns.names;
+        for (int id = 0; id < count; id++) {
+            if (names[id] != null) Insert(rebuilt, id);
+        }
+        table = rebuilt;
+    }
+
+    private static int Spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,46 @@
+package com.foodtrackerclitool;
+
+final class Ingredient {
+    private final FoodStore store;
+    private final int foodId;
+    private final double weight;
+
+    Ingredient(Food food, double weight) {
+        this(food.getStore(), food.getId(), weight);
+    }
+
+    Ingredient(FoodStore store, int foodId, double weight) {
+        this.store = store;
+        this.foodId = foodId;
+        this.weight = weight;
+    }
+
+    Food getFood() {
+        return store.get(foodId);
+    }
+
+    FoodStore getStore() {
+        return store;
+    }
+
+    int getFoodId() {
+        return foodId;
+    }
+
+    String getFoodName() {
+        return store.name(foodId);
+    }
+
+    void addTo(Macros macros, int sign) {
+        macros.addFood(store, foodId, weight, sign);
+    }
+
+    double getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return getFood() + "\t" + weight;
+    }
+}
@@ -0,0 +1,157 @@
+package com.foodtrackerclitool;
+
+import java.io.File;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Flight Recorder events for the food tracker's file and query work, recorded by any JFR recording:
+ *   java -XX:StartFlightRecording=filename=tracker.jfr,settings=profile -jar FoodTracker.jar
+ * They show up under Food Tracker in JDK Mission Control, or with jfr print --categories "Food Tracker".
+ *
+ * Each event is begun before the work and only filled in when shouldCommit() says a recording wants it, so with
+ * no recording running an event costs a couple of checks and nothing is measured.
+ * */
+final class JfrEvents {
+    private JfrEvents() {
+    }
+
+    static void Commit(Load event, String kind, File file, long records) {
+        if (!event.shouldCommit()) return;
+
+        event.kind = kind;
+        event.file = file.getPath();
+        event.records = records;
+        event.bytes = file.length();
+        event.commit();
+    }
+
+    static void Commit(Save event, String kind, File file, long records) {
+        if (!event.shouldCommit()) return;
+
+        event.kind = kind;
+        event.file = file.getPath();
+        event.records = records;
+        event.bytes = file.length();
+        event.commit();
+    }
+
+    static void Commit(Query event, String kind, int from, int to) {
+        if (!event.shouldCommit()) return;
+
+        event.kind = kind;
+        event.from = Days.Format(from);
+        event.to = Days.Format(to);
+        event.days = Math.max(0, (long) to - from + 1);
+        event.commit();
+    }
+
+    @Name("com.foodtrackerclitool.Load")
+    @Label("Load Data File")
+    @Description("Reading a data file into memory, from the start of parsing until every record is built")
+    @Category({"Food Tracker", "I/O"})
+    @StackTrace(false)
+    static final class Load extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Kind")
+        @Description("Food, Menu Items, Meals or Snapshot")
+        String kind;
+
+        @Label("Records")
+        long records;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.foodtrackerclitool.ParseChunk")
+    @Label("Parse File Chunk")
+    @Description("One worker parsing one part of a data file, the parts of a file are parsed in parallel")
+    @Category({"Food Tracker", "I/O"})
+    @StackTrace(false)
+    static final class ParseChunk extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Start Offset")
+        @Description("Position in the file of the chunk's first byte")
+        long start;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Records")
+        long records;
+    }
+
+    @Name("com.foodtrackerclitool.Save")
+    @Label("Save Data File")
+    @Description("Writing a data file, including forcing it to disk and moving it over the old file")
+    @Category({"Food Tracker", "I/O"})
+    @StackTrace(false)
+    static final class Save extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Kind")
+        @Description("Food, Menu Items, Meals, Meal Manifest or Snapshot")
+        String kind;
+
+        @Label("Records")
+        long records;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("com.foodtrackerclitool.CorruptedFile")
+    @Label("Corrupted File")
+    @Description("A data file that could not be read and was renamed out of the way")
+    @Category({"Food Tracker", "I/O"})
+    static final class CorruptedFile extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Renamed")
+        @Description("False when the file could not be renamed and will be deleted on exit")
+        boolean renamed;
+    }
+
+    @Name("com.foodtrackerclitool.Query")
+    @Label("Meal Query")
+    @Description("Reading meals or totals for a range of days, including any months read from disk for it")
+    @Category({"Food Tracker", "Query"})
+    @StackTrace(false)
+    static final class Query extends Event {
+        @Label("Kind")
+        @Description("Range, Totals or Daily Averages")
+        String kind;
+
+        @Label("From")
+        @Description("First day asked for, MM/dd/yyyy")
+        String from;
+
+        @Label("To")
+        @Description("Last day asked for, MM/dd/yyyy")
+        String to;
+
+        @Label("Days")
+        @Description("Days from the first to the last day asked for, both included")
+        long days;
+    }
+}
@@ -0,0 +1,462 @@
+package com.foodtrackerclitool;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/*
+ * Append only log of every edit made since the data files were last written.
+ *   Record Layout:
+ *       payload length | crc32 of payload | record type | record fields
+ *
+ * Edits are handed to a background writer which writes everything that is waiting in one go and forces it to
+ * disk once, callers return only after their edit is on disk. Inside a batch callers do not wait, the batch
+ * waits once at its end for every edit in it.
+ * On startup the journal is replayed over the data files, a record that was only partly written when the program
+ * stopped ends the replay and is cut off. Once the data files have been rewritten the journal is truncated.
+ * */
+final class Journal implements Closeable {
+    private static final byte FOOD_UPSERT = 1;
+    private static final byte FOOD_DELETE = 2;
+    private static final byte MENU_INGREDIENT = 3;
+    private static final byte MENU_UPSERT = 4;
+    private static final byte MENU_DELETE = 5;
+    private static final byte MEAL_SAVE = 6;
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+
+    //Applies replayed edits to the data that was loaded from the data files
+    interface Handler {
+        void foodUpserted(Food food);
+
+        void foodDeleted(String name);
+
+        void ingredientChanged(String itemName, String foodName, double weight);
+
+        void menuItemUpserted(String itemName, List<String> foodNames, List<Double> weights);
+
+        void menuItemDeleted(String itemName);
+
+        void mealSaved(int day, String mealType, List<String> itemNames);
+    }
+
+    private final FileChannel channel;
+    private final Thread writer;
+    private List<byte[]> pending = new ArrayList<>();
+    private long appended;
+    private long durable;
+    private long size;
+    private boolean closed;
+    private boolean failed;
+    private boolean batching;
+
+    private Journal(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+
+        if (channel == null) {
+            writer = null;
+            failed = true;
+        } else {
+            writer = new Thread(this::WriteLoop, "journal-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    //Replays every complete record into the handler and opens the journal for new edits
+    static Journal Open(File file, Handler handler) {
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long valid = Replay(channel, handler);
+
+            if (valid < channel.size()) {
+                System.out.println("Incomplete Journal Entry Found: Last Edit Was Not Saved");
+                channel.truncate(valid);
+            }
+
+            channel.position(valid);
+            return new Journal(channel, valid);
+        } catch (IOException e) {
+            System.out.println("Could Not Open Journal File: Data Will Only Be Saved On Exit");
+            return new Journal(null, 0);
+        }
+    }
+
+    private static long Replay(FileChannel channel, Handler handler) throws IOException {
+        if (channel.size() == 0) {
+            return 0;
+        }
+
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        CRC32 crc = new CRC32();
+
+        while (buffer.remaining() >= RECORD_HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+
+            if (length <= 0 || length > buffer.remaining()) {
+                return start;
+            }
+
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            crc.reset();
+            crc.update(payload.duplicate());
+
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+
+            try {
+                ReplayRecord(payload, handler);
+            } catch (BufferUnderflowException e) {
+                return start;
+            }
+
+            buffer.position(start + RECORD_HEADER + length);
+        }
+
+        return buffer.position();
+    }
+
+    //A record is applied only once all of it has been read, one with bytes left over is damaged and ends the replay
+    private static void ReplayRecord(ByteBuffer payload, Handler handler) {
+        byte type = payload.get();
+
+        switch (type) {
+            case FOOD_UPSERT: {
+                Food food = new Food(ReadString(payload), payload.getDouble(), payload.getDouble(),
+                        payload.getDouble(), payload.getDouble(), payload.getDouble());
+                End(payload);
+                handler.foodUpserted(food);
+                break;
+            }
+            case FOOD_DELETE: {
+                String name = ReadString(payload);
+                End(payload);
+                handler.foodDeleted(name);
+                break;
+            }
+            case MENU_INGREDIENT: {
+                String itemName = ReadString(payload);
+                String foodName = ReadString(payload);
+                double weight = payload.getDouble();
+                End(payload);
+                handler.ingredientChanged(itemName, foodName, weight);
+                break;
+            }
+            case MENU_UPSERT: {
+                String itemName = ReadString(payload);
+                int count = ReadCount(payload);
+                List<String> foodNames = new ArrayList<>(count);
+                List<Double> weights = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    foodNames.add(ReadString(payload));
+                    weights.add(payload.getDouble());
+                }
+                End(payload);
+                handler.menuItemUpserted(itemName, foodNames, weights);
+                break;
+            }
+            case MENU_DELETE: {
+                String itemName = ReadString(payload);
+                End(payload);
+                handler.menuItemDeleted(itemName);
+                break;
+            }
+            case MEAL_SAVE: {
+                int day = payload.getInt();
+                String mealType = ReadString(payload);
+                int count = ReadCount(payload);
+                List<String> itemNames = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    itemNames.add(ReadString(payload));
+                }
+                End(payload);
+                handler.mealSaved(day, mealType, itemNames);
+                break;
+            }
+            default:
+                throw new BufferUnderflowException();
+        }
+    }
+
+    private static void End(ByteBuffer payload) {
+        if (payload.hasRemaining()) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    void foodUpserted(Food food) {
+        Append(new RecordBuilder(FOOD_UPSERT)
+                .putString(food.getName())
+                .putDouble(food.getCals())
+                .putDouble(food.getFat())
+                .putDouble(food.getCarbs())
+                .putDouble(food.getProtein())
+                .putDouble(food.getServingSize()));
+    }
+
+    void foodDeleted(String name) {
+        Append(new RecordBuilder(FOOD_DELETE).putString(name));
+    }
+
+    //A weight of 0 means the ingredient was removed
+    void ingredientChanged(MenuItem item, Food food, double weight) {
+        Append(new RecordBuilder(MENU_INGREDIENT)
+                .putString(item.getName())
+                .putString(food.getName())
+                .putDouble(weight));
+    }
+
+    void menuItemUpserted(MenuItem item) {
+        RecordBuilder record = new RecordBuilder(MENU_UPSERT)
+                .putString(item.getName())
+                .putInt(item.getIngredients().size());
+        for (Ingredient ingredient : item.getIngredients()) {
+            record.putString(ingredient.getFoodName()).putDouble(ingredient.getWeight());
+        }
+        Append(record);
+    }
+
+    void menuItemDeleted(String itemName) {
+        Append(new RecordBuilder(MENU_DELETE).putString(itemName));
+    }
+
+    void mealSaved(Meal meal) {
+        RecordBuilder record = new RecordBuilder(MEAL_SAVE)
+                .putInt(meal.getMealDay())
+                .putString(meal.getMealType().toString())
+                .putInt(meal.getMealItems().size());
+        for (MenuItem item : meal.getMealItems()) {
+            record.putString(item.getName());
+        }
+        Append(record);
+    }
+
+    //Size in bytes of the edits waiting to be folded into the data files
+    synchronized long size() {
+        return size;
+    }
+
+    //False when edits could not be written, the data files have to be saved in full instead
+    synchronized boolean isHealthy() {
+        return !failed;
+    }
+
+    synchronized void beginBatch() {
+        batching = true;
+    }
+
+    //Returns once every edit made since beginBatch is on disk
+    synchronized void endBatch() {
+        batching = false;
+        AwaitDurable(appended);
+    }
+
+    //Ends a batch without waiting, the caller passes the returned sequence to awaitDurable once it has let go of
+    //its own locks, so edits from other threads can be forced to disk together with it
+    synchronized long endBatchLater() {
+        batching = false;
+        return appended;
+    }
+
+    synchronized void awaitDurable(long sequence) {
+        AwaitDurable(sequence);
+    }
+
+    //Called once the data files hold every edit in the journal
+    synchronized void truncate() throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        AwaitDurable(appended);
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        size = 0;
+    }
+
+    private void Append(RecordBuilder record) {
+        if (channel == null) {
+            return;
+        }
+
+        synchronized (this) {
+            if (failed || closed) {
+                return;
+            }
+
+            pending.add(record.toBytes());
+            long sequence = ++appended;
+            notifyAll();
+            if (!batching) AwaitDurable(sequence);
+        }
+    }
+
+    private void AwaitDurable(long sequence) {
+        boolean interrupted = false;
+
+        while (durable < sequence && !failed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void WriteLoop() {
+        while (true) {
+            List<byte[]> batch;
+            long target;
+
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (pending.isEmpty()) {
+                    return;
+                }
+
+                batch = pending;
+                pending = new ArrayList<>();
+                target = appended;
+            }
+
+            int length = 0;
+            for (byte[] record : batch) length += record.length;
+
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            for (byte[] record : batch) buffer.put(record);
+            buffer.flip();
+
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                System.out.println("Failed to write to Journal File: Data Will Only Be Saved On Exit");
+                synchronized (this) {
+                    failed = true;
+                    notifyAll();
+                }
+                return;
+            }
+
+            synchronized (this) {
+                durable = target;
+                size += length;
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    //Every listed entry starts with a length of at least 4 bytes, so a count past that is damaged
+    private static int ReadCount(ByteBuffer payload) {
+        int count = payload.getInt();
+        if (count < 0 || count > payload.remaining() / Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static String ReadString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0 || length > payload.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class RecordBuilder {
+        private ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        RecordBuilder(byte type) {
+            buffer.position(RECORD_HEADER);
+            buffer.put(type);
+        }
+
+        private void Ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        RecordBuilder putInt(int value) {
+            Ensure(Integer.BYTES);
+            buffer.putInt(value);
+            return this;
+        }
+
+        RecordBuilder putDouble(double value) {
+            Ensure(Double.BYTES);
+            buffer.putDouble(value);
+            return this;
+        }
+
+        RecordBuilder putString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putInt(utf8.length);
+            Ensure(utf8.length);
+            buffer.put(utf8);
+            return this;
+        }
+
+        byte[] toBytes() {
+            int length = buffer.position() - RECORD_HEADER;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), RECORD_HEADER, length);
+
+            buffer.putInt(0, length);
+            buffer.putInt(Integer.BYTES, (int) crc.getValue());
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.foodtrackerclitool;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Just enough JSON for the API server: request bodies are parsed into maps, lists, strings, doubles, booleans
+ * and null, responses are written straight into a StringBuilder.
+ * */
+final class Json {
+    //Objects and arrays are read recursively, deeper nesting than this is refused before it can overflow the stack
+    static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int position;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    //Throws IllegalArgumentException when the text is not one complete JSON value
+    static Object Parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.ReadValue();
+        parser.SkipSpace();
+        if (parser.position != text.length()) throw parser.Error("Unexpected Text After Value");
+        return value;
+    }
+
+    static StringBuilder Quote(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"');
+    }
+
+    //JSON has no NaN or infinity, they are written as null
+    static StringBuilder Number(StringBuilder out, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return out.append("null");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return out.append((long) value);
+        return out.append(value);
+    }
+
+    private Object ReadValue() {
+        SkipSpace();
+        if (position == text.length()) throw Error("Unexpected End Of Text");
+
+        char c = text.charAt(position);
+        switch (c) {
+            case '{':
+            case '[': {
+                if (++depth > MAX_DEPTH) throw Error("Nested Deeper Than " + MAX_DEPTH + " Levels");
+                Object value = c == '{' ? ReadObject() : ReadArray();
+                depth--;
+                return value;
+            }
+            case '"':
+                return ReadString();
+            case 't':
+                return ReadWord("true", Boolean.TRUE);
+            case 'f':
+                return ReadWord("false", Boolean.FALSE);
+            case 'n':
+                return ReadWord("null", null);
+            default:
+                return ReadNumber();
+        }
+    }
+
+    private Map<String, Object> ReadObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++;
+        SkipSpace();
+        if (Next('}')) return object;
+
+        do {
+            SkipSpace();
+            if (position == text.length() || text.charAt(position) != '"') throw Error("Expected A Field Name");
+            String name = ReadString();
+            SkipSpace();
+            if (!Next(':')) throw Error("Expected ':'");
+            object.put(name, ReadValue());
+            SkipSpace();
+        } while (Next(','));
+
+        if (!Next('}')) throw Error("Expected ',' Or '}'");
+        return object;
+    }
+
+    private List<Object> ReadArray() {
+        List<Object> array = new ArrayList<>();
+        position++;
+        SkipSpace();
+        if (Next(']')) return array;
+
+        do {
+            array.add(ReadValue());
+            SkipSpace();
+        } while (Next(','));
+
+        if (!Next(']')) throw Error("Expected ',' Or ']'");
+        return array;
+    }
+
+    private String ReadString() {
+        StringBuilder value = new StringBuilder();
+        position++;
+
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') return value.toString();
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position == text.length()) break;
+
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) throw Error("Invalid Escape");
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw Error("Invalid Escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+        throw Error("Unterminated String");
+    }
+
+    private Object ReadWord(String word, Object value) {
+        if (!text.startsWith(word, position)) throw Error("Unexpected Text");
+        position += word.length();
+        return value;
+    }
+
+    private Double ReadNumber() {
+        int start = position;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+
+        try {
+            return Double.parseDouble(text.substring(start, position));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw Error("Unexpected Text");
+        }
+    }
+
+    private boolean Next(char c) {
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void SkipSpace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException Error(String message) {
+        return new IllegalArgumentException("Invalid JSON: " + message + " At Character " + position);
+    }
+}
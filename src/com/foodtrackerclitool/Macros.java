@@ -0,0 +1,57 @@
+package com.foodtrackerclitool;
+
+/*
+ * Calories, fat, carbs, protein and grams of food, added up for a menu item or a meal.
+ * Values are kept in one array indexed by the constants below so they can be added and taken away in one loop.
+ * Menu items and meals never change a Macros they have handed out, they build a changed copy and swap it in.
+ * */
+final class Macros {
+    static final int CALORIES = 0;
+    static final int FAT = 1;
+    static final int CARBS = 2;
+    static final int PROTEIN = 3;
+    static final int GRAMS = 4;
+    static final int COUNT = 5;
+
+    private final double[] values = new double[COUNT];
+
+    double get(int macro) {
+        return values[macro];
+    }
+
+    void set(int macro, double value) {
+        values[macro] = value;
+    }
+
+    void add(int macro, double value) {
+        values[macro] += value;
+    }
+
+    //Adds the macros of a weight of one food, a sign of -1 takes them away
+    void addFood(FoodStore store, int id, double weight, int sign) {
+        store.addTo(this, id, weight, sign);
+    }
+
+    void add(Macros macros, int sign) {
+        for (int i = 0; i < COUNT; i++) {
+            values[i] += sign * macros.values[i];
+        }
+    }
+
+    Macros copy() {
+        Macros copy = new Macros();
+        System.arraycopy(values, 0, copy.values, 0, COUNT);
+        return copy;
+    }
+
+    void clear() {
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return values[FAT] + "g fat, " + values[CARBS] + "g carbs, " + values[PROTEIN] + "g protein";
+    }
+}
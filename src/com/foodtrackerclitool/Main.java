@@ -4,9 +4,12 @@ package com.foodtrackerclitool;
  *   Summary:
  *       This is a food tracker to track daily meals
  *       Three Files are used or generated during the program
- *           FoodItems.csv  |  MenuItems.csv  |  mealData.csv
+ *           FoodItems.csv  |  MenuItems.csv  |  MealHistory (one file per month)
+ *       A MealItems.csv file from an older version is moved into MealHistory the first time it is found
+ *       Foods and menu items are saved with an id, menu items and meals refer to what they use by that id
+ *       Files from older versions refer to names instead and are rewritten with ids the next time data is saved
  *
- *       Data will be saved back to these files after the program exits
+ *       Edits are written to a journal as they are made and folded back into these files in the background
  *       Any corrupted files will be renamed to save corrupted data and a new file will be created
  *       All data is ordered by date, if available, then by alphabetical before it is saved to its file
  *
@@ -23,6 +26,10 @@ package com.foodtrackerclitool;
  *               View Menu Item Data
  *       Save A Meal:
  *           Add Meal to Saved Meals
+ *       Nutrient Totals:
+ *           Total and Daily Average Nutrients Between Two Dates
+ *       Nutrition Reports:
+ *           Daily, Weekly or Monthly Nutrients, Macro Percentages and Meal Types Between Two Dates
  *
  *   Usage:
  *       Enter the number corresponding with the desired action
@@ -30,93 +37,236 @@ package com.foodtrackerclitool;
  *       You can enter 'q' to quit any of these prompts and it will take you back to the last menu
  *       A Food must exist to add it to a Menu Item
  *       A Menu Item must exist to add it to Saved Meals
+ *
+ *   Batch Mode:
+ *       Run with --batch <file> (or --batch alone to read stdin) to apply a list of commands without any prompts
+ *       The commands it accepts are listed above RunBatch
+ *
+ *   Importing Foods:
+ *       Run with --import-foods <csv file> <column mapping> to add every food in a nutrient database export
+ *       The column mapping is described above FoodImporter, for example:
+ *           --import-foods usda.csv "name=Description;fat=Total Fat;carbs=Carbohydrate;protein=Protein"
+ *
+ *   Generating Test Data:
+ *       Run with --generate <directory> [options] to write made up data files of any size into a new directory
+ *       The options are described above DatasetGenerator, for example:
+ *           --generate big "foods=1000000;menu-items=100000;years=20;seed=7"
+ *       Start the program from that directory to use them
+ *
+ *   Server Mode:
+ *       Run with --serve [port] to read and edit the data over HTTP with JSON, the endpoints are listed above ApiServer
+ *       Enter q to stop the server, every edit is in the journal as soon as its request returns
+ *
+ *   Metrics:
+ *       Enter stats at the main menu or while serving to see load, save, lookup and edit times and data sizes
+ *       The same metrics are published over JMX as com.foodtrackerclitool:type=Metrics, see Metrics
+ *
+ *   Benchmarks:
+ *       The benchmarks module builds with mvn -f benchmarks/pom.xml package and runs with
+ *       java -jar benchmarks/target/benchmarks.jar, see BenchmarkMain for its options
  * */
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static com.foodtrackerclitool.Utilities.*;
 
-class GlobalConstants {
-    public static ArrayList<String> MealTypes = new ArrayList<>(Arrays.asList("Breakfast", "Brunch", "Lunch", "Dinner", "Dessert", "Snack"));
-}
-
 public class Main {
     //Input Menu Option Values
     private static final int QUIT = 0;
     private static final int FOOD_OPTIONS = 1;
     private static final int MENU_OPTIONS = 2;
     private static final int SAVE_MEAL = 3;
+    private static final int NUTRIENT_TOTALS = 4;
+    private static final int NUTRITION_REPORTS = 5;
     private static final int EDIT_EXISTING_FOOD_ITEM = 11;
     private static final int VIEW_FOOD_ITEM = 12;
     private static final int EDIT_EXISTING_MENU_ITEM = 21;
     private static final int VIEW_MENU_ITEM = 22;
+    private static final String STATS = "stats";
     private static final String foodFile = "./FoodItems.csv";
     private static final String menuFile = "./MenuItems.csv";
     private static final String mealFile = "./MealItems.csv";
-    private static final String foodHeader = "Name,Calories,Fat,Carbs,Protein,Serving Size (g)";
-    private static final String menuHeader = "Name,Ingredients,Servings (g)";
-    private static final String mealHeader = "Date,Meal,Items,Total Calories";
+    private static final String mealDirectory = "./MealHistory";
+    private static final String snapshotFile = "./FoodTracker.snapshot";
+    private static final String journalFile = "./FoodTracker.journal";
+    private static final long COMPACT_INTERVAL_MINUTES = 5;
+    private static final long COMPACT_THRESHOLD = 1 << 20;
+    static final String mealHeader = "Date,Meal,Item Ids,Total Calories";
+
+    //Food and menu files start with the next id to hand out, files saved before ids were added name every reference
+    private static final Pattern ID_HEADER = Pattern.compile("Id \\(Next (\\d+)\\),.*");
+    //Far more foods or menu items than anyone keeps, an id past this means the file is damaged
+    static final int MAX_IDS = 1 << 24;
+    //Deleted foods and menu items are saved so what still refers to them can be read, marked in the last column
+    private static final String DELETED = "Deleted";
 
     //File Data Storage While FoodTracker Is Running
-    private static TreeMap<String, Food> foodData;
-    private static TreeMap<String, MenuItem> menuData;
-    private static TreeMap<Date, TreeMap<String, Meal>> mealData;
-
+    private static FoodStore foodData;
+    private static MenuStore menuData;
+    private static MealHistory mealData;
+    private static final DependencyGraph dependencies = new DependencyGraph();
+    private static final NameIndex foodNames = new NameIndex(() -> foodData.names());
+    private static final NameIndex menuNames = new NameIndex(() -> menuData.names());
+    private static final int SUGGESTIONS = 5;
+    private static final int PAGE_SIZE = 20;
+    private static final CatalogPager<Food> foodPages = new CatalogPager<>(
+            "Food\tCalories\tFat\tCarbs\tProtein\tServing Size", PAGE_SIZE,
+            (name, count) -> foodData.after(name, count), (name, count) -> foodData.before(name, count),
+            Food::getName, Food::appendTo);
+    private static final CatalogPager<MenuItem> menuPages = new CatalogPager<>(
+            "Item Name\tIngredients\tTotal Cals", PAGE_SIZE,
+            (name, count) -> menuData.after(name, count), (name, count) -> menuData.before(name, count),
+            MenuItem::getName, MenuItem::appendTo);
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    //Runtime metrics, see Metrics and the stats command
+    private static final Metrics.Timer snapshotLoads = Metrics.Timer("load.snapshot");
+    private static final Metrics.Timer foodLoads = Metrics.Timer("load.food");
+    private static final Metrics.Timer menuLoads = Metrics.Timer("load.menu");
+    private static final Metrics.Timer mealLoads = Metrics.Timer("load.meals");
+    private static final Metrics.Timer mealSegmentLoads = Metrics.Timer("load.meal-segment");
+    private static final Metrics.Timer saves = Metrics.Timer("save");
+    private static final Metrics.Timer foodSaves = Metrics.Timer("save.food");
+    private static final Metrics.Timer menuSaves = Metrics.Timer("save.menu");
+    private static final Metrics.Timer mealSaves = Metrics.Timer("save.meals");
+    private static final Metrics.Timer foodLookups = Metrics.Timer("lookup.food");
+    private static final Metrics.Timer menuLookups = Metrics.Timer("lookup.menu-item");
+    private static final LongAdder foodLookupMisses = Metrics.Counter("lookup.food.misses");
+    private static final LongAdder menuLookupMisses = Metrics.Counter("lookup.menu-item.misses");
+    private static final Metrics.Timer foodPuts = Metrics.Timer("edit.food.put");
+    private static final Metrics.Timer foodRemoves = Metrics.Timer("edit.food.remove");
+    private static final Metrics.Timer menuPuts = Metrics.Timer("edit.menu-item.put");
+    private static final Metrics.Timer menuRemoves = Metrics.Timer("edit.menu-item.remove");
+    private static final Metrics.Timer ingredientSets = Metrics.Timer("edit.ingredient.set");
+    private static final Metrics.Timer mealPuts = Metrics.Timer("edit.meal.put");
+    private static final Metrics.Timer reports = Metrics.Timer("report");
+
+    //Every edit holds this lock so the journal can be folded into the data files in the background
+    private static final Object dataLock = new Object();
+    private static Journal journal;
+    private static boolean snapshotCurrent;
+    private static boolean legacyMealsImported;
+
+    //Bumped by every edit, a file is only rewritten when its version has moved on since it was last saved
+    private static long foodVersion;
+    private static long menuVersion;
+    private static long mealVersion;
+    private static long savedFoodVersion;
+    private static long savedMenuVersion;
+    private static long savedMealVersion;
 
     public static void main(String[] args) {
+        //Generating data only writes new files, nothing needs to be read first
+        if (args.length > 0 && args[0].equals("--generate")) {
+            if (args.length == 2 || args.length == 3) {
+                GenerateData(args[1], args.length == 3 ? args[2] : "");
+            } else {
+                System.out.println("Usage: --generate <directory> [options]");
+            }
+            return;
+        }
+
+        Metrics.Register();
+        Metrics.Gauge("foods", () -> foodData == null ? 0 : foodData.size());
+        Metrics.Gauge("menu-items", () -> menuData == null ? 0 : menuData.size());
+        Metrics.Gauge("meals", () -> mealData == null ? 0 : mealData.mealCount());
+        Metrics.Gauge("journal.bytes", () -> journal == null ? 0 : journal.size());
 
         //Read In File Values
-        try {
-            foodData = ReadInFood();
-        } catch (IOException e) {
-            e.printStackTrace();
+        long started = System.nanoTime();
+        Snapshot snapshot = Snapshot.Read(new File(snapshotFile), CsvFiles());
+        if (snapshot != null) snapshotLoads.recordSince(started);
+
+        if (snapshot != null) {
+            foodData = snapshot.foodData;
+            menuData = snapshot.menuData;
+            snapshotCurrent = true;
+        } else {
+            ReadCsvFiles();
         }
 
-        try {
-            menuData = ReadMenuItems();
-        } catch (CorruptedFileException e) {
-            System.out.println(e.getMessage());
-            menuData = new TreeMap<>();
-        } catch (NumberFormatException e) {
-            RenameCorruptedFile(new File(menuFile));
-            menuData = new TreeMap<>();
-            System.out.println("Corrupted File Detected: Invalid Values In Menu File");
-        } catch (IOException e) {
-            e.printStackTrace();
+        dependencies.setMenuItems(menuData.values());
+        LoadMealHistory();
+
+        //Apply any edits that had not been folded into the data files yet
+        journal = Journal.Open(new File(journalFile), new JournalReplay());
+
+        ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(Main::CompactJournal,
+                COMPACT_INTERVAL_MINUTES, COMPACT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+
+        System.out.println("-----------------------");
+
+        if (args.length > 0 && args[0].equals("--batch")) {
+            RunBatch(args.length > 1 ? args[1] : "-");
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            try {
+                RunServer(args.length > 1 ? Integer.parseInt(args[1]) : ApiServer.DEFAULT_PORT);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid Port: " + args[1]);
+            }
+        } else if (args.length > 0 && args[0].equals("--import-foods")) {
+            if (args.length == 3) {
+                ImportFoods(args[1], args[2]);
+            } else {
+                System.out.println("Usage: --import-foods <csv file> <column mapping>");
+            }
+        } else {
+            RunMainMenu();
+        }
+
+        compactor.shutdownNow();
+
+        //Edits are already on disk in the journal, the data files are only rewritten once it has grown
+        synchronized (dataLock) {
+            if (!journal.isHealthy() || journal.size() >= COMPACT_THRESHOLD || !snapshotCurrent || legacyMealsImported) {
+                SaveToFiles();
+            } else {
+                System.out.println("Exiting Program");
+            }
         }
 
         try {
-            mealData = ReadMealData();
-        } catch (CorruptedFileException e) {
-            System.out.println(e.getMessage());
-            mealData = new TreeMap<>();
-        } catch (NumberFormatException e) {
-            RenameCorruptedFile(new File(mealFile));
-            mealData = new TreeMap<>();
-            System.out.println("Corrupted File Detected: Invalid Values In Meal File");
+            journal.close();
         } catch (IOException e) {
-            e.printStackTrace();
+            System.out.println(e.getMessage());
         }
+    }
 
-        System.out.println("-----------------------");
-
-        out:
+    private static void RunMainMenu() {
         while (true) {
             DisplayMainMenu();
             int option;
             Scanner input = new Scanner(System.in);
 
             try {
-                option = Integer.parseInt(input.nextLine());
+                String line = input.nextLine();
+                if (line.trim().equalsIgnoreCase(STATS)) {
+                    System.out.println();
+                    System.out.println(Metrics.Report());
+                    continue;
+                }
+                option = Integer.parseInt(line);
                 System.out.println();
             } catch (NumberFormatException e) {
                 System.out.println("Invalid Input");
@@ -125,7 +275,7 @@ public class Main {
             }
             switch (option) {
                 case QUIT:
-                    break out;
+                    return;
                 case FOOD_OPTIONS:
                     DisplayFoodItems();
                     FoodOptionHandler(input);
@@ -137,139 +287,864 @@ public class Main {
                 case SAVE_MEAL:
                     SaveMealHandler(input);
                     break;
+                case NUTRIENT_TOTALS:
+                    NutrientTotalsHandler(input);
+                    break;
+                case NUTRITION_REPORTS:
+                    NutritionReportHandler(input);
+                    break;
                 default:
                     System.out.println("Invalid Input");
                     System.out.println();
                     break;
             }
         }
+    }
+
+    /*
+     * Batch Mode Commands, one per line with fields separated by commas:
+     *   food upsert,<name>,<fat>,<carbs>,<protein>,<serving size>
+     *   food delete,<name>
+     *   menu add-ingredient,<menu item>,<food>,<grams>      creates the menu item, or sets the grams if it is there
+     *   menu remove-ingredient,<menu item>,<food>          a menu item left with no ingredients is deleted
+     *   menu delete,<menu item>
+     *   meal log,<MM/DD/YYYY>,<meal type>,<menu item>[,<menu item>...]
+     * A name holding a comma is wrapped in double quotes ("Cheese, Cheddar"), "" inside the quotes is one quote.
+     * The data files are not quoted, so the comma is dropped the same as in imported foods (Cheese Cheddar).
+     * A command with more or fewer values than it takes fails with the line number.
+     * Blank lines and lines starting with # are skipped.
+     *
+     * Commands are read BATCH_SIZE at a time and applied together, the journal is forced to disk once per batch
+     * instead of once per edit. A failed command is skipped and reported at the end.
+     * */
+    private static void RunBatch(String path) {
+        long start = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        int applied = 0;
+        int failed = 0;
+        int lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                path.equals("-") ? System.in : new FileInputStream(path), StandardCharsets.UTF_8))) {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            int firstLine;
+            String line = "";
+
+            while (line != null) {
+                batch.clear();
+                firstLine = lineNumber + 1;
+                while (batch.size() < BATCH_SIZE && (line = reader.readLine()) != null) {
+                    batch.add(line);
+                }
+                lineNumber += batch.size();
+
+                synchronized (dataLock) {
+                    journal.beginBatch();
+                    try {
+                        for (int i = 0; i < batch.size(); i++) {
+                            String command = batch.get(i).trim();
+                            if (command.isEmpty() || command.startsWith("#")) continue;
+
+                            try {
+                                ApplyCommand(command);
+                                applied++;
+                            } catch (IllegalArgumentException | ParseException e) {
+                                failed++;
+                                if (errors.size() < MAX_REPORTED_ERRORS) {
+                                    errors.add("Line " + (firstLine + i) + ": " + e.getMessage());
+                                }
+                            }
+                        }
+                    } finally {
+                        journal.endBatch();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could Not Read Batch Commands: " + e.getMessage());
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Batch Finished: %d Commands Applied, %d Failed In %.2f Seconds (%.0f Commands/Second)%n",
+                applied, failed, seconds, (applied + failed) / Math.max(seconds, 1e-9));
+        for (String error : errors) {
+            System.out.println(error);
+        }
+        if (failed > errors.size()) {
+            System.out.println("... And " + (failed - errors.size()) + " More Errors");
+        }
+    }
+
+    private static void GenerateData(String directory, String options) {
+        long start = System.nanoTime();
+
+        DatasetGenerator generator;
+        try {
+            generator = DatasetGenerator.Run(new File(directory), options);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could Not Generate Data: " + e.getMessage());
+            return;
+        }
+
+        System.out.printf("Generated %d Foods, %d Menu Items And %d Meals In %s In %.2f Seconds%n",
+                generator.foods(), generator.menuItems(), generator.meals(), directory, (System.nanoTime() - start) / 1e9);
+    }
+
+    /*
+     * Each batch the importer hands over is applied under one hold of dataLock with one journal flush.
+     * A food that shows up more than once in the file is only taken the first time, a food that was already saved
+     * is updated. The journal is folded into the data files at the end so it does not replay the whole import.
+     * */
+    private static void ImportFoods(String path, String mapping) {
+        long start = System.nanoTime();
+        BitSet imported = new BitSet();
+
+        FoodImporter importer;
+        try {
+            importer = FoodImporter.Run(new File(path), mapping, batch -> {
+                int applied = 0;
+
+                synchronized (dataLock) {
+                    journal.beginBatch();
+                    try {
+                        for (Food food : batch) {
+                            int id = foodData.idOf(food.getName());
+                            if (id >= 0 && imported.get(id)) continue;
+
+                            PutFood(food);
+                            imported.set(foodData.idOf(food.getName()));
+                            applied++;
+                        }
+                    } finally {
+                        journal.endBatch();
+                    }
+                }
+                return applied;
+            });
+
+            synchronized (dataLock) {
+                Checkpoint(false);
+            }
+        } catch (IOException e) {
+            System.out.println("Could Not Import Foods: " + e.getMessage());
+            return;
+        }
+
+        long valid = importer.rows() - importer.rejected();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Import Finished: %d Rows Read, %d Foods Imported, %d Duplicates, %d Rejected In %.2f Seconds (%.0f Rows/Second)%n",
+                importer.rows(), importer.applied(), valid - importer.applied(), importer.rejected(),
+                seconds, importer.rows() / Math.max(seconds, 1e-9));
+        for (String error : importer.errors()) {
+            System.out.println(error);
+        }
+        if (importer.rejected() > importer.errors().size()) {
+            System.out.println("... And " + (importer.rejected() - importer.errors().size()) + " More Errors");
+        }
+    }
+
+    private static void RunServer(int port) {
+        ApiServer server;
+        try {
+            server = ApiServer.Start(port, new ApiRequests());
+        } catch (IOException e) {
+            System.out.println("Could Not Start Server: " + e.getMessage());
+            return;
+        }
+
+        System.out.println("Serving On http://localhost:" + server.port() + "/ ("
+                + (server.usesVirtualThreads() ? "Virtual Threads" : "Thread Pool") + ")");
+        System.out.println("Enter q To Stop The Server, Or stats To Show Its Metrics");
+
+        try {
+            BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = input.readLine()) != null && !QuitPrompt(line.trim())) {
+                //Keep serving until q is entered
+                if (line.trim().equalsIgnoreCase(STATS)) System.out.println(Metrics.Report());
+            }
+
+            //Without a console the server runs until the process is stopped
+            if (line == null) {
+                Thread.currentThread().join();
+            }
+        } catch (IOException | InterruptedException e) {
+            //Stop serving
+        }
+        server.stop();
+    }
+
+    //Throws IllegalArgumentException with the reason when a command can not be applied
+    private static void ApplyCommand(String line) throws ParseException {
+        ApplyCommand(CsvTokenizer.SplitQuoted(line));
+    }
+
+    //Batch lines and API requests both end up here, names reach the unquoted data files without their commas
+    private static void ApplyCommand(String[] fields) throws ParseException {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].indexOf(',') >= 0) fields[i] = fields[i].replace(", ", " ").replace(',', ' ');
+            fields[i] = fields[i].trim();
+        }
+        String command = NameIndex.Normalize(fields[0]);
+
+        switch (command) {
+            case "food upsert": {
+                ExpectFields(fields, 6, command);
+                double fat = ParseAmount(fields[2], "Fat");
+                double carbs = ParseAmount(fields[3], "Carbs");
+                double protein = ParseAmount(fields[4], "Protein");
+                double servingSize = ParseAmount(fields[5], "Serving Size");
+                if (servingSize == 0) throw new IllegalArgumentException("Serving Size Must Be Positive");
+
+                double cals = (9 * fat) + (4 * (carbs + protein));
+                PutFood(new Food(Food.StoredName(fields[1]), cals, fat, carbs, protein, servingSize));
+                break;
+            }
+            case "food delete":
+                ExpectFields(fields, 2, command);
+                RemoveFood(RequireFood(fields[1]).getName());
+                break;
+            case "menu add-ingredient": {
+                ExpectFields(fields, 4, command);
+                Food food = RequireFood(fields[2]);
+                double weight = ParseAmount(fields[3], "Grams");
+                if (weight == 0) throw new IllegalArgumentException("Grams Must Be Positive");
+
+                MenuItem item = FindMenuItem(fields[1]);
+                if (item == null) {
+                    List<Ingredient> ingredients = new ArrayList<>();
+                    ingredients.add(new Ingredient(food, weight));
+                    PutMenuItem(new MenuItem(fields[1], ingredients));
+                } else {
+                    SetIngredient(item, food, weight);
+                }
+                break;
+            }
+            case "menu remove-ingredient": {
+                ExpectFields(fields, 3, command);
+                MenuItem item = RequireMenuItem(fields[1]);
+                Food food = RequireFood(fields[2]);
+                if (item.getIngredientByName(food.getName()) == null) {
+                    throw new IllegalArgumentException("Menu Item " + item.getName() + " Does Not Use " + food.getName());
+                }
+
+                if (item.getIngredients().size() == 1) {
+                    RemoveMenuItem(item.getName());
+                } else {
+                    SetIngredient(item, food, 0);
+                }
+                break;
+            }
+            case "menu delete":
+                ExpectFields(fields, 2, command);
+                RemoveMenuItem(RequireMenuItem(fields[1]).getName());
+                break;
+            case "meal log": {
+                if (fields.length < 4) throw new IllegalArgumentException("meal log Needs A Date, Meal And Menu Items");
+                int day = Days.Parse(fields[1]);
+                MealType mealType = MealType.Find(fields[2]);
+                if (mealType == null) throw new IllegalArgumentException("Unknown Meal " + fields[2]);
+
+                List<MenuItem> mealItems = new ArrayList<>(fields.length - 3);
+                for (int i = 3; i < fields.length; i++) {
+                    mealItems.add(RequireMenuItem(fields[i]));
+                }
+                PutMeal(new Meal(day, mealType, mealItems));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown Command " + fields[0]);
+        }
+    }
+
+    private static void ExpectFields(String[] fields, int count, String command) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException(command + " Needs " + (count - 1) + " Values, Found " + (fields.length - 1));
+        }
+    }
+
+    private static double ParseAmount(String field, String name) {
+        try {
+            double amount = Double.parseDouble(field);
+            if (Double.isNaN(amount) || Double.isInfinite(amount) || amount < 0) throw new NumberFormatException();
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + field);
+        }
+    }
+
+    private static Food RequireFood(String name) {
+        Food food = FindFood(name);
+        if (food == null) throw new IllegalArgumentException("Food Does Not Exist: " + name);
+        return food;
+    }
+
+    private static MenuItem RequireMenuItem(String name) {
+        MenuItem item = FindMenuItem(name);
+        if (item == null) throw new IllegalArgumentException("Menu Item Does Not Exist: " + name);
+        return item;
+    }
+
+    //Both load times are counted from when reading starts, since the two files are read at the same time
+    private static void ReadCsvFiles() {
+        long started = System.nanoTime();
+
+        //Both files are tokenized at the same time, only resolving ids has to wait for the data before it
+        int foodNextId = NextId(new File(foodFile));
+        int menuNextId = NextId(new File(menuFile));
+        Future<List<FoodRows>> foodChunks = SubmitFood(new File(foodFile), foodNextId);
+        Future<List<List<MenuRecord>>> menuChunks = SubmitMenu(new File(menuFile), menuNextId);
+
+        //Files saved before ids were added are rewritten with ids the next time the data is saved
+        if (foodNextId < 0 && new File(foodFile).isFile()) foodVersion++;
+        if (menuNextId < 0 && new File(menuFile).isFile()) menuVersion++;
+
+        try {
+            foodData = BuildFoodData(new File(foodFile), foodChunks, foodNextId);
+            foodLoads.recordSince(started);
+        } catch (CorruptedFileException e) {
+            System.out.println(e.getMessage());
+            foodData = new FoodStore();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        try {
+            menuData = BuildMenuData(new File(menuFile), menuChunks, foodData, menuNextId);
+            menuLoads.recordSince(started);
+        } catch (CorruptedFileException e) {
+            System.out.println(e.getMessage());
+            menuData = new MenuStore();
+        } catch (NumberFormatException e) {
+            RenameCorruptedFile(new File(menuFile));
+            menuData = new MenuStore();
+            System.out.println("Corrupted File Detected: Invalid Values In Menu File");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //Reads the recent months of meal history, older months are read when they are first needed
+    private static void LoadMealHistory() {
+        mealData = MealHistory.Open(new File(mealDirectory), mealHeader, Main::ReadMealSegment, dependencies);
+
+        if (!mealData.isEmpty() || !new File(mealFile).isFile()) {
+            return;
+        }
+
+        try {
+            long started = System.nanoTime();
+            mealData.putAll(ReadMealData());
+            mealLoads.recordSince(started);
+            mealVersion++;
+            legacyMealsImported = true;
+        } catch (CorruptedFileException e) {
+            System.out.println(e.getMessage());
+        } catch (NumberFormatException e) {
+            RenameCorruptedFile(new File(mealFile));
+            System.out.println("Corrupted File Detected: Invalid Values In Meal File");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //Reads the month's snapshot when it is current, otherwise the csv file, which then gets a current snapshot
+    private static MealDays ReadMealSegment(File file) throws IOException, CorruptedFileException {
+        long started = System.nanoTime();
+        try {
+            MealDays meals = Snapshot.ReadMonth(MealHistory.SnapshotFile(file), file, menuData);
+            if (meals == null) {
+                meals = ReadMealData(file, menuData);
+                MealHistory.WriteSnapshot(file, meals);
+            }
+            mealSegmentLoads.recordSince(started);
+            return meals;
+        } catch (NumberFormatException e) {
+            RenameCorruptedFile(file);
+            throw new CorruptedFileException("Corrupted File Detected: Invalid Values In Meal File " + file.getName());
+        }
+    }
+
+    private static File[] CsvFiles() {
+        return new File[]{new File(foodFile), new File(menuFile)};
+    }
+
+    private static void SaveToFiles() {
+        System.out.println("Saving Food Tracker Data");
+
+        try {
+            Checkpoint(true);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        System.out.println("Exiting Program");
+    }
+
+    //Writes only the files whose data changed since they were last saved, then empties the journal
+    private static void Checkpoint(boolean showProgress) throws IOException {
+        long started = System.nanoTime();
+        boolean changed = false;
+
+        if (foodVersion != savedFoodVersion) {
+            if (showProgress) System.out.println("Saving Food");
+            WriteFood();
+            changed = true;
+        }
+        if (menuVersion != savedMenuVersion) {
+            if (showProgress) System.out.println("Saving Menu Items");
+            WriteMenu();
+            changed = true;
+        }
+        if (mealVersion != savedMealVersion) {
+            if (showProgress) System.out.println("Saving Meals");
+            WriteMeals();
+            changed = true;
+        }
+
+        //The csv files hold every edit by now, without a snapshot the next start reads them instead
+        if (changed || !snapshotCurrent) {
+            try {
+                Snapshot.Write(new File(snapshotFile), CsvFiles(), foodData, menuData);
+                snapshotCurrent = true;
+            } catch (IOException e) {
+                System.out.println("Could Not Write Snapshot: " + e.getMessage());
+                snapshotCurrent = false;
+            }
+        }
+        journal.truncate();
+        saves.recordSince(started);
+    }
+
+    //Runs in the background, folds the journal into the data files so it does not grow without end
+    private static void CompactJournal() {
+        synchronized (dataLock) {
+            if (journal.size() == 0) {
+                return;
+            }
+
+            try {
+                Checkpoint(false);
+            } catch (IOException e) {
+                //The journal still holds every edit, the next compaction or exit will try again
+            }
+        }
+    }
+
+    private static void PutFood(Food food) {
+        long started = System.nanoTime();
+        try {
+            synchronized (dataLock) {
+                UpdateFood(food);
+                journal.foodUpserted(food);
+            }
+        } finally {
+            foodPuts.recordSince(started);
+        }
+    }
+
+    private static void RemoveFood(String foodName) {
+        long started = System.nanoTime();
+        try {
+            synchronized (dataLock) {
+                DeleteFood(foodName);
+                journal.foodDeleted(foodName);
+            }
+        } finally {
+            foodRemoves.recordSince(started);
+        }
+    }
+
+    private static void PutMenuItem(MenuItem item) {
+        long started = System.nanoTime();
+        try {
+            synchronized (dataLock) {
+                UpdateMenuItem(item);
+                journal.menuItemUpserted(item);
+            }
+        } finally {
+            menuPuts.recordSince(started);
+        }
+    }
+
+    private static void RemoveMenuItem(String itemName) {
+        long started = System.nanoTime();
+        try {
+            synchronized (dataLock) {
+                DeleteMenuItem(itemName);
+                journal.menuItemDeleted(itemName);
+            }
+        } finally {
+            menuRemoves.recordSince(started);
+        }
+    }
+
+    //Adds, updates or removes (weight of 0 or less) an ingredient, only saved menu items are journaled
+    private static void SetIngredient(MenuItem item, Food food, double weight) {
+        long started = System.nanoTime();
+        try {
+            synchronized (dataLock) {
+                boolean saved = UpdateIngredient(item, food, weight);
+
+                if (saved) {
+                    journal.ingredientChanged(item, food, Math.max(weight, 0));
+                }
+            }
+        } finally {
+            ingredientSets.recordSince(started);
+        }
+    }
+
+    /*
+     * The Update methods apply an edit and recalculate everything that depends on it, they are shared by the
+     * editors and the journal replay. Callers hold dataLock.
+     * */
+    private static void UpdateFood(Food food) {
+        //A food added again under a deleted food's name takes its id back, menu items that still use it follow it
+        int id = foodData.rowOf(food.getName());
+        boolean added = !foodData.contains(id);
+        Set<MenuItem> items = id < 0 ? Collections.emptySet() : dependencies.itemsUsing(id);
+
+        Recalculate(items, () -> foodData.put(food));
+        if (added) foodNames.add(food.getName());
+        foodVersion++;
+    }
+
+    private static void DeleteFood(String foodName) {
+        foodData.remove(foodName);
+        foodNames.remove(foodName);
+        foodVersion++;
+    }
+
+    private static void UpdateMenuItem(MenuItem item) {
+        MenuItem replaced = menuData.put(item);
+        if (replaced != null && replaced != item) dependencies.removeMenuItem(replaced);
+        dependencies.addMenuItem(item);
+        if (replaced == null) menuNames.add(item.getName());
+        menuVersion++;
+    }
+
+    private static void DeleteMenuItem(String itemName) {
+        MenuItem removed = menuData.remove(itemName);
+        if (removed != null) dependencies.removeMenuItem(removed);
+        menuNames.remove(itemName);
+        menuVersion++;
+    }
+
+    //Returns false when the menu item has not been saved yet, its dependencies are added once it is
+    private static boolean UpdateIngredient(MenuItem item, Food food, double weight) {
+        boolean saved = menuData.get(item.getName()) == item;
+        Ingredient ingredient = item.getIngredientByName(food.getName());
+
+        Runnable change = () -> {
+            if (weight <= 0) {
+                if (ingredient != null) {
+                    item.removeIngredient(ingredient);
+                    if (saved) dependencies.ingredientRemoved(item, ingredient.getFoodId());
+                }
+            } else if (ingredient != null) {
+                item.updateIngredient(ingredient, weight);
+            } else {
+                item.addIngredient(new Ingredient(food, weight));
+                if (saved) dependencies.ingredientAdded(item, food.getId());
+            }
+        };
+
+        if (saved) {
+            Recalculate(Collections.singleton(item), change);
+        } else {
+            change.run();
+        }
+        return saved;
+    }
+
+    //Runs a change to foods or to these menu items, then recalculates the menu items and the meals that hold them
+    private static void Recalculate(Set<MenuItem> items, Runnable change) {
+        if (items.isEmpty()) {
+            change.run();
+            return;
+        }
+
+        Set<Meal> meals = dependencies.mealsUsing(items);
+        mealData.recalculate(meals, () -> {
+            change.run();
+            items.forEach(MenuItem::recalculateTotal);
+        });
+
+        menuVersion++;
+        if (!meals.isEmpty()) mealVersion++;
+    }
+
+    private static void PutMeal(Meal meal) {
+        long started = System.nanoTime();
+        try {
+            synchronized (dataLock) {
+                mealData.put(meal);
+                mealVersion++;
+                journal.mealSaved(meal);
+            }
+        } finally {
+            mealPuts.recordSince(started);
+        }
+    }
+
+    //Replays journaled edits, references to food or menu items that no longer exist are skipped
+    private static final class JournalReplay implements Journal.Handler {
+        @Override
+        public void foodUpserted(Food food) {
+            UpdateFood(food);
+        }
+
+        @Override
+        public void foodDeleted(String name) {
+            DeleteFood(name);
+        }
+
+        @Override
+        public void ingredientChanged(String itemName, String foodName, double weight) {
+            MenuItem item = menuData.get(itemName);
+            Food food = foodData.get(foodName);
+            if (item == null || food == null) return;
+
+            UpdateIngredient(item, food, weight);
+        }
+
+        @Override
+        public void menuItemUpserted(String itemName, List<String> foodNames, List<Double> weights) {
+            List<Ingredient> ingredients = new ArrayList<>(foodNames.size());
+            for (int i = 0; i < foodNames.size(); i++) {
+                int food = foodData.idOf(foodNames.get(i));
+                if (food >= 0) ingredients.add(new Ingredient(foodData, food, weights.get(i)));
+            }
+            UpdateMenuItem(new MenuItem(itemName, ingredients));
+        }
+
+        @Override
+        public void menuItemDeleted(String itemName) {
+            DeleteMenuItem(itemName);
+        }
+
+        @Override
+        public void mealSaved(int day, String mealType, List<String> itemNames) {
+            MealType type = MealType.Find(mealType);
+            if (type == null) return;
+
+            List<MenuItem> mealItems = new ArrayList<>(itemNames.size());
+            for (String itemName : itemNames) {
+                MenuItem item = menuData.get(itemName);
+                if (item != null) mealItems.add(item);
+            }
+            mealData.put(new Meal(day, type, mealItems));
+            mealVersion++;
+        }
+    }
+
+    /*
+     * Serves the API from the same data as the console. Names are matched ignoring case like the console does.
+     * Reads go straight to the stores without dataLock. Edits from many requests share one disk write, each
+     * request waits for its edit outside of dataLock.
+     * */
+    private static final class ApiRequests implements ApiServer.Handler {
+        @Override
+        public Food food(String name) {
+            return FindFood(name);
+        }
+
+        @Override
+        public List<Food> foodsStartingWith(String prefix, int limit) {
+            List<Food> foods = new ArrayList<>();
+            for (String name : foodNames.startingWith(prefix, limit)) {
+                foods.add(foodData.get(name));
+            }
+            return foods;
+        }
+
+        @Override
+        public List<String> suggestFoods(String name, int limit) {
+            return foodNames.suggest(name, limit);
+        }
+
+        @Override
+        public MenuItem menuItem(String name) {
+            return FindMenuItem(name);
+        }
+
+        @Override
+        public List<MenuItem> menuItemsStartingWith(String prefix, int limit) {
+            List<MenuItem> items = new ArrayList<>();
+            for (String name : menuNames.startingWith(prefix, limit)) {
+                items.add(menuData.get(name));
+            }
+            return items;
+        }
 
-        SaveToFiles();
-    }
+        @Override
+        public List<String> suggestMenuItems(String name, int limit) {
+            return menuNames.suggest(name, limit);
+        }
 
-    private static void SaveToFiles() {
-        System.out.println("Saving Food Tracker Data");
+        @Override
+        public MealDays meals(int from, int to) {
+            return mealData.range(from, to);
+        }
 
-        //Sort Meals By Date Then By Meal Type
+        @Override
+        public double[] totals(int from, int to) {
+            return mealData.totals(from, to);
+        }
 
-        try {
-            System.out.println("Saving Food");
-            WriteFood();
-            System.out.println("Saving Menu Items");
-            WriteMenu();
-            System.out.println("Saving Meals");
-            WriteMeals();
-        } catch (IOException e) {
-            System.out.println(e.getMessage());
+        @Override
+        public double[] dailyAverages(int from, int to) {
+            return mealData.dailyAverages(from, to);
         }
-        System.out.println("Exiting Program");
-    }
 
-    private static void WriteMeals() throws IOException {
-        try {
-            Files.deleteIfExists(Paths.get(mealFile));
-            File file = new File(mealFile);
-            PrintWriter writer = new PrintWriter(file);
-
-            writer.println(mealHeader);
-
-            mealData.forEach((date, meals) -> {
-                writer.println(date);
-                meals.forEach((type, meal) -> {
-                    writer.println("," + type);
-                    for (MenuItem menuItem : meal.getMealItems()) {
-                        writer.println(",," + menuItem.getName());
-                    }
-                    writer.println(",,," + meal.getTotalCalories());
-                });
+        @Override
+        public void apply(String... command) throws ParseException {
+            long sequence;
 
-            });
+            synchronized (dataLock) {
+                journal.beginBatch();
+                try {
+                    ApplyCommand(command);
+                } finally {
+                    sequence = journal.endBatchLater();
+                }
+            }
+            journal.awaitDurable(sequence);
+        }
+    }
 
-            writer.close();
-        } catch (IOException e) {
-            throw new IOException("Failed to write to Meal File");
+    private static void WriteMeals() throws IOException {
+        long version = mealVersion;
+        if (version == savedMealVersion) return;
+
+        long started = System.nanoTime();
+        mealData.save();
+        mealSaves.recordSince(started);
+
+        //Once its meals are in the history the old single meal file is kept only as a backup
+        if (legacyMealsImported) {
+            File legacy = new File(mealFile);
+            if (!legacy.renameTo(new File(legacy.getParentFile(), legacy.getName() + ".imported"))) {
+                System.out.println("Could Not Rename Imported Meal File: It Will Not Be Read Again");
+            }
+            legacyMealsImported = false;
         }
+        savedMealVersion = version;
     }
 
     private static void WriteMenu() throws IOException {
-        try {
-            Files.deleteIfExists(Paths.get(menuFile));
-            File file = new File(menuFile);
+        long version = menuVersion;
+        if (version == savedMenuVersion) return;
 
-            PrintWriter writer = new PrintWriter(file);
+        long started = System.nanoTime();
+        WriteMenu(menuFile, menuData);
+        menuSaves.recordSince(started);
+        savedMenuVersion = version;
+    }
 
-            writer.println(menuHeader);
-            menuData.forEach((name, menuItem) -> {
-                writer.println(name);
-                for (Ingredient ingredient : menuItem.getIngredients()) {
-                    writer.println("," + ingredient.getFood().getName() + "," + ingredient.getWeight());
-                }
-                writer.println(",," + menuItem.getTotalCalories());
-            });
+    static void WriteMenu(String path, MenuStore menuItems) throws IOException {
+        JfrEvents.Save event = new JfrEvents.Save();
+        event.begin();
+
+        try (AtomicFileWriter file = new AtomicFileWriter(path)) {
+            PrintWriter writer = file.writer();
 
-            writer.close();
+            writer.println(MenuHeader(menuItems.idCount()));
+            for (MenuItem menuItem : menuItems.values()) {
+                WriteMenuItem(writer, menuItem, "");
+            }
+            for (MenuItem menuItem : menuItems.deleted()) {
+                WriteMenuItem(writer, menuItem, ",,," + DELETED);
+            }
+
+            file.commit();
         } catch (IOException e) {
             throw new IOException("Failed to write to Menu File");
         }
+        JfrEvents.Commit(event, "Menu Items", new File(path), menuItems.size());
+    }
+
+    private static void WriteMenuItem(PrintWriter writer, MenuItem menuItem, String mark) {
+        writer.println(menuItem.getId() + "," + menuItem.getName() + mark);
+        for (Ingredient ingredient : menuItem.getIngredients()) {
+            writer.println("," + ingredient.getFoodId() + "," + ingredient.getWeight());
+        }
+        writer.println(",," + menuItem.getTotalCalories());
     }
 
     private static void WriteFood() throws IOException {
-        try {
-            Files.deleteIfExists(Paths.get(foodFile));
-            File file = new File(foodFile);
+        long version = foodVersion;
+        if (version == savedFoodVersion) return;
+
+        long started = System.nanoTime();
+        WriteFood(foodFile, foodData);
+        foodSaves.recordSince(started);
+        savedFoodVersion = version;
+    }
+
+    static void WriteFood(String path, FoodStore foods) throws IOException {
+        JfrEvents.Save event = new JfrEvents.Save();
+        event.begin();
 
-            PrintWriter writer = new PrintWriter(file);
+        try (AtomicFileWriter file = new AtomicFileWriter(path)) {
+            PrintWriter writer = file.writer();
 
-            writer.println(foodHeader);
-            foodData.forEach((name, food) -> writer.println(food.toString().replace("\t", ",")));
+            writer.println(FoodHeader(foods.idCount()));
+            foods.forEach(food -> writer.println(food.getId() + "," + food.toString().replace("\t", ",")));
+            for (int id : foods.deletedIds()) {
+                writer.println(id + "," + foods.get(id).toString().replace("\t", ",") + "," + DELETED);
+            }
 
-            writer.close();
+            file.commit();
         } catch (IOException e) {
             throw new IOException("Failed to write to Food File");
         }
+        JfrEvents.Commit(event, "Food", new File(path), foods.size());
     }
 
     private static void SaveMealHandler(Scanner input) {
         List<MenuItem> mealItems = new ArrayList<>();
-        double totalCalories = 0;
         System.out.println("Which Meal Is This?");
 
-        for (String type : GlobalConstants.MealTypes) {
+        for (MealType type : MealType.values()) {
             System.out.print(type + ", ");
         }
 
         try {
-            String mealType;
-            Date date;
+            MealType mealType;
+            int mealDay;
 
             System.out.println("Enter Meal:");
-            mealType = input.nextLine();
+            String typeName = input.nextLine();
             System.out.println();
-            if (QuitPrompt(mealType)) return;
-            mealType = ToTitleCase(mealType);
+            if (QuitPrompt(typeName)) return;
+            mealType = MealType.Find(typeName);
 
-            while (!GlobalConstants.MealTypes.contains(mealType)) {
+            while (mealType == null) {
                 System.out.println("Please Enter A Valid Meal Type:");
-                mealType = input.nextLine();
-                if (QuitPrompt(mealType)) return;
+                typeName = input.nextLine();
+                if (QuitPrompt(typeName)) return;
+                mealType = MealType.Find(typeName);
             }
 
             DisplayMenuItems();
 
             out:
             while (true) {
-                System.out.println("Enter Menu Item To Add (or type done):");
+                System.out.println("Enter Menu Item To Add (or type done, n or p to turn the page):");
                 String itemName = input.nextLine();
                 System.out.println();
                 if (QuitPrompt(itemName)) return;
+                if (menuPages.turn(itemName)) continue;
 
                 if (itemName.equalsIgnoreCase("done")) {
                     break;
                 }
 
-                MenuItem item = menuData.get(itemName);
+                MenuItem item = FindMenuItem(itemName);
 
                 while (item == null) {
+                    PrintSuggestions(menuNames, itemName);
                     System.out.println("Please Enter A Valid Menu Item:");
                     itemName = input.nextLine();
                     if (QuitPrompt(itemName)) return;
@@ -278,11 +1153,10 @@ public class Main {
                         break out;
                     }
 
-                    item = menuData.get(itemName);
+                    item = FindMenuItem(itemName);
                 }
 
                 mealItems.add(item);
-                totalCalories += item.getTotalCalories();
             }
 
             System.out.println("What Day Is This Meal For (MM/DD/YYYY):");
@@ -291,7 +1165,7 @@ public class Main {
 
             while (true) {
                 try {
-                    date = (new SimpleDateFormat("MM/dd/yyyy")).parse(day);
+                    mealDay = Days.Parse(day);
                     System.out.println();
                     break;
                 } catch (ParseException e) {
@@ -301,8 +1175,8 @@ public class Main {
                     if (QuitPrompt(day)) return;
                 }
             }
-            Meal meal = new Meal(date, mealType, mealItems, totalCalories);
-            mealData.get(date).put(mealType, meal);
+            Meal meal = new Meal(mealDay, mealType, mealItems);
+            PutMeal(meal);
         } catch (NumberFormatException e) {
             System.out.println("Invalid Input");
             System.out.println();
@@ -310,14 +1184,87 @@ public class Main {
         }
     }
 
+    private static void NutrientTotalsHandler(Scanner input) {
+        Integer from = DatePrompt(input, "Enter Start Date (MM/DD/YYYY):");
+        if (from == null) return;
+        Integer to = DatePrompt(input, "Enter End Date (MM/DD/YYYY):");
+        if (to == null) return;
+
+        if (to < from) {
+            System.out.println("Invalid Input: End Date Is Before Start Date");
+            System.out.println();
+            return;
+        }
+
+        double[] totals = mealData.totals(from, to);
+        double[] averages = mealData.dailyAverages(from, to);
+
+        System.out.println("\tCalories\tFat\tCarbs\tProtein\tGrams");
+        System.out.println("Total:\t" + totals[Macros.CALORIES] + "\t" + totals[Macros.FAT] + "\t"
+                + totals[Macros.CARBS] + "\t" + totals[Macros.PROTEIN] + "\t" + totals[Macros.GRAMS]);
+        System.out.println("Per Day:\t" + averages[Macros.CALORIES] + "\t" + averages[Macros.FAT] + "\t"
+                + averages[Macros.CARBS] + "\t" + averages[Macros.PROTEIN] + "\t" + averages[Macros.GRAMS]);
+        System.out.println();
+    }
+
+    private static void NutritionReportHandler(Scanner input) {
+        System.out.println("Which Report: Daily, Weekly Or Monthly?");
+        NutritionReport.Period period;
+
+        while (true) {
+            String name = input.nextLine();
+            System.out.println();
+            if (QuitPrompt(name)) return;
+
+            period = NutritionReport.Period.Find(name);
+            if (period != null) break;
+            System.out.println("Please Enter Daily, Weekly Or Monthly:");
+        }
+
+        Integer from = DatePrompt(input, "Enter Start Date (MM/DD/YYYY):");
+        if (from == null) return;
+        Integer to = DatePrompt(input, "Enter End Date (MM/DD/YYYY):");
+        if (to == null) return;
+
+        if (to < from) {
+            System.out.println("Invalid Input: End Date Is Before Start Date");
+            System.out.println();
+            return;
+        }
+
+        long started = System.nanoTime();
+        NutritionReport report = NutritionReport.Build(mealData, period, from, to);
+        reports.recordSince(started);
+        System.out.println(report.format());
+    }
+
+    //Returns the epoch day entered, or null when the user quits the prompt
+    private static Integer DatePrompt(Scanner input, String prompt) {
+        System.out.println(prompt);
+
+        while (true) {
+            String day = input.nextLine().trim();
+            System.out.println();
+            if (QuitPrompt(day)) return null;
+
+            try {
+                return Days.Parse(day);
+            } catch (ParseException e) {
+                System.out.println("Please Enter Valid Date (MM/DD/YYYY):");
+            }
+        }
+    }
+
     private static void MenuOptionHandler(Scanner input) {
         while (true) {
             DisplayMenuOptions();
             int option;
 
             try {
-                option = Integer.parseInt(input.nextLine());
+                String line = input.nextLine();
                 System.out.println();
+                if (menuPages.turn(line)) continue;
+                option = Integer.parseInt(line);
             } catch (NumberFormatException e) {
                 System.out.println("Invalid Input");
                 System.out.println();
@@ -349,10 +1296,11 @@ public class Main {
             String itemName = input.nextLine();
             if (QuitPrompt(itemName)) return;
 
-            MenuItem item = menuData.get(itemName);
+            MenuItem item = FindMenuItem(itemName);
 
             if (item == null) {
                 System.out.println("Item does not exist");
+                PrintSuggestions(menuNames, itemName);
                 System.out.println();
                 ViewMenuItem(input);
             } else {
@@ -394,10 +1342,8 @@ public class Main {
             MenuItem item = new MenuItem(itemName, new ArrayList<>());
             IngredientEditor(input, item);
 
-            if (item.getIngredients().isEmpty()) {
-                menuData.remove(itemName);
-                return;
-            }
+            //Nothing has been saved yet, a saved menu item with the same name is left as it is
+            if (item.getIngredients().isEmpty()) return;
 
             System.out.println("Add Another? (y/n):");
             char another = input.nextLine().charAt(0);
@@ -410,7 +1356,7 @@ public class Main {
                 System.out.println();
             }
 
-            menuData.put(itemName, item);
+            PutMenuItem(item);
         } catch (NumberFormatException e) {
             System.out.println("Invalid Input");
             System.out.println();
@@ -426,14 +1372,16 @@ public class Main {
             System.out.println();
             if (QuitPrompt(itemName)) return;
 
-            MenuItem item = menuData.get(itemName);
+            MenuItem item = FindMenuItem(itemName);
 
             if (item == null) {
+                PrintSuggestions(menuNames, itemName);
                 System.out.println("Creating New Menu Item");
                 System.out.println();
                 InsertMenuItem(input, itemName);
                 return;
             } else {
+                itemName = item.getName();
                 System.out.println(item.toString());
                 System.out.println();
                 System.out.println("Would You Like To Remove This Menu Item? (y/n):");
@@ -441,7 +1389,7 @@ public class Main {
                 char removeItem = input.nextLine().charAt(0);
 
                 if (removeItem == 'y' || removeItem == 'Y') {
-                    menuData.remove(itemName);
+                    RemoveMenuItem(itemName);
                     System.out.println();
                     MenuEditor(input);
                     return;
@@ -477,18 +1425,18 @@ public class Main {
                 if (QuitPrompt(s)) return;
                 double weight = Double.parseDouble(s);
 
-                if (weight <= 0) {
-                    item.removeIngredient(ingredient);
-                } else {
-                    item.updateIngredient(ingredient, weight);
+                SetIngredient(item, ingredient.getFood(), weight);
+
+                if (weight > 0) {
                     System.out.println(ingredient.toString());
                     System.out.println();
                 }
             } else {
-                Food food = foodData.get(ingredientName);
+                Food food = FindFood(ingredientName);
 
                 if (food == null) {
                     System.out.println("Invalid Input: Food Does Not Exist, Please Enter An Existing Food");
+                    PrintSuggestions(foodNames, ingredientName);
                     System.out.println();
                     IngredientEditor(input, item);
                 } else {
@@ -506,8 +1454,7 @@ public class Main {
                         servingSize = Double.parseDouble(s);
                     }
 
-                    ingredient = new Ingredient(food, servingSize);
-                    item.addIngredient(ingredient);
+                    SetIngredient(item, food, servingSize);
                 }
             }
         } catch (NumberFormatException e) {
@@ -521,6 +1468,7 @@ public class Main {
         System.out.println("Options: \n" +
                 "Menu Item Editor: \t\t\t21\n" +
                 "View A Menu Item: \t\t\t22\n" +
+                "Next Or Previous Page: \t\tn / p\n" +
                 "Quit To Main Menu: \t\t\t0");
         System.out.println("Please Enter Number To Continue:");
     }
@@ -531,8 +1479,10 @@ public class Main {
             int option;
 
             try {
-                option = Integer.parseInt(input.nextLine());
+                String line = input.nextLine();
                 System.out.println();
+                if (foodPages.turn(line)) continue;
+                option = Integer.parseInt(line);
             } catch (NumberFormatException e) {
                 System.out.println("Invalid Input");
                 System.out.println();
@@ -565,10 +1515,11 @@ public class Main {
             System.out.println();
             if (QuitPrompt(foodName)) return;
 
-            Food food = foodData.get(foodName);
+            Food food = FindFood(foodName);
 
             if (food == null) {
                 System.out.println("Food does not exist");
+                PrintSuggestions(foodNames, foodName);
                 System.out.println();
                 FoodViewer(input);
             } else {
@@ -596,7 +1547,7 @@ public class Main {
 
         System.out.println();
         System.out.println(foodName);
-        foodName = foodName.toLowerCase();
+        foodName = Food.StoredName(foodName);
 
         System.out.println("Is This Correct? (y/n):");
         char answer = input.nextLine().charAt(0);
@@ -616,15 +1567,17 @@ public class Main {
         }
 
         try {
-            Food food = foodData.get(foodName);
+            Food food = FindFood(foodName);
             String s;
 
             if (food == null) {
                 System.out.println();
+                PrintSuggestions(foodNames, foodName);
                 System.out.println("Creating New Food");
                 System.out.println();
                 newFood = true;
             } else {
+                foodName = food.getName();
                 System.out.println("Editing Existing Food");
                 System.out.println(food.toString());
                 System.out.println();
@@ -635,7 +1588,7 @@ public class Main {
                     if (answer == 'n' || answer == 'N') {
                         break;
                     } else if (answer == 'y' || answer == 'Y') {
-                        foodData.remove(foodName);
+                        RemoveFood(foodName);
                         System.out.println();
                         FoodEditor(input);
                         return;
@@ -716,7 +1669,7 @@ public class Main {
                         FoodEditor(input);
                         return;
                     } else if (answer == 'y' || answer == 'Y') {
-                        foodData.put(foodName, food);
+                        PutFood(food);
                         FoodEditor(input);
                         return;
                     } else {
@@ -737,7 +1690,7 @@ public class Main {
                         FoodEditor(input);
                         return;
                     } else if (answer == 'y' || answer == 'Y') {
-                        foodData.put(foodName, food);
+                        PutFood(food);
                         FoodEditor(input);
                         return;
                     } else {
@@ -753,453 +1706,488 @@ public class Main {
         }
     }
 
+    //Exact name first, then the same name in another case
+    private static Food FindFood(String name) {
+        long started = System.nanoTime();
+        Food food = foodData.get(name.trim());
+
+        if (food == null) {
+            String match = foodNames.find(name);
+            food = match == null ? null : foodData.get(match);
+            if (food == null) foodLookupMisses.increment();
+        }
+        foodLookups.recordSince(started);
+        return food;
+    }
+
+    private static MenuItem FindMenuItem(String name) {
+        long started = System.nanoTime();
+        MenuItem item = menuData.get(name.trim());
+
+        if (item == null) {
+            String match = menuNames.find(name);
+            item = match == null ? null : menuData.get(match);
+            if (item == null) menuLookupMisses.increment();
+        }
+        menuLookups.recordSince(started);
+        return item;
+    }
+
+    private static void PrintSuggestions(NameIndex index, String name) {
+        List<String> suggestions = index.suggest(name, SUGGESTIONS);
+        if (!suggestions.isEmpty()) {
+            System.out.println("Did You Mean: " + String.join(", ", suggestions));
+        }
+    }
+
     private static void DisplayFoodOptions() {
         System.out.println("Options: \n" +
                 "Food Editor: \t\t\t\t11\n" +
                 "View A Food Item: \t\t\t12\n" +
+                "Next Or Previous Page: \t\tn / p\n" +
                 "Quit To Main Menu: \t\t\t0");
         System.out.println("Please Enter Number To Continue:");
     }
 
+    //Only the first page is shown, n and p at the next prompt turn the page
     private static void DisplayMenuItems() {
-        System.out.println("Item Name\tIngredients\tTotal Cals");
-        menuData.forEach((k, v) -> System.out.println(v.toString()));
-        System.out.println();
+        menuPages.showFirst();
     }
 
     private static void DisplayFoodItems() {
-        System.out.println("Food\tCalories\tFat\tCarbs\tProtein\tServing Size");
-        foodData.forEach((k, v) -> System.out.println(v.toString()));
-        System.out.println();
+        foodPages.showFirst();
     }
 
-    private static TreeMap<Date, TreeMap<String, Meal>> ReadMealData() throws IOException, CorruptedFileException {
-        TreeMap<Date, TreeMap<String, Meal>> mealData = new TreeMap<>();
-        TreeMap<String, Meal> dayMeals = new TreeMap<>();
-        File file = new File(mealFile);
-        Date date;
-        String mealType;
-        List<MenuItem> mealItems = new ArrayList<>();
-        double totalCalories;
-        String row;
-        String[] rowData;
-        boolean isHeader = true;
+    private static MealDays ReadMealData() throws IOException, CorruptedFileException {
+        return ReadMealData(new File(mealFile), menuData);
+    }
 
-        if (file.isFile()) {
-            BufferedReader csvReader = new BufferedReader(new FileReader(file));
+    /*
+     * The Read methods below take the file and the data it refers to, so they can be run on any copy of the files.
+     * The benchmarks call them directly. Each file's header says whether its references are ids or names.
+     * */
+    static MealDays ReadMealData(File file, MenuStore menuItems) throws IOException, CorruptedFileException {
+        boolean ids = ReadHeader(file).equals(mealHeader);
+        return BuildMealData(file, ParallelCsvReader.Submit(file, csvReader -> ParseMealChunk(csvReader, ids)), menuItems);
+    }
 
-            while ((row = csvReader.readLine()) != null && !row.isEmpty()) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
+    //This assumes that the file is not being modified by the user and that all food exists
+    static MenuStore ReadMenuItems(File file, FoodStore foods) throws IOException, CorruptedFileException, NumberFormatException {
+        int nextId = NextId(file);
+        return BuildMenuData(file, SubmitMenu(file, nextId), foods, nextId);
+    }
 
-                rowData = row.split(",");
+    static FoodStore ReadInFood(File file) throws IOException, CorruptedFileException {
+        int nextId = NextId(file);
+        return BuildFoodData(file, SubmitFood(file, nextId), nextId);
+    }
 
-                if (!rowData[0].isBlank()) {
-                    try {
-                        date = new SimpleDateFormat("MM/dd/yyyy").parse(rowData[0]);
-                    } catch (ParseException e) {
-                        e.printStackTrace();
-                        RenameCorruptedFile(file);
-                        throw new CorruptedFileException("Corrupted File Detected: Corrupted Date");
-                    }
+    static String FoodHeader(int nextId) {
+        return "Id (Next " + nextId + "),Name,Calories,Fat,Carbs,Protein,Serving Size (g)," + DELETED;
+    }
 
-                    row = csvReader.readLine();
-                    rowData = row.split(",");
+    static String MenuHeader(int nextId) {
+        return "Id (Next " + nextId + "),Name,Food Ids,Servings (g)," + DELETED;
+    }
 
-                    if (!rowData[1].isBlank()) {
-                        mealType = rowData[1];
+    //Returns -1 for a file saved before ids were added, or one that is missing
+    //A next id too large to read is returned as MAX_VALUE, reading the rest of the file reports it
+    private static int NextId(File file) {
+        Matcher matcher = ID_HEADER.matcher(ReadHeader(file));
+        if (!matcher.matches()) return -1;
 
-                        if (!(GlobalConstants.MealTypes).contains(mealType)) {
-                            RenameCorruptedFile(file);
-                            throw new CorruptedFileException("Corrupted File Detected: Meal Type Invalid");
-                        }
+        try {
+            return Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    //Returns an empty header when the file cannot be read, reading the rest of it reports why
+    private static String ReadHeader(File file) {
+        if (!file.isFile()) return "";
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            return header == null ? "" : header;
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static Future<List<FoodRows>> SubmitFood(File file, int nextId) {
+        boolean ids = nextId >= 0;
+        return ParallelCsvReader.Submit(file, csvReader -> ParseFoodChunk(csvReader, ids));
+    }
 
-                        row = csvReader.readLine();
-                        rowData = row.split(",");
+    private static Future<List<List<MenuRecord>>> SubmitMenu(File file, int nextId) {
+        boolean ids = nextId >= 0;
+        return ParallelCsvReader.Submit(file, csvReader -> ParseMenuChunk(csvReader, ids));
+    }
 
-                        while (!rowData[2].isBlank()) {
-                            MenuItem mealItem = menuData.get(rowData[2]);
+    private static MealDays BuildMealData(File file, Future<List<List<MealRecord>>> chunks, MenuStore menuItems) throws IOException, CorruptedFileException {
+        JfrEvents.Load event = new JfrEvents.Load();
+        event.begin();
+        MealDays.Builder mealData = new MealDays.Builder();
+        long meals = 0;
 
-                            if (mealItem == null) {
-                                RenameCorruptedFile(file);
-                                throw new CorruptedFileException("Corrupted File Detected: Menu Item Does Not Exist");
-                            }
+        if (file.isFile()) {
+            for (List<MealRecord> records : JoinChunks(file, chunks)) {
+                for (MealRecord record : records) {
+                    List<MenuItem> mealItems = new ArrayList<>(record.count);
+
+                    for (int i = 0; i < record.count; i++) {
+                        MenuItem mealItem = record.itemNames != null ?
+                                menuItems.get(record.itemNames[i]) :
+                                menuItems.get(record.itemIds[i]);
 
-                            mealItems.add(mealItem);
-                            row = csvReader.readLine();
-                            rowData = row.split(",");
+                        if (mealItem == null) {
+                            RenameCorruptedFile(file);
+                            throw new CorruptedFileException("Corrupted File Detected: Menu Item Does Not Exist");
                         }
-                        totalCalories = Double.parseDouble(rowData[3]);
 
-                        Meal meal = new Meal(date, mealType, mealItems, totalCalories);
-                        dayMeals.put(mealType, meal);
-                    } else {
-                        RenameCorruptedFile(file);
-                        throw new CorruptedFileException("Corrupted File Detected: Meal Type Missing");
+                        mealItems.add(mealItem);
                     }
 
-                    mealData.put(date, dayMeals);
+                    mealData.add(new Meal(record.day, record.mealType, mealItems));
+                    meals++;
                 }
             }
-            csvReader.close();
         } else {
             System.out.println("No Meal Items Available");
         }
 
-        return mealData;
+        JfrEvents.Commit(event, "Meals", file, meals);
+        return mealData.build();
     }
 
-    //This assumes that the file is not being modified by the user and that all food exists
-    private static TreeMap<String, MenuItem> ReadMenuItems() throws IOException, CorruptedFileException, NumberFormatException {
-        TreeMap<String, MenuItem> menuItems = new TreeMap<>();
-        File file = new File(menuFile);
-        boolean isHeader = true;
+    //Menu items from a file saved before ids were added get new ids in file order
+    private static MenuStore BuildMenuData(File file, Future<List<List<MenuRecord>>> chunks, FoodStore foods, int nextId) throws IOException, CorruptedFileException {
+        JfrEvents.Load event = new JfrEvents.Load();
+        event.begin();
+        MenuStore menuItems = new MenuStore();
 
         if (file.isFile()) {
-            BufferedReader csvReader = new BufferedReader(new FileReader(file));
-            String row;
-
-            while ((row = csvReader.readLine()) != null && !row.isEmpty()) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
-
-                String[] rowData = row.split(",");
-
-                if (!rowData[0].isBlank()) {
-                    List<Ingredient> ingredients = new ArrayList<>();
-                    String name = rowData[0];
-                    row = csvReader.readLine();
-                    rowData = row.split(",");
-
-                    if (rowData[1].isBlank()) {
-                        RenameCorruptedFile(file);
-                        throw new CorruptedFileException("Corrupted File Detected: Food Is Missing");
-                    }
-
-                    while (!rowData[1].isBlank()) {
-                        Food food = foodData.get(rowData[1]);
-                        if (food == null) {
+            CheckIdRange(file, -1, nextId);
+            for (List<MenuRecord> records : JoinChunks(file, chunks)) {
+                for (MenuRecord record : records) {
+                    List<Ingredient> ingredients = new ArrayList<>(record.count);
+
+                    for (int i = 0; i < record.count; i++) {
+                        int food = record.foodNames != null ? foods.idOf(record.foodNames[i]) : record.foodIds[i];
+                        if (!foods.hasRow(food)) {
                             RenameCorruptedFile(file);
                             throw new CorruptedFileException("Corrupted File Detected: Food Does Not Exist");
                         }
-                        double weight = Double.parseDouble(rowData[2]);
-                        ingredients.add(new Ingredient(food, weight));
-                        row = csvReader.readLine();
-                        rowData = row.split(",");
+                        ingredients.add(new Ingredient(foods, food, record.weights[i]));
                     }
 
-                    menuItems.put(name, new MenuItem(name, ingredients));
-                } else {
-                    RenameCorruptedFile(file);
-                    throw new CorruptedFileException("Corrupted File Detected: Menu Item Missing");
+                    MenuItem menuItem = new MenuItem(record.name, ingredients);
+                    if (record.id < 0) {
+                        menuItems.put(menuItem);
+                        continue;
+                    }
+
+                    CheckIdRange(file, record.id, nextId);
+                    if (!menuItems.load(record.id, menuItem, !record.deleted)) {
+                        RenameCorruptedFile(file);
+                        throw new CorruptedFileException("Corrupted File Detected: Duplicate Menu Item");
+                    }
                 }
             }
-            csvReader.close();
+            menuItems.reserveIds(nextId);
         } else {
             System.out.println("No Menu Items Available");
         }
 
+        JfrEvents.Commit(event, "Menu Items", file, menuItems.size());
         return menuItems;
     }
 
-    private static TreeMap<String, Food> ReadInFood() throws IOException {
-        TreeMap<String, Food> foods = new TreeMap<>();
-        File file = new File(foodFile);
-        boolean isHeader = true;
+    //Foods from a file saved before ids were added get new ids in file order
+    private static FoodStore BuildFoodData(File file, Future<List<FoodRows>> chunks, int nextId) throws IOException, CorruptedFileException {
+        JfrEvents.Load event = new JfrEvents.Load();
+        event.begin();
+        FoodStore foods = new FoodStore();
 
         if (file.isFile()) {
-            BufferedReader csvReader = new BufferedReader(new FileReader(file));
-            String row;
+            CheckIdRange(file, -1, nextId);
+            for (FoodRows chunk : JoinChunks(file, chunks)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    Food food = chunk.get(i);
+                    if (food.getId() < 0) {
+                        foods.put(food);
+                        continue;
+                    }
 
-            while ((row = csvReader.readLine()) != null && !row.isEmpty()) {
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
+                    CheckIdRange(file, food.getId(), nextId);
+                    if (!foods.load(food.getId(), food.getName(), food.getCals(), food.getFat(), food.getCarbs(),
+                            food.getProtein(), food.getServingSize(), !chunk.isDeleted(i))) {
+                        RenameCorruptedFile(file);
+                        throw new CorruptedFileException("Corrupted File Detected: Duplicate Food");
+                    }
                 }
-
-                String[] rowData = row.split(",");
-                String name = rowData[0];
-                double cals = Double.parseDouble(rowData[1]);
-                double fat = Double.parseDouble(rowData[2]);
-                double carbs = Double.parseDouble(rowData[3]);
-                double protein = Double.parseDouble(rowData[4]);
-                double servingSize = Double.parseDouble(rowData[5]);
-                Food food = new Food(name, cals, fat, carbs, protein, servingSize);
-                foods.put(name, food);
             }
-
-            csvReader.close();
+            foods.reserveIds(nextId);
         } else {
             System.out.println("No Food Data Available");
         }
 
+        JfrEvents.Commit(event, "Food", file, foods.size());
         return foods;
     }
 
-    private static void DisplayMainMenu() {
-        System.out.println("Press q to quit any non-menu prompt\n\n" +
-                "Main Menu: \n" +
-                "Food Options: \t\t\t\t1\n" +
-                "Menu Options: \t\t\t\t2\n" +
-                "Save A Meal: \t\t\t\t3\n" +
-                "Quit: \t\t\t\t\t\t0");
-        System.out.println("Please Enter Number To Continue:");
+    //Ids are checked before the stores grow to hold them, a damaged id could otherwise ask for any amount of memory
+    //An id of -1 checks only the next id from the header
+    private static void CheckIdRange(File file, int id, int nextId) throws CorruptedFileException {
+        if (nextId > MAX_IDS || id >= Math.max(nextId, 0)) {
+            RenameCorruptedFile(file);
+            throw new CorruptedFileException("Corrupted File Detected: Id Out Of Range");
+        }
     }
-}
 
-class CorruptedFileException extends Exception {
-    CorruptedFileException(String message) {
-        super(message);
+    private static <T> List<T> JoinChunks(File file, Future<List<T>> chunks) throws IOException, CorruptedFileException {
+        try {
+            return ParallelCsvReader.Join(chunks);
+        } catch (CorruptedFileException e) {
+            RenameCorruptedFile(file);
+            throw e;
+        }
     }
-}
 
-class Meal implements Comparable<Meal> {
-    private Date mealDate;
-    private String mealType;
-    private List<MenuItem> mealItems;
-    private double totalCalories;
+    private static List<MealRecord> ParseMealChunk(CsvTokenizer csvReader, boolean ids) throws IOException, CorruptedFileException {
+        List<MealRecord> records = new ArrayList<>();
+        int day = 0;
+        boolean dated = false;
+        MealRecord record = null;
+
+        while (csvReader.nextRecord() && !csvReader.isEmptyRecord()) {
+            //Date rows start a new day, every meal on that day follows until the next date row
+            if (!csvReader.isBlank(0)) {
+                if (record != null) {
+                    throw new CorruptedFileException("Corrupted File Detected: Total Calories Missing");
+                }
 
-    Meal(Date mealDate, String mealType, List<MenuItem> mealItems, double totalCalories) {
-        this.mealType = mealType;
-        this.mealItems = mealItems;
-        this.mealDate = mealDate;
-        this.totalCalories = totalCalories;
-    }
+                try {
+                    day = Days.Parse(csvReader.getString(0));
+                    dated = true;
+                } catch (ParseException e) {
+                    throw new CorruptedFileException("Corrupted File Detected: Corrupted Date");
+                }
+                continue;
+            }
 
-    String getMealType() {
-        return mealType;
-    }
+            if (!csvReader.isBlank(1)) {
+                MealType mealType = MealType.Find(csvReader.getString(1));
 
-    List<MenuItem> getMealItems() {
-        return mealItems;
-    }
+                if (!dated || mealType == null) {
+                    throw new CorruptedFileException("Corrupted File Detected: Meal Type Invalid");
+                }
 
-    Date getMealDate() {
-        return mealDate;
-    }
+                record = new MealRecord(day, mealType, ids);
+                continue;
+            }
 
-    double getTotalCalories() {
-        return totalCalories;
-    }
+            if (record == null) {
+                throw new CorruptedFileException("Corrupted File Detected: Meal Type Missing");
+            }
 
-    @Override
-    public int compareTo(Meal meal) {
-        return this.mealDate.compareTo(meal.mealDate)!=0?
-                this.mealDate.compareTo(meal.mealDate) :
-                GlobalConstants.MealTypes.indexOf(this.mealType)-GlobalConstants.MealTypes.indexOf(meal.mealType);
-    }
-}
+            if (!csvReader.isBlank(2)) {
+                try {
+                    if (ids) {
+                        record.addItem(csvReader.getInt(2));
+                    } else {
+                        record.addItem(csvReader.getString(2));
+                    }
+                } catch (NumberFormatException e) {
+                    throw new CorruptedFileException("Corrupted File Detected: Menu Item Id Invalid");
+                }
+                continue;
+            }
 
-class MenuItem implements Comparable<MenuItem> {
-    private String name;
-    private List<Ingredient> ingredients;
-    private double totalCalories;
+            //The total row ends the meal, the total itself is worked out again from the menu items
+            records.add(record);
+            record = null;
+        }
 
-    MenuItem(String name, List<Ingredient> ingredients) {
-        this.name = name;
-        this.ingredients = ingredients;
-        totalCalories = 0;
-        for(Ingredient ingredient : ingredients) {
-            Food food = ingredient.getFood();
-            double weight = ingredient.getWeight();
-            this.totalCalories += Food.CalculateCalories(food, weight);
+        if (record != null) {
+            throw new CorruptedFileException("Corrupted File Detected: Total Calories Missing");
         }
-    }
 
-    String getName() {
-        return name;
+        return records;
     }
 
-    void setName(String name) {
-        this.name = name;
-    }
+    private static List<MenuRecord> ParseMenuChunk(CsvTokenizer csvReader, boolean ids) throws IOException, CorruptedFileException {
+        List<MenuRecord> records = new ArrayList<>();
+        MenuRecord record = null;
 
-    List<Ingredient> getIngredients() {
-        return ingredients;
-    }
+        while (csvReader.nextRecord() && !csvReader.isEmptyRecord()) {
+            if (record == null) {
+                if (csvReader.isBlank(0)) {
+                    throw new CorruptedFileException("Corrupted File Detected: Menu Item Missing");
+                }
 
-    Ingredient getIngredientByName(String ingredientName) {
-        ingredientName = ingredientName.trim();
-        for (Ingredient ingredient : this.ingredients) {
-            if (ingredient.getFood().getName().equalsIgnoreCase(ingredientName)) {
-                return ingredient;
+                record = ids ?
+                        new MenuRecord(csvReader.getInt(0), csvReader.getString(1), !csvReader.isBlank(4)) :
+                        new MenuRecord(csvReader.getString(0));
+                continue;
             }
-        }
-
-        return null;
-    }
 
-    void addIngredient(Ingredient ingredient) {
-        this.ingredients.add(ingredient);
-        Food food = ingredient.getFood();
-        double weight = ingredient.getWeight();
-        this.totalCalories += Food.CalculateCalories(food, weight);
-    }
+            //The total calories row closes the menu item, the total itself is recalculated from the ingredients
+            if (csvReader.isBlank(1)) {
+                if (record.count == 0) {
+                    throw new CorruptedFileException("Corrupted File Detected: Food Is Missing");
+                }
 
-    void removeIngredient(Ingredient ingredient) {
-        Food food;
-        double weight;
-        food = ingredient.getFood();
-        weight = ingredient.getWeight();
+                records.add(record);
+                record = null;
+                continue;
+            }
 
-        //This will never return false the way it is currently used, but may if this method is used a different way later.
-        if (this.ingredients.remove(ingredient)) {
-            this.totalCalories -= Food.CalculateCalories(food, weight);
+            if (ids) {
+                record.addIngredient(csvReader.getInt(1), csvReader.getDouble(2));
+            } else {
+                record.addIngredient(csvReader.getString(1), csvReader.getDouble(2));
+            }
         }
 
-    }
-
-    void updateIngredient(Ingredient ingredient, double weight) {
-        //This will never return false the way it is currently used, but may if this method is used a different way later.
-        if (this.ingredients.contains(ingredient)) {
-            //This will make sure that the total calories stay up to date
-            this.removeIngredient(ingredient);
-            ingredient.setWeight(weight);
-            this.addIngredient(ingredient);
+        if (record != null) {
+            throw new CorruptedFileException("Corrupted File Detected: Food Is Missing");
         }
 
+        return records;
     }
 
-    double getTotalCalories() { return totalCalories; }
-
-    public void setTotalCalories(double totalCalories) { this.totalCalories = totalCalories; }
-
-    @Override
-    public String toString() {
-        StringBuilder s = new StringBuilder(name + ":\t");
-        for (Ingredient ingredient : ingredients) {
-            s.append(ingredient.getFood().getName()).append(" ").append(ingredient.getWeight()).append("g, ");
+    //Foods from a file saved before ids were added have an id of -1
+    private static FoodRows ParseFoodChunk(CsvTokenizer csvReader, boolean ids) throws IOException {
+        FoodRows foods = new FoodRows();
+        int first = ids ? 1 : 0;
+
+        while (csvReader.nextRecord() && !csvReader.isEmptyRecord()) {
+            int id = ids ? csvReader.getInt(0) : -1;
+            String name = csvReader.getString(first);
+            double cals = csvReader.getDouble(first + 1);
+            double fat = csvReader.getDouble(first + 2);
+            double carbs = csvReader.getDouble(first + 3);
+            double protein = csvReader.getDouble(first + 4);
+            double servingSize = csvReader.getDouble(first + 5);
+            foods.add(new Food(null, id, name, cals, fat, carbs, protein, servingSize), ids && !csvReader.isBlank(first + 6));
         }
-        s = new StringBuilder(s.substring(0, s.length() - 2));
-        s.append(" | ").append(totalCalories).append(" calories");
-        return s.toString();
-    }
 
-    @Override
-    public int compareTo(MenuItem menuItem) {
-        return this.name.compareToIgnoreCase(menuItem.name);
+        return foods;
     }
-}
 
-final class Ingredient {
-    private final Food food;
-    private double weight;
+    //One chunk of the food file, a list of its foods that also knows which rows were saved as deleted
+    private static final class FoodRows extends AbstractList<Food> {
+        private final List<Food> foods = new ArrayList<>();
+        private final BitSet deleted = new BitSet();
 
-    Ingredient(Food food, double weight) {
-        this.food = food;
-        this.weight = weight;
-    }
+        void add(Food food, boolean deleted) {
+            if (deleted) this.deleted.set(foods.size());
+            foods.add(food);
+        }
 
-    Food getFood() {
-        return food;
-    }
+        boolean isDeleted(int index) {
+            return deleted.get(index);
+        }
 
-    double getWeight() {
-        return weight;
-    }
+        @Override
+        public Food get(int index) {
+            return foods.get(index);
+        }
 
-    void setWeight(double weight) {
-        this.weight = weight;
+        @Override
+        public int size() {
+            return foods.size();
+        }
     }
 
-    @Override
-    public String toString() {
-        return food + "\t" + weight;
+    private static void DisplayMainMenu() {
+        System.out.println("Press q to quit any non-menu prompt\n\n" +
+                "Main Menu: \n" +
+                "Food Options: \t\t\t\t1\n" +
+                "Menu Options: \t\t\t\t2\n" +
+                "Save A Meal: \t\t\t\t3\n" +
+                "Nutrient Totals: \t\t\t4\n" +
+                "Nutrition Reports: \t\t\t5\n" +
+                "Runtime Stats: \t\t\t\tstats\n" +
+                "Quit: \t\t\t\t\t\t0");
+        System.out.println("Please Enter Number To Continue:");
     }
 }
 
-class Food implements Comparable<Food> {
-    private String name;
-    private double cals;
-    private double fat;
-    private double carbs;
-    private double protein;
-    private double servingSize;
-
-    Food(String name, double cals, double fat, double carbs, double protein, double servingSize) {
+//A menu item as it appears in the file, its foods are looked up once all food data has been read
+//Files saved before ids were added name each food, those records have an id of -1 and no food ids
+final class MenuRecord {
+    final int id;
+    final String name;
+    final boolean deleted;
+    int[] foodIds;
+    String[] foodNames;
+    double[] weights = new double[4];
+    int count;
+
+    MenuRecord(int id, String name, boolean deleted) {
+        this.id = id;
         this.name = name;
-        this.cals = cals;
-        this.fat = fat;
-        this.carbs = carbs;
-        this.protein = protein;
-        this.servingSize = servingSize;
-    }
-
-    String getName() {
-        return name;
+        this.deleted = deleted;
+        this.foodIds = new int[4];
     }
 
-    public void setName(String name) {
+    MenuRecord(String name) {
+        this.id = -1;
         this.name = name;
+        this.deleted = false;
+        this.foodNames = new String[4];
     }
 
-    private double getCals() {
-        return cals;
-    }
-
-    void setCals(double cals) {
-        this.cals = cals;
-    }
-
-    double getFat() {
-        return fat;
+    void addIngredient(int foodId, double weight) {
+        if (count == weights.length) Grow();
+        foodIds[count] = foodId;
+        weights[count] = weight;
+        count++;
     }
 
-    void setFat(double fat) {
-        this.fat = fat;
+    void addIngredient(String foodName, double weight) {
+        if (count == weights.length) Grow();
+        foodNames[count] = foodName;
+        weights[count] = weight;
+        count++;
     }
 
-    double getCarbs() {
-        return carbs;
-    }
-
-    void setCarbs(double carbs) {
-        this.carbs = carbs;
-    }
-
-    double getProtein() {
-        return protein;
-    }
-
-    void setProtein(double protein) {
-        this.protein = protein;
-    }
-
-    private double getServingSize() {
-        return servingSize;
-    }
-
-    void setServingSize(double servingSize) {
-        this.servingSize = servingSize;
+    private void Grow() {
+        if (foodIds != null) foodIds = Arrays.copyOf(foodIds, count * 2);
+        if (foodNames != null) foodNames = Arrays.copyOf(foodNames, count * 2);
+        weights = Arrays.copyOf(weights, count * 2);
     }
+}
 
-    static double CalculateCalories(Food food, double weight) {
-        if (food == null) {
-            return 0;
+//A meal as it appears in the file, its menu items are looked up once all menu data has been read
+//Files saved before ids were added name each menu item instead of giving its id
+final class MealRecord {
+    final int day;
+    final MealType mealType;
+    int[] itemIds;
+    String[] itemNames;
+    int count;
+
+    MealRecord(int day, MealType mealType, boolean ids) {
+        this.day = day;
+        this.mealType = mealType;
+        if (ids) {
+            itemIds = new int[4];
+        } else {
+            itemNames = new String[4];
         }
-
-        double servingSize = food.getServingSize();
-        double servings = weight / servingSize;
-        return servings * food.getCals();
     }
 
-    @Override
-    public String toString() {
-        return name + "\t" +
-                cals + "\t" +
-                fat + "\t" +
-                carbs + "\t" +
-                protein + "\t" +
-                servingSize;
+    void addItem(int itemId) {
+        if (count == itemIds.length) itemIds = Arrays.copyOf(itemIds, count * 2);
+        itemIds[count++] = itemId;
     }
 
-    @Override
-    public int compareTo(Food food) {
-        return this.name.compareToIgnoreCase(food.name);
+    void addItem(String itemName) {
+        if (count == itemNames.length) itemNames = Arrays.copyOf(itemNames, count * 2);
+        itemNames[count++] = itemName;
     }
 }
-
@@ -0,0 +1,53 @@
+package com.foodtrackerclitool;
+
+import java.util.List;
+
+class Meal implements Comparable<Meal> {
+    private final int mealDay;
+    private final MealType mealType;
+    private List<MenuItem> mealItems;
+    private final Macros macros = new Macros();
+
+    //Calories, fat, carbs, protein and grams are all added up from the menu items
+    //The day is an epoch day, see Days
+    Meal(int mealDay, MealType mealType, List<MenuItem> mealItems) {
+        this.mealType = mealType;
+        this.mealItems = mealItems;
+        this.mealDay = mealDay;
+        for (MenuItem item : mealItems) {
+            macros.add(item.getMacros(), 1);
+        }
+    }
+
+    MealType getMealType() {
+        return mealType;
+    }
+
+    List<MenuItem> getMealItems() {
+        return mealItems;
+    }
+
+    int getMealDay() {
+        return mealDay;
+    }
+
+    double getTotalCalories() {
+        return macros.get(Macros.CALORIES);
+    }
+
+    Macros getMacros() {
+        return macros;
+    }
+
+    //A meal never changes once it is saved, when one of its menu items changes it is replaced by this copy
+    Meal recalculated() {
+        return new Meal(mealDay, mealType, mealItems);
+    }
+
+    @Override
+    public int compareTo(Meal meal) {
+        return this.mealDay != meal.mealDay ?
+                Integer.compare(this.mealDay, meal.mealDay) :
+                this.mealType.compareTo(meal.mealType);
+    }
+}
@@ -0,0 +1,178 @@
+package com.foodtrackerclitool;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/*
+ * Meals grouped by day and sorted by day: an int array of epoch days (see Days) and, at the same positions, each
+ * day's meals in their meal type slots (see DayMeals). Finding a day is a binary search over ints and a range of days is a slice of the
+ * same arrays, nothing is copied to scan part of it.
+ *
+ * Nothing in it changes once it is built. with() returns a copy that shares every day except the one it changed.
+ * */
+final class MealDays {
+    static final MealDays EMPTY = new MealDays(new int[0], new DayMeals[0], 0, 0);
+
+    private final int[] days;
+    private final DayMeals[] meals;
+    private final int start;
+    private final int end;
+
+    private MealDays(int[] days, DayMeals[] meals, int start, int end) {
+        this.days = days;
+        this.meals = meals;
+        this.start = start;
+        this.end = end;
+    }
+
+    //Number of days with meals
+    int size() {
+        return end - start;
+    }
+
+    boolean isEmpty() {
+        return end == start;
+    }
+
+    int day(int index) {
+        return days[start + index];
+    }
+
+    DayMeals meals(int index) {
+        return meals[start + index];
+    }
+
+    int mealCount() {
+        int count = 0;
+        for (int i = start; i < end; i++) count += meals[i].size();
+        return count;
+    }
+
+    //Returns null when there are no meals on that day
+    DayMeals get(int day) {
+        int index = Arrays.binarySearch(days, start, end, day);
+        return index < 0 ? null : meals[index];
+    }
+
+    //Days between from and to, both included
+    MealDays range(int from, int to) {
+        if (from > to) return EMPTY;
+        int first = Position(from);
+        int last = Position(to + 1);
+        if (first == start && last == end) return this;
+        return new MealDays(days, meals, first, last);
+    }
+
+    //A copy with the meal in place of any meal of the same type on the same day
+    MealDays with(Meal meal) {
+        int day = meal.getMealDay();
+        int index = Arrays.binarySearch(days, start, end, day);
+        int size = size();
+
+        if (index >= 0) {
+            DayMeals[] copy = Arrays.copyOfRange(meals, start, end);
+            copy[index - start] = meals[index].with(meal);
+            return new MealDays(Arrays.copyOfRange(days, start, end), copy, 0, size);
+        }
+
+        int insert = -index - 1 - start;
+        int[] newDays = new int[size + 1];
+        DayMeals[] newMeals = new DayMeals[size + 1];
+        System.arraycopy(days, start, newDays, 0, insert);
+        System.arraycopy(meals, start, newMeals, 0, insert);
+        System.arraycopy(days, start + insert, newDays, insert + 1, size - insert);
+        System.arraycopy(meals, start + insert, newMeals, insert + 1, size - insert);
+
+        newDays[insert] = day;
+        newMeals[insert] = DayMeals.EMPTY.with(meal);
+        return new MealDays(newDays, newMeals, 0, size + 1);
+    }
+
+    //Joins parts that are already in day order and do not share any day, such as consecutive months
+    static MealDays Join(Collection<MealDays> parts) {
+        if (parts.size() == 1) return parts.iterator().next();
+
+        int size = 0;
+        for (MealDays part : parts) size += part.size();
+        if (size == 0) return EMPTY;
+
+        int[] days = new int[size];
+        DayMeals[] meals = new DayMeals[size];
+        int at = 0;
+        for (MealDays part : parts) {
+            System.arraycopy(part.days, part.start, days, at, part.size());
+            System.arraycopy(part.meals, part.start, meals, at, part.size());
+            at += part.size();
+        }
+        return new MealDays(days, meals, 0, size);
+    }
+
+    //First position holding this day or a later one
+    private int Position(int day) {
+        int index = Arrays.binarySearch(days, start, end, day);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    /*
+     * Collects meals in any order. Meals read from a file come day by day, so normally each meal only joins the
+     * last day or starts a new one, and the days are sorted once at the end if they ever arrived out of order.
+     * A later meal of the same type on the same day replaces the earlier one.
+     * */
+    static final class Builder {
+        private int[] days = new int[16];
+        private DayMeals[] meals = new DayMeals[16];
+        private int size;
+        private boolean sorted = true;
+
+        Builder add(Meal meal) {
+            int day = meal.getMealDay();
+
+            if (size > 0 && days[size - 1] == day) {
+                meals[size - 1] = meals[size - 1].with(meal);
+                return this;
+            }
+            if (size > 0 && days[size - 1] > day) sorted = false;
+
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                meals = Arrays.copyOf(meals, size * 2);
+            }
+            days[size] = day;
+            meals[size] = DayMeals.EMPTY.with(meal);
+            size++;
+            return this;
+        }
+
+        Builder addAll(MealDays other) {
+            for (int i = 0; i < other.size(); i++) {
+                for (Meal meal : other.meals(i)) add(meal);
+            }
+            return this;
+        }
+
+        MealDays build() {
+            if (size == 0) return EMPTY;
+            if (sorted) return new MealDays(Arrays.copyOf(days, size), Arrays.copyOf(meals, size), 0, size);
+
+            //A stable sort keeps the days of the same date in the order they were added, so later meals win
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparingInt(i -> days[i]));
+
+            int[] sortedDays = new int[size];
+            DayMeals[] sortedMeals = new DayMeals[size];
+            int count = 0;
+            for (int i : order) {
+                if (count > 0 && sortedDays[count - 1] == days[i]) {
+                    sortedMeals[count - 1] = sortedMeals[count - 1].withAll(meals[i]);
+                } else {
+                    sortedDays[count] = days[i];
+                    sortedMeals[count] = meals[i];
+                    count++;
+                }
+            }
+            return new MealDays(sortedDays, sortedMeals, 0, count);
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.foodtrackerclitool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Saved meals split into one csv file per month, plus a manifest listing every month and how many meals it holds.
+ * Each month written also gets a binary snapshot next to its csv file, which is read instead of the csv file for
+ * as long as the csv file has not changed (see Snapshot).
+ *   MealHistory/
+ *       manifest.csv  |  2024-01.csv  |  2024-01.bin  |  2024-02.csv  |  2024-02.bin  |  ...
+ *
+ * Only the most recent months are read on startup, older months are read the first time something asks for a
+ * date inside them. Only months that were changed are written back.
+ * Every loaded meal is also added to a nutrient index, so totals over a range of days do not walk the meals.
+ *
+ * Any number of threads can read at once. A read that needs a month which is not loaded yet loads it under the
+ * write lock first.
+ *
+ * Meals are published as versions that never change once published: a map of months, each a MealDays index of
+ * that month's days, each a DayMeals of that day's meals. An edit copies only the day and month it touches plus the
+ * small map of months, every other month is shared with the version before. A reader pins the current version with one volatile read and
+ * can scan it for as long as it likes while edits keep publishing newer ones. Meals themselves never change, a
+ * recalculated meal is a new Meal that takes the old one's place. An old version is garbage collected once no
+ * reader holds it.
+ * */
+final class MealHistory {
+    private static final int WINDOW_MONTHS = 3;
+    static final String MANIFEST = "manifest.csv";
+    static final String MANIFEST_HEADER = "Month,Meals";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d{4})-(\\d{2})\\.csv");
+
+    //Reads one month's file, the same format as the meal csv file
+    interface SegmentReader {
+        MealDays read(File file) throws IOException, CorruptedFileException;
+    }
+
+    private final File directory;
+    private final String header;
+    private final SegmentReader reader;
+    private final DependencyGraph dependencies;
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final NutrientIndex nutrients = new NutrientIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Version current = new Version(new TreeMap<>(), 0);
+    //Months changed under the write lock that are not published yet, copies only the writer can see
+    private final Map<Integer, MealDays> pending = new HashMap<>();
+
+    private MealHistory(File directory, String header, SegmentReader reader, DependencyGraph dependencies) {
+        this.directory = directory;
+        this.header = header;
+        this.reader = reader;
+        this.dependencies = dependencies;
+    }
+
+    //Every meal that is loaded or saved is registered with the dependency graph
+    static MealHistory Open(File directory, String header, SegmentReader reader, DependencyGraph dependencies) {
+        MealHistory history = new MealHistory(directory, header, reader, dependencies);
+        history.ReadManifest();
+
+        int firstMonth = Days.MonthOf(Days.Today()) - (WINDOW_MONTHS - 1);
+        history.Load(firstMonth, Integer.MAX_VALUE);
+        history.Publish();
+        return history;
+    }
+
+    boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return segments.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int mealCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (Segment segment : segments.values()) count += segment.mealCount;
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    DayMeals getDay(int day) {
+        return snapshot(day, day).day(day);
+    }
+
+    //Every day between from and to (both included), reading any month in that range that is not loaded yet
+    MealDays range(int from, int to) {
+        JfrEvents.Query event = new JfrEvents.Query();
+        event.begin();
+        MealDays days = snapshot(from, to).range(from, to);
+        JfrEvents.Commit(event, "Range", from, to);
+        return days;
+    }
+
+    MealDays all() {
+        return Snapshot(Integer.MIN_VALUE, Integer.MAX_VALUE).all();
+    }
+
+    //The current version, after reading every month between from and to that is not loaded yet
+    Version snapshot(int from, int to) {
+        return Snapshot(Days.MonthOf(from), Days.MonthOf(to));
+    }
+
+    private Version Snapshot(int fromMonth, int toMonth) {
+        ReadLock(fromMonth, toMonth);
+        try {
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //Macros eaten between from and to (both included), indexed by the Macros constants
+    double[] totals(int from, int to) {
+        JfrEvents.Query event = new JfrEvents.Query();
+        event.begin();
+        ReadLock(Days.MonthOf(from), Days.MonthOf(to));
+        try {
+            return nutrients.sum(from, to);
+        } finally {
+            lock.readLock().unlock();
+            JfrEvents.Commit(event, "Totals", from, to);
+        }
+    }
+
+    double[] dailyAverages(int from, int to) {
+        JfrEvents.Query event = new JfrEvents.Query();
+        event.begin();
+        ReadLock(Days.MonthOf(from), Days.MonthOf(to));
+        try {
+            return nutrients.dailyAverage(from, to);
+        } finally {
+            lock.readLock().unlock();
+            JfrEvents.Commit(event, "Daily Averages", from, to);
+        }
+    }
+
+    void put(Meal meal) {
+        lock.writeLock().lock();
+        try {
+            Put(meal);
+            Publish();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Takes the meals out of the nutrient totals and runs the change that recalculates their menu items, then puts
+     * a recalculated copy of each meal in its place.
+     * */
+    void recalculate(Collection<Meal> changed, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            for (Meal meal : changed) nutrients.add(meal, -1);
+            change.run();
+
+            for (Meal meal : changed) {
+                int month = Days.MonthOf(meal.getMealDay());
+                DayMeals day = current.day(meal.getMealDay());
+                if (day == null || day.get(meal.getMealType()) != meal) {
+                    nutrients.add(meal, 1);
+                    continue;
+                }
+
+                Meal updated = meal.recalculated();
+                PutInDay(month, updated);
+                nutrients.add(updated, 1);
+                dependencies.removeMeal(meal);
+                dependencies.addMeal(updated);
+
+                Segment segment = segments.get(month);
+                if (segment != null) segment.dirty = true;
+            }
+            Publish();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Adds meals read from somewhere other than the segments, every month they touch is written on the next save
+    void putAll(MealDays imported) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < imported.size(); i++) {
+                imported.meals(i).forEach(this::Put);
+            }
+            Publish();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void Put(Meal meal) {
+        int month = Days.MonthOf(meal.getMealDay());
+        Load(month, month);
+
+        Segment segment = segments.computeIfAbsent(month, Segment::new);
+        if (!segment.unreadable) segment.loaded = true;
+        Meal replaced = PutInDay(month, meal);
+
+        if (replaced == null) {
+            segment.mealCount++;
+        } else {
+            nutrients.add(replaced, -1);
+            dependencies.removeMeal(replaced);
+        }
+        nutrients.add(meal, 1);
+        dependencies.addMeal(meal);
+        segment.dirty = true;
+    }
+
+    //Copies the meal's day into the pending copy of its month, returns the meal it replaced
+    private Meal PutInDay(int month, Meal meal) {
+        MealDays days = Month(month);
+        DayMeals day = days.get(meal.getMealDay());
+        Meal replaced = day == null ? null : day.get(meal.getMealType());
+        pending.put(month, days.with(meal));
+        return replaced;
+    }
+
+    //The month as the writer sees it, including changes that are not published yet
+    private MealDays Month(int month) {
+        MealDays days = pending.get(month);
+        return days != null ? days : current.months.getOrDefault(month, MealDays.EMPTY);
+    }
+
+    //Makes every pending month visible to readers in one new version
+    private void Publish() {
+        if (pending.isEmpty()) return;
+
+        TreeMap<Integer, MealDays> months = new TreeMap<>(current.months);
+        months.putAll(pending);
+        pending.clear();
+        current = new Version(months, current.number + 1);
+    }
+
+    //Returns holding the read lock, once every month between the two is loaded
+    private void ReadLock(int fromMonth, int toMonth) {
+        lock.readLock().lock();
+        if (IsLoaded(fromMonth, toMonth)) return;
+        lock.readLock().unlock();
+
+        lock.writeLock().lock();
+        try {
+            Load(fromMonth, toMonth);
+            Publish();
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean IsLoaded(int fromMonth, int toMonth) {
+        for (Segment segment : segments.subMap(fromMonth, true, toMonth, true).values()) {
+            if (!segment.loaded && !segment.unreadable) return false;
+        }
+        return true;
+    }
+
+    /*
+     * Writes every changed month and then the manifest.
+     * A month whose file could not be read is never written, that would replace the meals already in it with only
+     * the new ones. Its new meals stay in memory and the save throws, so the journal that holds them is kept.
+     * */
+    void save() throws IOException {
+        lock.writeLock().lock();
+        try {
+            boolean changed = false;
+            Segment unsaved = null;
+            Files.createDirectories(directory.toPath());
+
+            for (Segment segment : segments.values()) {
+                if (segment.dirty && segment.unreadable) {
+                    unsaved = segment;
+                } else if (segment.dirty) {
+                    WriteSegment(segment);
+                    segment.dirty = false;
+                    changed = true;
+                }
+            }
+
+            if (changed || !new File(directory, MANIFEST).isFile()) {
+                WriteManifest();
+            }
+            if (unsaved != null) {
+                throw new IOException("Meal File " + SegmentName(unsaved.month) + " Could Not Be Read: New Meals In It Were Not Saved");
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void Load(int fromMonth, int toMonth) {
+        for (Segment segment : segments.subMap(fromMonth, true, toMonth, true).values()) {
+            if (segment.loaded || segment.unreadable) continue;
+
+            File file = SegmentFile(segment.month);
+            if (!file.isFile()) {
+                segment.loaded = true;
+                continue;
+            }
+
+            try {
+                MealDays monthMeals = reader.read(file);
+                for (int i = 0; i < monthMeals.size(); i++) {
+                    for (Meal meal : monthMeals.meals(i)) {
+                        nutrients.add(meal, 1);
+                        dependencies.addMeal(meal);
+                    }
+                }
+                //A month is loaded before anything is put in it, so there is nothing pending to merge with
+                pending.put(segment.month, monthMeals);
+                segment.mealCount = monthMeals.mealCount();
+                segment.loaded = true;
+            } catch (CorruptedFileException e) {
+                //The corrupted file has been renamed out of the way, the month starts over empty
+                System.out.println(e.getMessage());
+                segment.mealCount = 0;
+                segment.loaded = true;
+            } catch (IOException e) {
+                System.out.println("Could Not Read Meal File " + file.getName() + ": It Will Not Be Saved Over");
+                segment.unreadable = true;
+            }
+        }
+    }
+
+    private void ReadManifest() {
+        File manifest = new File(directory, MANIFEST);
+
+        if (manifest.isFile()) {
+            try (CsvTokenizer csvReader = CsvTokenizer.Open(manifest)) {
+                csvReader.nextRecord();
+                while (csvReader.nextRecord() && !csvReader.isEmptyRecord()) {
+                    Integer month = ParseMonth(csvReader.getString(0) + ".csv");
+                    if (month == null) continue;
+
+                    Segment segment = new Segment(month);
+                    segment.mealCount = (int) csvReader.getDouble(1);
+                    segments.put(month, segment);
+                }
+                return;
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("Meal History Manifest Unreadable: Rebuilding From Meal Files");
+                segments.clear();
+            }
+        }
+
+        //Without a manifest the month files themselves say what exists
+        String[] names = directory.list();
+        if (names == null) return;
+
+        for (String name : names) {
+            Integer month = ParseMonth(name);
+            if (month != null) segments.put(month, new Segment(month));
+        }
+    }
+
+    private void WriteSegment(Segment segment) throws IOException {
+        JfrEvents.Save event = new JfrEvents.Save();
+        event.begin();
+        MealDays monthMeals = current.months.getOrDefault(segment.month, MealDays.EMPTY);
+        File csv = SegmentFile(segment.month);
+        int count = 0;
+
+        try (AtomicFileWriter file = new AtomicFileWriter(csv.getPath())) {
+            PrintWriter writer = file.writer();
+            writer.println(header);
+
+            for (int i = 0; i < monthMeals.size(); i++) {
+                writer.println(Days.Format(monthMeals.day(i)));
+                for (Meal meal : monthMeals.meals(i)) {
+                    writer.println("," + meal.getMealType());
+                    for (MenuItem menuItem : meal.getMealItems()) {
+                        writer.println(",," + menuItem.getId());
+                    }
+                    writer.println(",,," + meal.getTotalCalories());
+                    count++;
+                }
+            }
+
+            file.commit();
+        } catch (IOException e) {
+            throw new IOException("Failed to write to Meal File " + SegmentName(segment.month));
+        }
+        JfrEvents.Commit(event, "Meals", csv, count);
+
+        segment.mealCount = count;
+        WriteSnapshot(csv, monthMeals);
+    }
+
+    //The snapshot only makes the next read faster, a month that has no current one is read from its csv file
+    static void WriteSnapshot(File segment, MealDays monthMeals) {
+        try {
+            Snapshot.WriteMonth(SnapshotFile(segment), segment, monthMeals);
+        } catch (IOException e) {
+            System.out.println("Could Not Write Meal Snapshot For " + segment.getName());
+        }
+    }
+
+    //The binary copy of a month, kept next to its csv file
+    static File SnapshotFile(File segment) {
+        return new File(segment.getParentFile(), segment.getName().replace(".csv", ".bin"));
+    }
+
+    private void WriteManifest() throws IOException {
+        JfrEvents.Save event = new JfrEvents.Save();
+        event.begin();
+
+        try (AtomicFileWriter file = new AtomicFileWriter(new File(directory, MANIFEST).getPath())) {
+            PrintWriter writer = file.writer();
+            writer.println(MANIFEST_HEADER);
+            for (Segment segment : segments.values()) {
+                writer.println(SegmentName(segment.month).replace(".csv", "") + "," + segment.mealCount);
+            }
+            file.commit();
+        } catch (IOException e) {
+            throw new IOException("Failed to write to Meal History Manifest");
+        }
+        JfrEvents.Commit(event, "Meal Manifest", new File(directory, MANIFEST), segments.size());
+    }
+
+    private File SegmentFile(int month) {
+        return new File(directory, SegmentName(month));
+    }
+
+    static String SegmentName(int month) {
+        return String.format("%04d-%02d.csv", month / 12, month % 12 + 1);
+    }
+
+    private static Integer ParseMonth(String name) {
+        Matcher matcher = SEGMENT_NAME.matcher(name);
+        if (!matcher.matches()) return null;
+
+        int month = Integer.parseInt(matcher.group(2));
+        if (month < 1 || month > 12) return null;
+        return Integer.parseInt(matcher.group(1)) * 12 + month - 1;
+    }
+
+    //One published state of every loaded month, nothing in it changes once it is published
+    static final class Version {
+        private final TreeMap<Integer, MealDays> months;
+        private final long number;
+
+        private Version(TreeMap<Integer, MealDays> months, long number) {
+            this.months = months;
+            this.number = number;
+        }
+
+        //Counts up by one with every published edit
+        long number() {
+            return number;
+        }
+
+        DayMeals day(int day) {
+            MealDays days = months.get(Days.MonthOf(day));
+            return days == null ? null : days.get(day);
+        }
+
+        //Days between from and to (both included), a range inside one month is a slice of it and is not copied
+        MealDays range(int from, int to) {
+            if (from > to) return MealDays.EMPTY;
+
+            Collection<MealDays> spanned = months.subMap(Days.MonthOf(from), true, Days.MonthOf(to), true).values();
+            if (spanned.isEmpty()) return MealDays.EMPTY;
+            if (spanned.size() == 1) return spanned.iterator().next().range(from, to);
+
+            List<MealDays> parts = new ArrayList<>(spanned.size());
+            for (MealDays days : spanned) parts.add(days.range(from, to));
+            return MealDays.Join(parts);
+        }
+
+        MealDays all() {
+            return months.isEmpty() ? MealDays.EMPTY : MealDays.Join(months.values());
+        }
+
+        //Macros of every meal between from and to in this version, added up by walking the meals
+        double[] totals(int from, int to) {
+            double[] totals = new double[Macros.COUNT];
+            MealDays range = range(from, to);
+            for (int d = 0; d < range.size(); d++) {
+                for (Meal meal : range.meals(d)) {
+                    Macros macros = meal.getMacros();
+                    for (int i = 0; i < Macros.COUNT; i++) totals[i] += macros.get(i);
+                }
+            }
+            return totals;
+        }
+    }
+
+    private static final class Segment {
+        private final int month;
+        private int mealCount;
+        private boolean loaded;
+        //Reading the month's file failed, see save
+        private boolean unreadable;
+        private boolean dirty;
+
+        Segment(int month) {
+            this.month = month;
+        }
+    }
+}
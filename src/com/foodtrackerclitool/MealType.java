@@ -0,0 +1,55 @@
+package com.foodtrackerclitool;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * The meals of a day, declared in the order they are listed, sorted and saved. Files, the journal and the API
+ * use the name, so the order can change without changing any data.
+ * A day keeps its meals in slots indexed by ordinal(), see DayMeals.
+ * */
+enum MealType {
+    BREAKFAST("Breakfast"),
+    BRUNCH("Brunch"),
+    LUNCH("Lunch"),
+    DINNER("Dinner"),
+    DESSERT("Dessert"),
+    SNACK("Snack");
+
+    private static final MealType[] TYPES = values();
+    static final int COUNT = TYPES.length;
+
+    //Each name as it is saved and in lower case, so typed names are found in one lookup whatever their case
+    private static final Map<String, MealType> BY_NAME = new HashMap<>();
+
+    static {
+        for (MealType type : TYPES) {
+            BY_NAME.put(type.label, type);
+            BY_NAME.put(type.label.toLowerCase(Locale.ROOT), type);
+        }
+    }
+
+    private final String label;
+
+    MealType(String label) {
+        this.label = label;
+    }
+
+    //Returns null when the name is not a meal type
+    static MealType Find(String name) {
+        MealType type = BY_NAME.get(name);
+        return type != null ? type : BY_NAME.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    //The same as values()[ordinal] without copying the array
+    static MealType Of(int ordinal) {
+        return TYPES[ordinal];
+    }
+
+    //The name the meal type is saved and shown as
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,135 @@
+package com.foodtrackerclitool;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Readers on other threads never take a lock: the ingredient list is copied on every change and the macros are
+ * replaced by a changed copy, so both are always seen whole. Changes are made by one thread at a time.
+ * */
+class MenuItem implements Comparable<MenuItem> {
+    //Set when the menu item is saved in a MenuStore, -1 until then
+    private int id = -1;
+    private String name;
+    private final List<Ingredient> ingredients;
+    private volatile Macros macros;
+
+    MenuItem(String name, List<Ingredient> ingredients) {
+        this.name = name;
+        this.ingredients = new CopyOnWriteArrayList<>(ingredients);
+        Macros macros = new Macros();
+        for(Ingredient ingredient : ingredients) {
+            ingredient.addTo(macros, 1);
+        }
+        this.macros = macros;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    List<Ingredient> getIngredients() {
+        return ingredients;
+    }
+
+    Ingredient getIngredientByName(String ingredientName) {
+        ingredientName = ingredientName.trim();
+        for (Ingredient ingredient : this.ingredients) {
+            if (ingredient.getFoodName().equalsIgnoreCase(ingredientName)) {
+                return ingredient;
+            }
+        }
+
+        return null;
+    }
+
+    void addIngredient(Ingredient ingredient) {
+        this.ingredients.add(ingredient);
+        Macros macros = this.macros.copy();
+        ingredient.addTo(macros, 1);
+        this.macros = macros;
+    }
+
+    void removeIngredient(Ingredient ingredient) {
+        //This will never return false the way it is currently used, but may if this method is used a different way later.
+        if (this.ingredients.remove(ingredient)) {
+            Macros macros = this.macros.copy();
+            ingredient.addTo(macros, -1);
+            this.macros = macros;
+        }
+
+    }
+
+    //The ingredient is swapped for one with the new weight, so the list never shows it missing
+    void updateIngredient(Ingredient ingredient, double weight) {
+        int index = this.ingredients.indexOf(ingredient);
+        //This will never be -1 the way it is currently used, but may if this method is used a different way later.
+        if (index >= 0) {
+            Ingredient updated = new Ingredient(ingredient.getStore(), ingredient.getFoodId(), weight);
+            this.ingredients.set(index, updated);
+
+            //This will make sure that the macros stay up to date
+            Macros macros = this.macros.copy();
+            ingredient.addTo(macros, -1);
+            updated.addTo(macros, 1);
+            this.macros = macros;
+        }
+
+    }
+
+    double getTotalCalories() { return macros.get(Macros.CALORIES); }
+
+    public void setTotalCalories(double totalCalories) {
+        Macros macros = this.macros.copy();
+        macros.set(Macros.CALORIES, totalCalories);
+        this.macros = macros;
+    }
+
+    Macros getMacros() {
+        return macros;
+    }
+
+    //Called when one of the foods it uses has changed
+    void recalculateTotal() {
+        Macros macros = new Macros();
+        for (Ingredient ingredient : ingredients) {
+            ingredient.addTo(macros, 1);
+        }
+        this.macros = macros;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        appendTo(s);
+        return s.toString();
+    }
+
+    //Writes the same text as toString() into a builder the caller can reuse
+    void appendTo(StringBuilder s) {
+        Macros macros = this.macros;
+        s.append(name).append(":\t");
+        for (Ingredient ingredient : ingredients) {
+            s.append(ingredient.getFoodName()).append(" ").append(ingredient.getWeight()).append("g, ");
+        }
+        s.setLength(s.length() - 2);
+        s.append(" | ").append(macros.get(Macros.CALORIES)).append(" calories, ").append(macros);
+    }
+
+    @Override
+    public int compareTo(MenuItem menuItem) {
+        return this.name.compareToIgnoreCase(menuItem.name);
+    }
+}
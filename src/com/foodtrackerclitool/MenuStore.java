@@ -0,0 +1,139 @@
+package com.foodtrackerclitool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Every saved menu item by name, in name order, and by id.
+ * Ids work like food ids: handed out in order and saved with the menu items, meals refer to their menu items by id
+ * on disk. A menu item saved in place of one with the same name takes over its id, so meals saved with the old one
+ * still find it. That includes a deleted one: a deleted menu item is still found by id and saved as a deleted row,
+ * so the meals that hold it can be read back.
+ * Any number of threads can read at once without a lock, changes are made by one thread at a time.
+ * */
+final class MenuStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ConcurrentSkipListMap<String, MenuItem> byName = new ConcurrentSkipListMap<>();
+    private volatile AtomicReferenceArray<MenuItem> byId = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private final TreeMap<String, MenuItem> deleted = new TreeMap<>();
+    private int nextId;
+
+    //Returns null when there is no menu item with this name
+    MenuItem get(String name) {
+        return byName.get(name);
+    }
+
+    //Returns null for ids never handed out, a deleted menu item is returned for meals that still hold it
+    MenuItem get(int id) {
+        AtomicReferenceArray<MenuItem> items = byId;
+        return id < 0 || id >= items.length() ? null : items.get(id);
+    }
+
+    //Adds the menu item under a new id, or under the id of the one with the same name it replaces, deleted or not
+    //Only a replaced menu item that was not deleted is returned
+    synchronized MenuItem put(MenuItem item) {
+        MenuItem replaced = byName.get(item.getName());
+        MenuItem revived = replaced == null ? deleted.remove(item.getName()) : null;
+        int id = replaced != null ? replaced.getId() : revived != null ? revived.getId() : nextId++;
+
+        item.setId(id);
+        Slots(id + 1).set(id, item);
+        byName.put(item.getName(), item);
+        return replaced;
+    }
+
+    //Adds a menu item read from a file under the id it was saved with, a deleted one when live is false
+    //False when the id or the name is already used, the caller checks the id is one the file could have handed out
+    synchronized boolean load(int id, MenuItem item, boolean live) {
+        String name = item.getName();
+        if (id < 0 || get(id) != null || byName.containsKey(name) || deleted.containsKey(name)) return false;
+
+        item.setId(id);
+        Slots(id + 1).set(id, item);
+        if (live) {
+            byName.put(name, item);
+        } else {
+            deleted.put(name, item);
+        }
+        nextId = Math.max(nextId, id + 1);
+        return true;
+    }
+
+    //The menu item keeps its id, see the top of the file
+    synchronized MenuItem remove(String name) {
+        MenuItem removed = byName.remove(name);
+        if (removed != null) deleted.put(name, removed);
+        return removed;
+    }
+
+    //Deleted menu items in name order
+    synchronized List<MenuItem> deleted() {
+        return new ArrayList<>(deleted.values());
+    }
+
+    //New menu items get ids from here on, so ids of menu items deleted before the data was saved are not reused
+    synchronized void reserveIds(int nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    //Every id handed out so far is below this, including ids of deleted menu items
+    synchronized int idCount() {
+        return nextId;
+    }
+
+    int size() {
+        return byName.size();
+    }
+
+    boolean isEmpty() {
+        return byName.isEmpty();
+    }
+
+    //Live views in name order
+    Collection<MenuItem> values() {
+        return byName.values();
+    }
+
+    NavigableSet<String> names() {
+        return byName.keySet();
+    }
+
+    //Up to count menu items in name order after the name, from the first one when the name is null
+    List<MenuItem> after(String name, int count) {
+        return Take(name == null ? byName.values() : byName.tailMap(name, false).values(), count);
+    }
+
+    //Up to count menu items in name order before the name
+    List<MenuItem> before(String name, int count) {
+        List<MenuItem> items = Take(byName.headMap(name, false).descendingMap().values(), count);
+        Collections.reverse(items);
+        return items;
+    }
+
+    private static List<MenuItem> Take(Collection<MenuItem> items, int count) {
+        List<MenuItem> taken = new ArrayList<>(Math.min(count, 64));
+        for (MenuItem item : items) {
+            if (taken.size() == count) break;
+            taken.add(item);
+        }
+        return taken;
+    }
+
+    //Grows the id array so it holds at least this many ids, readers keep using the old array until it is swapped in
+    private AtomicReferenceArray<MenuItem> Slots(int size) {
+        AtomicReferenceArray<MenuItem> items = byId;
+        if (size <= items.length()) return items;
+
+        AtomicReferenceArray<MenuItem> larger = new AtomicReferenceArray<>(Math.max(size, items.length() * 2));
+        for (int i = 0; i < items.length(); i++) larger.set(i, items.get(i));
+        byId = larger;
+        return larger;
+    }
+}
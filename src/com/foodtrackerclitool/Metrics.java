@@ -0,0 +1,268 @@
+package com.foodtrackerclitool;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+ * Counters, gauges and latency timers for a running food tracker, shown by the stats command and published as
+ * the JMX MBean com.foodtrackerclitool:type=Metrics for jconsole or any other JMX client.
+ *
+ * Recording never takes a lock: counters are LongAdders and a timer adds one to a bucket of an AtomicLongArray.
+ * Timer buckets work like an HDR histogram, every power of two of nanoseconds is split into SUB_BUCKETS equal
+ * buckets, so any percentile is within about 3% of the true time whether it is 200 ns or 20 s.
+ * */
+final class Metrics {
+    static final String OBJECT_NAME = "com.foodtrackerclitool:type=Metrics";
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    static Timer Timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    static LongAdder Counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    //Read each time it is shown, so it should be cheap and safe to call from any thread
+    static void Gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    //Registering twice, or on a JVM without a platform MBean server, leaves the metrics console only
+    static void Register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MBean(), name);
+            }
+        } catch (JMException | RuntimeException e) {
+            System.out.println("Could Not Publish Metrics Over JMX: " + e.getMessage());
+        }
+    }
+
+    //Every metric by name, timers with their count, mean, percentiles and max
+    static String Report() {
+        StringBuilder out = new StringBuilder();
+
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        if (!values.isEmpty()) {
+            out.append(String.format("%-28s%14s%n", "Metric", "Value"));
+            values.forEach((name, value) -> out.append(String.format("%-28s%14d%n", name, value)));
+            out.append(System.lineSeparator());
+        }
+
+        out.append(String.format("%-28s%10s%10s%10s%10s%10s%10s%10s%n",
+                "Timer", "Count", "Mean", "p50", "p90", "p99", "p99.9", "Max"));
+        for (Timer timer : new TreeMap<>(timers).values()) {
+            Timer.Summary summary = timer.summary();
+            out.append(String.format("%-28s%10d%10s", timer.name, summary.count, Duration(summary.mean)));
+            for (long percentile : summary.percentiles) {
+                out.append(String.format("%10s", Duration(percentile)));
+            }
+            out.append(String.format("%10s%n", Duration(summary.max)));
+        }
+        return out.toString();
+    }
+
+    private static String Duration(double nanos) {
+        if (nanos < 1e3) return String.format("%.0fns", nanos);
+        if (nanos < 1e6) return String.format("%.1fus", nanos / 1e3);
+        if (nanos < 1e9) return String.format("%.1fms", nanos / 1e6);
+        return String.format("%.2fs", nanos / 1e9);
+    }
+
+    static final class Timer {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        //Values below 2 * SUB_BUCKETS have a bucket each, every power of two above that has SUB_BUCKETS
+        static final int BUCKETS = 2 * SUB_BUCKETS + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+        private final String name;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        //Pass in System.nanoTime() from when the timed work started
+        void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            buckets.incrementAndGet(Bucket(nanos));
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        //Counts are copied one bucket at a time, a time recorded while this runs may or may not be included
+        Summary summary() {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+
+            long[] percentiles = new long[PERCENTILES.length];
+            for (int p = 0; p < PERCENTILES.length && count > 0; p++) {
+                long rank = Math.max(1, (long) Math.ceil(PERCENTILES[p] * count));
+                long seen = 0;
+                for (int i = 0; i < BUCKETS; i++) {
+                    seen += counts[i];
+                    if (seen >= rank) {
+                        percentiles[p] = Math.min(HighestValue(i), max.get());
+                        break;
+                    }
+                }
+            }
+
+            double mean = count == 0 ? 0 : (double) total.sum() / count;
+            return new Summary(count, mean, percentiles, max.get());
+        }
+
+        static int Bucket(long nanos) {
+            if (nanos < 2 * SUB_BUCKETS) return (int) nanos;
+            int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+            return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+        }
+
+        //The largest time that falls in a bucket, percentiles are reported as this like HdrHistogram does
+        static long HighestValue(int bucket) {
+            if (bucket < 2 * SUB_BUCKETS) return bucket;
+            int shift = (bucket - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+            long mantissa = SUB_BUCKETS + (bucket - 2 * SUB_BUCKETS) % SUB_BUCKETS;
+            return ((mantissa + 1) << shift) - 1;
+        }
+
+        static final class Summary {
+            final long count;
+            final double mean;
+            final long[] percentiles;
+            final long max;
+
+            private Summary(long count, double mean, long[] percentiles, long max) {
+                this.count = count;
+                this.mean = mean;
+                this.percentiles = percentiles;
+                this.max = max;
+            }
+        }
+    }
+
+    /*
+     * Every counter and gauge is a Long attribute under its own name, every timer has <name>.count and
+     * <name>.mean, .p50, .p90, .p99, .p999 and .max in microseconds as Double attributes.
+     * The attribute list is built when asked for, so metrics added later show up once a JMX client refreshes.
+     * */
+    private static final class MBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            LongAdder counter = counters.get(attribute);
+            if (counter != null) return counter.sum();
+            LongSupplier gauge = gauges.get(attribute);
+            if (gauge != null) return gauge.getAsLong();
+
+            int dot = attribute.lastIndexOf('.');
+            Timer timer = dot < 0 ? null : timers.get(attribute.substring(0, dot));
+            if (timer == null) throw new AttributeNotFoundException(attribute);
+
+            Timer.Summary summary = timer.summary();
+            String statistic = attribute.substring(dot + 1);
+            switch (statistic) {
+                case "count":
+                    return summary.count;
+                case "mean":
+                    return summary.mean / 1e3;
+                case "max":
+                    return summary.max / 1e3;
+                default:
+                    for (int p = 0; p < PERCENTILE_NAMES.length; p++) {
+                        if (PERCENTILE_NAMES[p].equals(statistic)) return summary.percentiles[p] / 1e3;
+                    }
+                    throw new AttributeNotFoundException(attribute);
+            }
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    //Left out, as the DynamicMBean contract asks
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics Are Read Only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException("Metrics Have No Operations");
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String name : new TreeMap<>(gauges).keySet()) {
+                attributes.add(new MBeanAttributeInfo(name, "java.lang.Long", "Gauge", true, false, false));
+            }
+            for (String name : new TreeMap<>(counters).keySet()) {
+                attributes.add(new MBeanAttributeInfo(name, "java.lang.Long", "Counter", true, false, false));
+            }
+            for (String name : new TreeMap<>(timers).keySet()) {
+                attributes.add(new MBeanAttributeInfo(name + ".count", "java.lang.Long", "Times Recorded", true, false, false));
+                attributes.add(new MBeanAttributeInfo(name + ".mean", "java.lang.Double", "Mean Microseconds", true, false, false));
+                for (String percentile : PERCENTILE_NAMES) {
+                    attributes.add(new MBeanAttributeInfo(name + "." + percentile, "java.lang.Double",
+                            percentile + " Microseconds", true, false, false));
+                }
+                attributes.add(new MBeanAttributeInfo(name + ".max", "java.lang.Double", "Max Microseconds", true, false, false));
+            }
+
+            return new MBeanInfo(Metrics.class.getName(), "Food Tracker Metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.foodtrackerclitool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/*
+ * Finds food or menu item names without the exact spelling.
+ *   Case-insensitive: names are compared after lowercasing and collapsing spaces
+ *   Prefix: a sorted map of those normalized names
+ *   Typos: every name is split into the 3 letter pieces it contains, a name within 2 edits of the query has to
+ *       share most of its pieces, so only names found through the rarest pieces are checked letter by letter
+ *
+ * Pieces are hashed together with the name's length into a fixed number of posting lists of name ids. Ids are
+ * handed out in order, so every list is sorted and can be binary searched. Two pieces landing in the same list
+ * only means a few more names get checked.
+ * The index is built from the names it is given the first time it is searched, before that adds and removes are
+ * ignored because the source already holds them.
+ *
+ * Any number of searches can run at once under the read lock, adds and removes take the write lock. Each thread
+ * counts shared pieces in arrays of its own, so searches never wait for each other.
+ * */
+final class NameIndex {
+    static final int MAX_EDITS = 2;
+    private static final int GRAM = 3;
+    private static final int BUCKETS = 1 << 18;
+    private static final char PAD = '\u0001';
+    private static final char SEPARATOR = '\u0000';
+
+    private final Supplier<Iterable<String>> source;
+    private volatile boolean built;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //Normalized name + SEPARATOR + name, so names that only differ in case are kept apart
+    private final TreeMap<String, String> sorted = new TreeMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[1024];
+    private String[] keys = new String[1024];
+    private int[] lengths = new int[1024];
+    private int count;
+
+    private final int[][] postings = new int[BUCKETS][];
+    private final int[] postingSizes = new int[BUCKETS];
+
+    //Reused by every search on one thread, counts stay zero between searches
+    private static final class Scratch {
+        int[] counts = new int[1024];
+        int[] touched = new int[1024];
+    }
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    NameIndex(Supplier<Iterable<String>> source) {
+        this.source = source;
+    }
+
+    //Checked under the lock, a name added while the index is being built is either in the source or added after
+    void add(String name) {
+        lock.writeLock().lock();
+        try {
+            if (built) Add(name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void Add(String name) {
+        if (ids.containsKey(name)) return;
+
+        if (count == names.length) {
+            names = Arrays.copyOf(names, count * 2);
+            keys = Arrays.copyOf(keys, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+
+        int id = count++;
+        String key = Normalize(name);
+        names[id] = name;
+        keys[id] = key;
+        lengths[id] = key.length();
+        ids.put(name, id);
+        sorted.put(key + SEPARATOR + name, name);
+
+        for (long gram : Grams(key)) {
+            int bucket = Bucket(gram, key.length());
+            int[] list = postings[bucket];
+            if (list == null) {
+                list = postings[bucket] = new int[4];
+            } else if (postingSizes[bucket] == list.length) {
+                list = postings[bucket] = Arrays.copyOf(list, list.length * 2);
+            }
+            list[postingSizes[bucket]++] = id;
+        }
+    }
+
+    //Postings of a removed name are skipped when searching rather than taken out
+    void remove(String name) {
+        lock.writeLock().lock();
+        try {
+            if (!built) return;
+
+            Integer id = ids.remove(name);
+            if (id == null) return;
+
+            sorted.remove(keys[id] + SEPARATOR + name);
+            names[id] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //The stored name that matches ignoring case and extra spaces, or null
+    String find(String name) {
+        ReadLock();
+        try {
+            String key = Normalize(name) + SEPARATOR;
+            String match = sorted.ceilingKey(key);
+            return match != null && match.startsWith(key) ? sorted.get(match) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<String> startingWith(String prefix, int limit) {
+        ReadLock();
+        try {
+            return StartingWith(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> StartingWith(String prefix, int limit) {
+        List<String> found = new ArrayList<>();
+        String key = Normalize(prefix);
+
+        for (Map.Entry<String, String> entry : sorted.tailMap(key).entrySet()) {
+            if (found.size() == limit || !entry.getKey().startsWith(key)) break;
+            found.add(entry.getValue());
+        }
+        return found;
+    }
+
+    //Closest names first: same name in another case, then names starting with the query, then by number of edits
+    List<String> suggest(String query, int limit) {
+        String key = Normalize(query);
+        Map<String, Integer> ranks = new HashMap<>();
+
+        ReadLock();
+        try {
+            for (String name : StartingWith(key, limit)) {
+                ranks.put(name, Normalize(name).equals(key) ? 0 : 1);
+            }
+
+            for (int id : Similar(key)) {
+                int edits = EditDistance(key, keys[id], MAX_EDITS);
+                if (edits <= MAX_EDITS) ranks.putIfAbsent(names[id], 1 + edits);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<String> found = new ArrayList<>(ranks.keySet());
+        found.sort(Comparator.<String>comparingInt(ranks::get)
+                .thenComparingInt(name -> Math.abs(name.length() - key.length()))
+                .thenComparing(Comparator.naturalOrder()));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    /*
+     * Each edit changes at most 3 pieces, so a name within MAX_EDITS shares all but 3 * MAX_EDITS of the query's
+     * pieces and has to show up in at least one of the rarest (pieces - shared + 1) lists. Those lists are counted
+     * in full, the rest are only binary searched for names that could still reach the shared count.
+     * Queries too short to share any piece are matched on a single piece, which misses a few very short typos.
+     * */
+    private List<Integer> Similar(String key) {
+        long[] grams = Grams(key);
+        int minLength = Math.max(0, key.length() - MAX_EDITS);
+        int maxLength = key.length() + MAX_EDITS;
+        int shared = Math.max(1, grams.length - GRAM * MAX_EDITS);
+        int scanned = grams.length - shared + 1;
+
+        //Rarest pieces first, a piece's size is its lists over every length a match can have
+        Integer[] order = new Integer[grams.length];
+        long[] sizes = new long[grams.length];
+        for (int g = 0; g < grams.length; g++) {
+            order[g] = g;
+            for (int length = minLength; length <= maxLength; length++) {
+                sizes[g] += postingSizes[Bucket(grams[g], length)];
+            }
+        }
+        Arrays.sort(order, Comparator.comparingLong(g -> sizes[g]));
+
+        Scratch scratch = this.scratch.get();
+        if (scratch.counts.length < count) scratch.counts = new int[names.length];
+        int[] counts = scratch.counts;
+        int[] touched = scratch.touched;
+        int touchedCount = 0;
+
+        for (int g = 0; g < Math.min(scanned, grams.length); g++) {
+            long gram = grams[order[g]];
+            for (int length = minLength; length <= maxLength; length++) {
+                int bucket = Bucket(gram, length);
+                int[] list = postings[bucket];
+
+                for (int i = 0; i < postingSizes[bucket]; i++) {
+                    int id = list[i];
+                    if (lengths[id] != length || names[id] == null) continue;
+
+                    if (counts[id]++ == 0) {
+                        if (touchedCount == touched.length) touched = scratch.touched = Arrays.copyOf(touched, touchedCount * 2);
+                        touched[touchedCount++] = id;
+                    }
+                }
+            }
+        }
+
+        List<Integer> similar = new ArrayList<>();
+        for (int t = 0; t < touchedCount; t++) {
+            int id = touched[t];
+            int found = counts[id];
+            counts[id] = 0;
+
+            for (int g = scanned; g < grams.length && found < shared && found + grams.length - g >= shared; g++) {
+                int bucket = Bucket(grams[order[g]], lengths[id]);
+                if (postings[bucket] != null && Arrays.binarySearch(postings[bucket], 0, postingSizes[bucket], id) >= 0) {
+                    found++;
+                }
+            }
+
+            if (found >= shared) similar.add(id);
+        }
+        return similar;
+    }
+
+    //Returns holding the read lock, once the index has been built
+    private void ReadLock() {
+        if (!built) {
+            lock.writeLock().lock();
+            try {
+                if (!built) {
+                    for (String name : source.get()) {
+                        Add(name);
+                    }
+                    built = true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+    }
+
+    static String Normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        boolean space = false;
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = key.length() > 0;
+            } else {
+                if (space) key.append(' ');
+                key.append(Character.toLowerCase(c));
+                space = false;
+            }
+        }
+        return key.toString();
+    }
+
+    //Distinct 3 letter pieces of the name padded on both sides, each packed into a long
+    private static long[] Grams(String key) {
+        String padded = "" + PAD + PAD + key + PAD + PAD;
+        long[] grams = new long[padded.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) grams[distinct++] = grams[i];
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static int Bucket(long gram, int length) {
+        long hash = (gram * 31 + length) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 46) & (BUCKETS - 1);
+    }
+
+    //Levenshtein distance, stops early and returns limit + 1 once every path is over the limit
+    static int EditDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) return limit + 1;
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int best = current[0];
+
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                best = Math.min(best, current[j]);
+            }
+
+            if (best > limit) return limit + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
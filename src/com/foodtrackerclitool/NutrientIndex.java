@@ -0,0 +1,148 @@
+package com.foodtrackerclitool;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Running totals of every macro (calories, fat, carbs, protein and grams) for every day that has a meal.
+ * Each macro is kept in a Fenwick tree over months (see Days.MonthOf), and each month that has meals keeps the
+ * totals of its own days. Summing a range of days adds up at most a month of days at each end and asks the trees
+ * for the whole months between, so adding a meal and summing any range both take log(months) steps instead of
+ * walking every meal in the range.
+ *   Slot 0 is firstMonth, the covered span grows (and the trees are rebuilt) when a meal falls outside it.
+ * Counting in months keeps the trees small: a meal dated centuries away from the others costs one slot per month
+ * between them, not one per day.
+ * */
+final class NutrientIndex {
+    private static final int NUTRIENTS = Macros.COUNT;
+    private static final int INITIAL_MONTHS = 64;
+    private static final int MONTH_DAYS = 31;
+
+    private long firstMonth;
+    private double[][] monthly = new double[NUTRIENTS][0];
+    private double[][] tree = new double[NUTRIENTS][1];
+    //Totals of each day of a month, by nutrient and then day of the month counting from 0
+    private final Map<Integer, double[][]> days = new HashMap<>();
+
+    //Adds a meal's macros to its day, a sign of -1 takes a replaced meal back out
+    void add(Meal meal, int sign) {
+        Macros macros = meal.getMacros();
+        LocalDate date = LocalDate.ofEpochDay(meal.getMealDay());
+        int month = Month(date);
+        int slot = Slot(month);
+        double[][] monthDays = days.computeIfAbsent(month, m -> new double[NUTRIENTS][MONTH_DAYS]);
+        int dayOfMonth = date.getDayOfMonth() - 1;
+
+        for (int n = 0; n < NUTRIENTS; n++) {
+            double change = sign * macros.get(n);
+            monthDays[n][dayOfMonth] += change;
+            monthly[n][slot] += change;
+            for (int i = slot + 1; i < tree[n].length; i += i & -i) {
+                tree[n][i] += change;
+            }
+        }
+    }
+
+    //Totals for every day between from and to, both included, indexed by the Macros constants
+    double[] sum(int from, int to) {
+        double[] totals = new double[NUTRIENTS];
+        if (from > to) return totals;
+
+        LocalDate first = LocalDate.ofEpochDay(from);
+        LocalDate last = LocalDate.ofEpochDay(to);
+        int fromMonth = Month(first);
+        int toMonth = Month(last);
+
+        if (fromMonth == toMonth) {
+            AddDays(totals, fromMonth, first.getDayOfMonth() - 1, last.getDayOfMonth() - 1);
+            return totals;
+        }
+
+        AddDays(totals, fromMonth, first.getDayOfMonth() - 1, MONTH_DAYS - 1);
+        AddDays(totals, toMonth, 0, last.getDayOfMonth() - 1);
+        for (int n = 0; n < NUTRIENTS; n++) {
+            totals[n] += Prefix(n, toMonth - 1L) - Prefix(n, fromMonth);
+        }
+        return totals;
+    }
+
+    //Totals divided by the number of days in the range, including days without any meals
+    double[] dailyAverage(int from, int to) {
+        double[] totals = sum(from, to);
+        long days = (long) to - from + 1;
+        if (days <= 0) return totals;
+
+        for (int n = 0; n < NUTRIENTS; n++) {
+            totals[n] /= days;
+        }
+        return totals;
+    }
+
+    private static int Month(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    //Adds the days of one month between two days of the month, both included
+    private void AddDays(double[] totals, int month, int firstDay, int lastDay) {
+        double[][] monthDays = days.get(month);
+        if (monthDays == null) return;
+
+        for (int n = 0; n < NUTRIENTS; n++) {
+            for (int day = firstDay; day <= lastDay; day++) {
+                totals[n] += monthDays[n][day];
+            }
+        }
+    }
+
+    //Sum of every month up to and including this one
+    private double Prefix(int nutrient, long month) {
+        if (month < firstMonth || monthly[nutrient].length == 0) return 0;
+
+        long end = Math.min(month - firstMonth + 1, monthly[nutrient].length);
+        double total = 0;
+        for (int i = (int) end; i > 0; i -= i & -i) {
+            total += tree[nutrient][i];
+        }
+        return total;
+    }
+
+    private int Slot(long month) {
+        int capacity = monthly[0].length;
+
+        if (capacity == 0) {
+            firstMonth = month - INITIAL_MONTHS / 2;
+            Resize(firstMonth, INITIAL_MONTHS);
+        } else if (month < firstMonth || month >= firstMonth + capacity) {
+            //Grow by at least double so a run of meals outside the span only rebuilds the trees a few times
+            long first = Math.min(firstMonth, month);
+            long end = Math.max(firstMonth + capacity, month + 1);
+            long size = Math.max(end - first, (long) capacity * 2);
+            if (month < firstMonth) first = end - size;
+            Resize(first, (int) size);
+        }
+
+        return (int) (month - firstMonth);
+    }
+
+    private void Resize(long first, int capacity) {
+        int shift = (int) (firstMonth - first);
+
+        for (int n = 0; n < NUTRIENTS; n++) {
+            double[] months = new double[capacity];
+            System.arraycopy(monthly[n], 0, months, shift, monthly[n].length);
+            monthly[n] = months;
+
+            //Linear time build: each slot passes its total on to its parent
+            double[] built = new double[capacity + 1];
+            for (int i = 1; i <= capacity; i++) {
+                built[i] += months[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= capacity) built[parent] += built[i];
+            }
+            tree[n] = built;
+        }
+
+        firstMonth = first;
+    }
+}
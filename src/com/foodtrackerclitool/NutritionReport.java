@@ -0,0 +1,239 @@
+package com.foodtrackerclitool;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Daily, weekly or monthly nutrition over a range of days: calories, fat, carbs, protein and grams for each
+ * period, the share of the calories that came from each macro, and the same totals for each meal type.
+ *
+ * The days are added up by a fork-join task that splits the range of days in half until each part is small, so a
+ * report over years of meals keeps every thread of the common pool busy. Each part returns its periods in date
+ * order, joining two parts only merges the one period where they meet.
+ * */
+final class NutritionReport {
+    //Days added up by one task without splitting further
+    private static final int SPLIT_DAYS = 64;
+
+    //Calories in a gram of each macro, used for the share of calories
+    private static final double FAT_CALORIES = 9;
+    private static final double CARB_CALORIES = 4;
+    private static final double PROTEIN_CALORIES = 4;
+
+    enum Period {
+        DAILY("Day"),
+        WEEKLY("Week Of"),
+        MONTHLY("Month Of");
+
+        private final String heading;
+
+        Period(String heading) {
+            this.heading = heading;
+        }
+
+        //Returns null when the name is not a period
+        static Period Find(String name) {
+            for (Period period : values()) {
+                if (period.name().equalsIgnoreCase(name.trim())) return period;
+            }
+            return null;
+        }
+
+        //First day of the period the day falls in, weeks start on Monday
+        int start(int day) {
+            switch (this) {
+                case WEEKLY:
+                    //Epoch day 0 was a Thursday
+                    return day - Math.floorMod(day + 3, 7);
+                case MONTHLY:
+                    return (int) LocalDate.ofEpochDay(day).withDayOfMonth(1).toEpochDay();
+                default:
+                    return day;
+            }
+        }
+    }
+
+    //Totals of one period, kept per meal type and indexed by the Macros constants
+    static final class Row {
+        final int start;
+        private final double[][] byType = new double[MealType.COUNT][Macros.COUNT];
+        private final int[] meals = new int[MealType.COUNT];
+        private int days;
+
+        Row(int start) {
+            this.start = start;
+        }
+
+        private void add(DayMeals dayMeals) {
+            days++;
+            for (Meal meal : dayMeals) {
+                int type = meal.getMealType().ordinal();
+                Macros macros = meal.getMacros();
+                for (int macro = 0; macro < Macros.COUNT; macro++) {
+                    byType[type][macro] += macros.get(macro);
+                }
+                meals[type]++;
+            }
+        }
+
+        private void add(Row other) {
+            days += other.days;
+            for (int type = 0; type < MealType.COUNT; type++) {
+                for (int macro = 0; macro < Macros.COUNT; macro++) {
+                    byType[type][macro] += other.byType[type][macro];
+                }
+                meals[type] += other.meals[type];
+            }
+        }
+
+        double get(int macro) {
+            double total = 0;
+            for (double[] type : byType) total += type[macro];
+            return total;
+        }
+
+        double get(MealType type, int macro) {
+            return byType[type.ordinal()][macro];
+        }
+
+        int mealCount(MealType type) {
+            return meals[type.ordinal()];
+        }
+
+        //Days in the period that have any meals
+        int days() {
+            return days;
+        }
+
+        //Percent of the calories that came from fat, carbs or protein, 0 when nothing was eaten
+        double percentOfCalories(int macro) {
+            double calories = get(Macros.CALORIES);
+            if (calories <= 0) return 0;
+
+            double perGram = macro == Macros.FAT ? FAT_CALORIES : macro == Macros.CARBS ? CARB_CALORIES : PROTEIN_CALORIES;
+            return get(macro) * perGram * 100 / calories;
+        }
+    }
+
+    private final Period period;
+    private final List<Row> rows;
+    private final Row total;
+
+    private NutritionReport(Period period, List<Row> rows) {
+        this.period = period;
+        this.rows = rows;
+        this.total = new Row(rows.isEmpty() ? 0 : rows.get(0).start);
+        for (Row row : rows) total.add(row);
+    }
+
+    //The meals between from and to (both included), added up on the common fork-join pool
+    static NutritionReport Build(MealHistory history, Period period, int from, int to) {
+        MealDays days = history.range(from, to);
+
+        JfrEvents.Query event = new JfrEvents.Query();
+        event.begin();
+        List<Row> rows = ForkJoinPool.commonPool().invoke(new Part(days, period, 0, days.size()));
+        JfrEvents.Commit(event, "Report", from, to);
+        return new NutritionReport(period, rows);
+    }
+
+    //Periods with no meals are left out
+    List<Row> rows() {
+        return rows;
+    }
+
+    Row total() {
+        return total;
+    }
+
+    //One line per period followed by a line for each meal type eaten in it, then the total of the whole range
+    String format() {
+        StringBuilder s = new StringBuilder(256 + rows.size() * 256);
+        s.append(period.heading).append("\tCalories\tFat\tCarbs\tProtein\tGrams\tFat %\tCarbs %\tProtein %\n");
+
+        for (Row row : rows) {
+            s.append(Days.Format(row.start));
+            Append(s, row);
+        }
+        s.append("Total (").append(total.days()).append(total.days() == 1 ? " Day)" : " Days)");
+        Append(s, total);
+        return s.toString();
+    }
+
+    private static void Append(StringBuilder s, Row row) {
+        for (int macro = 0; macro < Macros.COUNT; macro++) {
+            s.append('\t').append(Round(row.get(macro)));
+        }
+        s.append('\t').append(Round(row.percentOfCalories(Macros.FAT)))
+                .append('\t').append(Round(row.percentOfCalories(Macros.CARBS)))
+                .append('\t').append(Round(row.percentOfCalories(Macros.PROTEIN))).append('\n');
+
+        for (MealType type : MealType.values()) {
+            int meals = row.mealCount(type);
+            if (meals == 0) continue;
+
+            s.append("  ").append(type).append(" (").append(meals).append(meals == 1 ? " Meal)" : " Meals)");
+            for (int macro = 0; macro < Macros.COUNT; macro++) {
+                s.append('\t').append(Round(row.get(type, macro)));
+            }
+            s.append('\n');
+        }
+    }
+
+    private static String Round(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    //Adds up the days between two positions of the range, splitting it while it is larger than SPLIT_DAYS
+    private static final class Part extends RecursiveTask<List<Row>> {
+        private static final long serialVersionUID = 1L;
+
+        private final MealDays days;
+        private final Period period;
+        private final int start;
+        private final int end;
+
+        Part(MealDays days, Period period, int start, int end) {
+            this.days = days;
+            this.period = period;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<Row> compute() {
+            if (end - start <= SPLIT_DAYS) {
+                List<Row> rows = new ArrayList<>();
+                Row row = null;
+                for (int i = start; i < end; i++) {
+                    int periodStart = period.start(days.day(i));
+                    if (row == null || row.start != periodStart) {
+                        row = new Row(periodStart);
+                        rows.add(row);
+                    }
+                    row.add(days.meals(i));
+                }
+                return rows;
+            }
+
+            int middle = (start + end) >>> 1;
+            Part left = new Part(days, period, start, middle);
+            left.fork();
+            List<Row> right = new Part(days, period, middle, end).compute();
+            List<Row> rows = left.join();
+
+            //Only the last period of the left half and the first of the right half can be the same period
+            int first = 0;
+            if (!rows.isEmpty() && !right.isEmpty() && rows.get(rows.size() - 1).start == right.get(0).start) {
+                rows.get(rows.size() - 1).add(right.get(0));
+                first = 1;
+            }
+            rows.addAll(right.subList(first, right.size()));
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.foodtrackerclitool;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Splits a CSV file into chunks that each start on a new record and parses the chunks in parallel.
+ * A record starts on any line that does not begin with a delimiter, so a chunk never begins in the middle of
+ * a menu item's ingredients or a day's meals. Results are returned in file order.
+ * */
+final class ParallelCsvReader {
+    private static final long MIN_CHUNK_SIZE = 4L << 20;
+
+    interface ChunkParser<T> {
+        T parse(CsvTokenizer csvReader) throws IOException, CorruptedFileException;
+    }
+
+    //Starts reading the file in the background, a missing file gives no chunks
+    static <T> Future<List<T>> Submit(File file, ChunkParser<T> parser) {
+        if (!file.isFile()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        return ForkJoinPool.commonPool().submit(() -> Read(file, parser));
+    }
+
+    //Waits for a submitted file and rethrows whatever stopped it from being read
+    static <T> List<T> Join(Future<List<T>> chunks) throws IOException, CorruptedFileException {
+        try {
+            return chunks.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted While Reading File");
+        } catch (ExecutionException e) {
+            //The pool wraps checked exceptions in RuntimeExceptions, the one the parser threw is further down
+            for (Throwable wrapped = e.getCause(); wrapped != null; wrapped = wrapped.getCause()) {
+                if (wrapped instanceof IOException) throw (IOException) wrapped;
+                if (wrapped instanceof CorruptedFileException) throw (CorruptedFileException) wrapped;
+            }
+
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    private static <T> List<T> Read(File file, ChunkParser<T> parser) throws IOException, CorruptedFileException {
+        long[] bounds = SplitRecords(file);
+        List<ChunkTask<T>> tasks = new ArrayList<>();
+
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            tasks.add(new ChunkTask<>(file, bounds[i], bounds[i + 1], parser));
+        }
+
+        ForkJoinTask.invokeAll(tasks);
+
+        List<T> results = new ArrayList<>(tasks.size());
+        for (ChunkTask<T> task : tasks) {
+            if (task.failure instanceof IOException) throw (IOException) task.failure;
+            if (task.failure instanceof CorruptedFileException) throw (CorruptedFileException) task.failure;
+            if (task.failure instanceof RuntimeException) throw (RuntimeException) task.failure;
+
+            results.add(task.getRawResult());
+
+            //An empty line ends the file, anything after it is ignored the same as a sequential read
+            if (!task.complete) break;
+        }
+
+        return results;
+    }
+
+    private static long[] SplitRecords(File file) throws IOException {
+        long size = file.length();
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int parts = (int) Math.max(1, Math.min(size / MIN_CHUNK_SIZE, parallelism * 4L));
+        long[] bounds = new long[parts + 1];
+        bounds[parts] = size;
+
+        for (int i = 1; i < parts; i++) {
+            long start = Math.max(bounds[i - 1], FindRecordStart(file, size * i / parts, size));
+            bounds[i] = start;
+        }
+
+        return bounds;
+    }
+
+    private static long FindRecordStart(File file, long offset, long size) throws IOException {
+        //Starting one byte early means a line that begins exactly at the offset is not skipped
+        try (CsvTokenizer csvReader = CsvTokenizer.Open(file, offset - 1, size)) {
+            csvReader.nextRecord();
+            long start = csvReader.position();
+
+            while (csvReader.nextRecord()) {
+                if (!csvReader.startsWithDelimiter()) {
+                    return start;
+                }
+                start = csvReader.position();
+            }
+        }
+
+        return size;
+    }
+
+    private static final class ChunkTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final File file;
+        private final long start;
+        private final long end;
+        private final ChunkParser<T> parser;
+        private Exception failure;
+        private boolean complete;
+
+        ChunkTask(File file, long start, long end, ChunkParser<T> parser) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.parser = parser;
+        }
+
+        @Override
+        protected T compute() {
+            JfrEvents.ParseChunk event = new JfrEvents.ParseChunk();
+            event.begin();
+
+            try (CsvTokenizer csvReader = CsvTokenizer.Open(file, start, end)) {
+                if (start == 0) {
+                    //Skip the header
+                    csvReader.nextRecord();
+                }
+
+                T result = parser.parse(csvReader);
+                complete = csvReader.isExhausted();
+
+                if (event.shouldCommit()) {
+                    event.file = file.getPath();
+                    event.start = start;
+                    event.bytes = end - start;
+                    //Every parser returns the chunk's records as a list
+                    event.records = result instanceof List ? ((List<?>) result).size() : 0;
+                    event.commit();
+                }
+                return result;
+            } catch (IOException | CorruptedFileException | RuntimeException e) {
+                failure = e;
+                return null;
+            }
+        }
+    }
+}
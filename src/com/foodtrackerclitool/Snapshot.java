@@ -0,0 +1,339 @@
+package com.foodtrackerclitool;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/*
+ * Binary copy of the food and menu item data so startup does not have to parse the csv files.
+ *   Layout:
+ *       magic | version | size and last modified time of each csv file
+ *       string table: every food and menu item name
+ *       foods: next id, count and deleted count, then an id column, a name index column and one column per nutrient
+ *       menu items: next id, count and deleted count, then id and name index, then food id and weight for each ingredient
+ *       Deleted foods and menu items come after the others, see FoodStore
+ *       crc32 of everything before it
+ *
+ * The csv files stay the editable copy. If any of them has changed since the snapshot was written the snapshot
+ * is ignored and the csv files are read instead.
+ *
+ * Meals are read a month at a time from the meal history, so each month of meals has a snapshot of its own next to
+ * its csv file, see WriteMonth.
+ *   Layout:
+ *       magic | version | size and last modified time of the month's csv file
+ *       days: epoch day and meal count, then the meal type and menu item ids of each meal
+ *       crc32 of everything before it
+ * */
+final class Snapshot {
+    private static final int MAGIC = 0x46545344;
+    private static final int MONTH_MAGIC = 0x4654534D;
+    private static final int VERSION = 5;
+
+    final FoodStore foodData;
+    final MenuStore menuData;
+
+    private Snapshot(FoodStore foodData, MenuStore menuData) {
+        this.foodData = foodData;
+        this.menuData = menuData;
+    }
+
+    static void Write(File file, File[] sources, FoodStore foodData, MenuStore menuData) throws IOException {
+        JfrEvents.Save event = new JfrEvents.Save();
+        event.begin();
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        int[] live = foodData.sortedIds();
+        int[] deleted = foodData.deletedIds();
+        int[] foods = Arrays.copyOf(live, live.length + deleted.length);
+        System.arraycopy(deleted, 0, foods, live.length, deleted.length);
+        List<MenuItem> menuItems = new ArrayList<>(menuData.values());
+        List<MenuItem> deletedItems = menuData.deleted();
+        menuItems.addAll(deletedItems);
+
+        //Foods and menu items keep their ids, meals saved in the meal history refer to menu items by id
+        for (int id : foods) {
+            Intern(foodData.name(id), strings, stringIndex);
+        }
+        for (MenuItem menuItem : menuItems) {
+            Intern(menuItem.getName(), strings, stringIndex);
+        }
+
+        try (AtomicFileWriter snapshot = new AtomicFileWriter(file.getPath())) {
+            CheckedOutputStream checked = new CheckedOutputStream(snapshot.stream(), new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            WriteFingerprint(out, sources);
+
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                WriteString(out, s);
+            }
+
+            out.writeInt(foodData.idCount());
+            out.writeInt(foods.length);
+            out.writeInt(deleted.length);
+            for (int id : foods) out.writeInt(id);
+            for (int id : foods) out.writeInt(stringIndex.get(foodData.name(id)));
+            for (int id : foods) out.writeDouble(foodData.calories(id));
+            for (int id : foods) out.writeDouble(foodData.fat(id));
+            for (int id : foods) out.writeDouble(foodData.carbs(id));
+            for (int id : foods) out.writeDouble(foodData.protein(id));
+            for (int id : foods) out.writeDouble(foodData.servingSize(id));
+
+            out.writeInt(menuData.idCount());
+            out.writeInt(menuItems.size());
+            out.writeInt(deletedItems.size());
+            for (MenuItem menuItem : menuItems) {
+                out.writeInt(menuItem.getId());
+                out.writeInt(stringIndex.get(menuItem.getName()));
+                out.writeInt(menuItem.getIngredients().size());
+                for (Ingredient ingredient : menuItem.getIngredients()) {
+                    out.writeInt(ingredient.getFoodId());
+                    out.writeDouble(ingredient.getWeight());
+                }
+            }
+
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            snapshot.commit();
+        }
+        JfrEvents.Commit(event, "Snapshot", file, foods.length + menuItems.size());
+    }
+
+    //Returns null when there is no usable snapshot, the caller should read the csv files instead
+    static Snapshot Read(File file, File[] sources) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        JfrEvents.Load event = new JfrEvents.Load();
+        event.begin();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (!IsCurrent(in, MAGIC, sources)) {
+                return null;
+            }
+            if (!IsChecksumValid(in)) {
+                System.out.println("Snapshot Checksum Does Not Match: Reading CSV Files Instead");
+                return null;
+            }
+
+            String[] strings = new String[ReadCount(in)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = ReadString(in);
+            }
+
+            int foodNextId = ReadNextId(in);
+            int foodCount = ReadCount(in);
+            int foodLive = foodCount - ReadDeletedCount(in, foodCount);
+            int[] ids = new int[foodCount];
+            int[] names = new int[foodCount];
+            double[][] columns = new double[5][foodCount];
+            for (int i = 0; i < foodCount; i++) ids[i] = in.getInt();
+            for (int i = 0; i < foodCount; i++) names[i] = in.getInt();
+            for (double[] column : columns) {
+                in.asDoubleBuffer().get(column);
+                in.position(in.position() + foodCount * Double.BYTES);
+            }
+
+            FoodStore foodData = new FoodStore();
+            for (int i = 0; i < foodCount; i++) {
+                if (ids[i] >= foodNextId) throw new IllegalArgumentException("Id Out Of Range");
+                if (!foodData.load(ids[i], strings[names[i]], columns[0][i], columns[1][i], columns[2][i], columns[3][i],
+                        columns[4][i], i < foodLive)) {
+                    throw new IllegalArgumentException("Duplicate Food");
+                }
+            }
+            foodData.reserveIds(foodNextId);
+
+            int menuNextId = ReadNextId(in);
+            int menuCount = ReadCount(in);
+            int menuLive = menuCount - ReadDeletedCount(in, menuCount);
+            MenuStore menuData = new MenuStore();
+            for (int i = 0; i < menuCount; i++) {
+                int id = in.getInt();
+                if (id >= menuNextId) throw new IllegalArgumentException("Id Out Of Range");
+                String name = strings[in.getInt()];
+                int ingredientCount = ReadCount(in);
+                List<Ingredient> ingredients = new ArrayList<>(ingredientCount);
+                for (int j = 0; j < ingredientCount; j++) {
+                    int food = in.getInt();
+                    if (!foodData.hasRow(food)) throw new IllegalArgumentException("Food Does Not Exist");
+                    ingredients.add(new Ingredient(foodData, food, in.getDouble()));
+                }
+                if (!menuData.load(id, new MenuItem(name, ingredients), i < menuLive)) {
+                    throw new IllegalArgumentException("Duplicate Menu Item");
+                }
+            }
+            menuData.reserveIds(menuNextId);
+
+            JfrEvents.Commit(event, "Snapshot", file, foodCount + menuCount);
+            return new Snapshot(foodData, menuData);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            System.out.println("Snapshot Is Damaged: Reading CSV Files Instead");
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static void WriteMonth(File file, File source, MealDays meals) throws IOException {
+        try (AtomicFileWriter snapshot = new AtomicFileWriter(file.getPath())) {
+            CheckedOutputStream checked = new CheckedOutputStream(snapshot.stream(), new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+
+            out.writeInt(MONTH_MAGIC);
+            out.writeInt(VERSION);
+            WriteFingerprint(out, new File[]{source});
+
+            out.writeInt(meals.size());
+            for (int i = 0; i < meals.size(); i++) {
+                DayMeals day = meals.meals(i);
+                out.writeInt(meals.day(i));
+                out.writeInt(day.size());
+                for (Meal meal : day) {
+                    out.writeByte(meal.getMealType().ordinal());
+                    out.writeInt(meal.getMealItems().size());
+                    for (MenuItem menuItem : meal.getMealItems()) {
+                        out.writeInt(menuItem.getId());
+                    }
+                }
+            }
+
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            snapshot.commit();
+        }
+    }
+
+    //Returns null when there is no usable snapshot of the month, the caller should read its csv file instead
+    //A month's csv file is authoritative and reported on when it is read, so nothing is printed here
+    static MealDays ReadMonth(File file, File source, MenuStore menuData) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (!IsCurrent(in, MONTH_MAGIC, new File[]{source}) || !IsChecksumValid(in)) {
+                return null;
+            }
+
+            MealDays.Builder meals = new MealDays.Builder();
+            int dayCount = ReadCount(in);
+            for (int i = 0; i < dayCount; i++) {
+                int day = in.getInt();
+                int mealCount = ReadCount(in);
+                for (int j = 0; j < mealCount; j++) {
+                    MealType mealType = MealType.Of(in.get());
+                    int itemCount = ReadCount(in);
+                    List<MenuItem> items = new ArrayList<>(itemCount);
+                    for (int k = 0; k < itemCount; k++) {
+                        MenuItem menuItem = menuData.get(in.getInt());
+                        if (menuItem == null) return null;
+                        items.add(menuItem);
+                    }
+                    meals.add(new Meal(day, mealType, items));
+                }
+            }
+            return meals.build();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    //Reads the header, true when it is a snapshot of this kind written from the csv files as they are now
+    private static boolean IsCurrent(ByteBuffer in, int magic, File[] sources) {
+        return in.remaining() >= Long.BYTES + 8 && in.getInt() == magic && in.getInt() == VERSION
+                && ReadFingerprint(in, sources);
+    }
+
+    private static boolean IsChecksumValid(ByteBuffer in) {
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate().position(0).limit(in.limit() - Long.BYTES));
+        return in.getLong(in.limit() - Long.BYTES) == crc.getValue();
+    }
+
+    //A count can never be larger than what is left of the file, anything else means the file is damaged
+    private static int ReadCount(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static int ReadNextId(ByteBuffer in) {
+        int nextId = in.getInt();
+        if (nextId < 0 || nextId > Main.MAX_IDS) {
+            throw new IllegalArgumentException("Id Out Of Range");
+        }
+        return nextId;
+    }
+
+    private static int ReadDeletedCount(ByteBuffer in, int count) {
+        int deleted = in.getInt();
+        if (deleted < 0 || deleted > count) {
+            throw new BufferUnderflowException();
+        }
+        return deleted;
+    }
+
+    private static String ReadString(ByteBuffer in) {
+        byte[] bytes = new byte[ReadCount(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void WriteString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void Intern(String s, List<String> strings, Map<String, Integer> stringIndex) {
+        if (!stringIndex.containsKey(s)) {
+            stringIndex.put(s, strings.size());
+            strings.add(s);
+        }
+    }
+
+    private static void WriteFingerprint(DataOutputStream out, File[] sources) throws IOException {
+        out.writeInt(sources.length);
+        for (File source : sources) {
+            out.writeLong(source.isFile() ? source.length() : -1);
+            out.writeLong(source.isFile() ? source.lastModified() : -1);
+        }
+    }
+
+    private static boolean ReadFingerprint(ByteBuffer in, File[] sources) {
+        boolean current = in.getInt() == sources.length;
+        for (int i = 0; i < sources.length && current; i++) {
+            long length = in.getLong();
+            long lastModified = in.getLong();
+            current = length == (sources[i].isFile() ? sources[i].length() : -1)
+                    && lastModified == (sources[i].isFile() ? sources[i].lastModified() : -1);
+        }
+        return current;
+    }
+}
@@ -46,7 +46,17 @@ public final class Utilities {
     }
 
     static void RenameCorruptedFile(File file) {
-        boolean renamed = file.renameTo(new File(file.getName() + ".corrupted"));
+        JfrEvents.CorruptedFile event = new JfrEvents.CorruptedFile();
+        event.begin();
+
+        File corrupted = new File(file.getParentFile(), file.getName() + ".corrupted");
+        boolean renamed = file.renameTo(corrupted);
+        if (event.shouldCommit()) {
+            event.file = file.getPath();
+            event.bytes = (renamed ? corrupted : file).length();
+            event.renamed = renamed;
+            event.commit();
+        }
         if (!renamed) {
             System.out.println("Could Not Rename Corrupted File: File Will Be Deleted On Program Exit");
         }
@@ -0,0 +1,161 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiServerTest {
+    private static final String SECRET = "/home/someone/FoodData.csv";
+
+    private final List<String[]> applied = new ArrayList<>();
+    private ApiServer server;
+
+    //Looking up the food named "broken" fails the way a bug would
+    private final ApiServer.Handler handler = new ApiServer.Handler() {
+        @Override
+        public Food food(String name) {
+            if (name.equals("broken")) throw new IllegalStateException("Could Not Read " + SECRET);
+            return new Food(name, 0, 0, 0, 0, 100);
+        }
+
+        @Override
+        public List<Food> foodsStartingWith(String prefix, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<String> suggestFoods(String name, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public MenuItem menuItem(String name) {
+            return null;
+        }
+
+        @Override
+        public List<MenuItem> menuItemsStartingWith(String prefix, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<String> suggestMenuItems(String name, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public MealDays meals(int from, int to) {
+            return null;
+        }
+
+        @Override
+        public double[] totals(int from, int to) {
+            return new double[Macros.COUNT];
+        }
+
+        @Override
+        public double[] dailyAverages(int from, int to) {
+            return new double[Macros.COUNT];
+        }
+
+        @Override
+        public void apply(String... command) {
+            applied.add(command);
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = ApiServer.Start(0, handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpURLConnection Request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.port() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+
+    private static String Body(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testServerErrorHidesTheDetail() throws IOException {
+        //Arrange
+        PrintStream original = System.err;
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(log, true, StandardCharsets.UTF_8));
+        int status;
+        String body;
+
+        //Act
+        try {
+            HttpURLConnection connection = Request("GET", "/foods/broken", null);
+            status = connection.getResponseCode();
+            body = Body(connection);
+        } finally {
+            System.setErr(original);
+        }
+
+        //Assert
+        assertEquals(500, status);
+        assertFalse(body.contains(SECRET), body);
+        assertFalse(body.contains("IllegalStateException"), body);
+        assertTrue(log.toString(StandardCharsets.UTF_8).contains(SECRET));
+    }
+
+    @Test
+    void testDeeplyNestedBodyIsABadRequest() throws IOException {
+        //Arrange
+        String body = "{\"fat\":".repeat(100_000) + "1" + "}".repeat(100_000);
+
+        //Act
+        HttpURLConnection connection = Request("PUT", "/foods/oats", body);
+
+        //Assert
+        assertEquals(400, connection.getResponseCode());
+        assertTrue(Body(connection).contains("Nested"));
+        assertTrue(applied.isEmpty());
+    }
+
+    @Test
+    void testUpsertIsApplied() throws IOException {
+        //Arrange
+        String body = "{\"fat\": 6.9, \"carbs\": 66, \"protein\": 17, \"servingSize\": 40}";
+
+        //Act
+        HttpURLConnection connection = Request("PUT", "/foods/rolled%20oats", body);
+
+        //Assert
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(1, applied.size());
+        assertArrayEquals(new String[]{"food upsert", "rolled oats", "6.9", "66.0", "17.0", "40.0"}, applied.get(0));
+    }
+}
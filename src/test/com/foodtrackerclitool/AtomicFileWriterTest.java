@@ -0,0 +1,65 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicFileWriterTest {
+    @TempDir
+    File folder;
+
+    @Test
+    void testCommitReplacesTheFile() throws IOException {
+        //Arrange
+        File file = new File(folder, "Foods.csv");
+        Files.writeString(file.toPath(), "old contents\n");
+
+        //Act
+        try (AtomicFileWriter writer = new AtomicFileWriter(file.getPath())) {
+            writer.writer().println("new contents");
+            writer.commit();
+        }
+
+        //Assert
+        assertEquals("new contents" + System.lineSeparator(), Files.readString(file.toPath()));
+        assertFalse(new File(folder, "Foods.csv.tmp").exists());
+    }
+
+    @Test
+    void testCloseWithoutCommitKeepsTheOldFile() throws IOException {
+        //Arrange
+        File file = new File(folder, "Foods.csv");
+        Files.writeString(file.toPath(), "old contents\n");
+
+        //Act
+        try (AtomicFileWriter writer = new AtomicFileWriter(file.getPath())) {
+            writer.writer().println("half written");
+            writer.writer().flush();
+            assertTrue(new File(folder, "Foods.csv.tmp").exists());
+        }
+
+        //Assert
+        assertEquals("old contents\n", Files.readString(file.toPath()));
+        assertFalse(new File(folder, "Foods.csv.tmp").exists());
+    }
+
+    @Test
+    void testCommitCreatesAMissingFile() throws IOException {
+        //Arrange
+        File file = new File(folder, "Snapshot.bin");
+
+        //Act
+        try (AtomicFileWriter writer = new AtomicFileWriter(file.getPath())) {
+            writer.stream().write(new byte[] {1, 2, 3});
+            writer.commit();
+        }
+
+        //Assert
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(file.toPath()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogPagerTest {
+    private MenuStore menuItems;
+    private List<String> shown;
+    private CatalogPager<MenuItem> pager;
+
+    @BeforeEach
+    void setUp() {
+        menuItems = new MenuStore();
+        for (int i = 0; i < 45; i++) {
+            menuItems.put(new MenuItem(ItemName(i), List.of()));
+        }
+        shown = new ArrayList<>();
+        pager = new CatalogPager<>("Item Name", 20, menuItems::after, menuItems::before,
+                MenuItem::getName, (item, line) -> shown.add(item.getName()));
+    }
+
+    private static String ItemName(int i) {
+        return String.format("Item %02d", i);
+    }
+
+    private static List<String> ItemNames(int from, int to) {
+        List<String> names = new ArrayList<>();
+        for (int i = from; i < to; i++) names.add(ItemName(i));
+        return names;
+    }
+
+    //Returns the rows shown by the command
+    private List<String> Turn(String input) {
+        shown.clear();
+        assertTrue(pager.turn(input));
+        return new ArrayList<>(shown);
+    }
+
+    @Test
+    void testPagesFollowNameOrder() {
+        //Act
+        pager.showFirst();
+        List<String> first = new ArrayList<>(shown);
+        List<String> second = Turn("n");
+        List<String> third = Turn(" N ");
+        List<String> afterLast = Turn("n");
+
+        //Assert
+        assertEquals(ItemNames(0, 20), first);
+        assertEquals(ItemNames(20, 40), second);
+        assertEquals(ItemNames(40, 45), third);
+        assertTrue(afterLast.isEmpty());
+    }
+
+    @Test
+    void testPreviousPageStartsBeforeTheFirstRow() {
+        //Arrange
+        pager.showFirst();
+        Turn("n");
+        Turn("n");
+
+        //Act
+        List<String> previous = Turn("p");
+        List<String> start = Turn("p");
+        List<String> beforeStart = Turn("p");
+
+        //Assert
+        assertEquals(ItemNames(20, 40), previous);
+        assertEquals(ItemNames(0, 20), start);
+        assertEquals(ItemNames(0, 20), beforeStart);
+    }
+
+    @Test
+    void testOtherInputIsLeftToTheCaller() {
+        //Act
+        boolean turned = pager.turn("Toast");
+
+        //Assert
+        assertFalse(turned);
+        assertTrue(shown.isEmpty());
+    }
+
+    @Test
+    void testPagesFollowMenuItemsAddedBetweenTurns() {
+        //Arrange
+        pager.showFirst();
+
+        //Act
+        menuItems.put(new MenuItem("Item 19a", List.of()));
+        List<String> next = Turn("n");
+
+        //Assert
+        assertEquals("Item 19a", next.get(0));
+        assertEquals(ItemNames(20, 39), next.subList(1, 20));
+    }
+}
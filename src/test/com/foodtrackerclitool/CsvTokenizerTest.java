@@ -0,0 +1,210 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTokenizerTest {
+    @TempDir
+    File folder;
+
+    private File Write(String text) throws IOException {
+        File file = new File(folder, "test.csv");
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @ParameterizedTest(name="Run {index}: value={0}")
+    @ValueSource(strings = {"0", "1", "-1", "+2.5", "100.25", "0.1", "0.3", "123456.789", "-0.0001", " 42.5 ",
+            "9007199254740993", "0.12345678901234567890123", "1e3", "-2.5E-4", "NaN", "Infinity", "12."})
+    void testGetDoubleMatchesParseDouble(String value) throws IOException {
+        //Arrange
+        File file = Write("name," + value + "\n");
+
+        //Act
+        double result;
+        try (CsvTokenizer tokenizer = CsvTokenizer.Open(file)) {
+            assertTrue(tokenizer.nextRecord());
+            result = tokenizer.getDouble(1);
+        }
+
+        //Assert
+        assertEquals(Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(result));
+    }
+
+    @ParameterizedTest(name="Run {index}: value={0}")
+    @ValueSource(strings = {"", "abc", "1.2.3", "-", "."})
+    void testGetDoubleRejectsInvalidNumbers(String value) throws IOException {
+        //Arrange
+        File file = Write("name," + value + "\n");
+
+        //Act
+        //Assert
+        try (CsvTokenizer tokenizer = CsvTokenizer.Open(file)) {
+            assertTrue(tokenizer.nextRecord());
+            assertThrows(NumberFormatException.class, () -> tokenizer.getDouble(1));
+        }
+    }
+
+    @Test
+    void testFieldsAndContinuationRows() throws IOException {
+        //Arrange
+        File file = Write("3,Toast,,\r\n,1,50\n\n,,250.5");
+
+        //Act
+        //Assert
+        try (CsvTokenizer tokenizer = CsvTokenizer.Open(file)) {
+            assertTrue(tokenizer.nextRecord());
+            assertEquals(4, tokenizer.fieldCount());
+            assertEquals(3, tokenizer.getInt(0));
+            assertEquals("Toast", tokenizer.getString(1));
+            assertTrue(tokenizer.isBlank(2));
+            assertTrue(tokenizer.isBlank(9));
+            assertEquals("", tokenizer.getString(9));
+            assertFalse(tokenizer.startsWithDelimiter());
+
+            assertTrue(tokenizer.nextRecord());
+            assertTrue(tokenizer.startsWithDelimiter());
+            assertEquals(50, tokenizer.getDouble(2));
+
+            assertTrue(tokenizer.nextRecord());
+            assertTrue(tokenizer.isEmptyRecord());
+
+            assertTrue(tokenizer.nextRecord());
+            assertEquals(250.5, tokenizer.getDouble(2));
+
+            assertFalse(tokenizer.nextRecord());
+            assertTrue(tokenizer.isExhausted());
+        }
+    }
+
+    @Test
+    void testQuotedFields() throws IOException {
+        //Arrange
+        File file = Write("\"Cheese, Cheddar\",\"12.5\",\"Say \"\"Cheese\"\"\",\"\"\n");
+
+        //Act
+        //Assert
+        try (CsvTokenizer tokenizer = CsvTokenizer.OpenQuoted(file)) {
+            assertTrue(tokenizer.nextRecord());
+            assertEquals(4, tokenizer.fieldCount());
+            assertEquals("Cheese, Cheddar", tokenizer.getString(0));
+            assertEquals(12.5, tokenizer.getDouble(1));
+            assertEquals("Say \"Cheese\"", tokenizer.getString(2));
+            assertTrue(tokenizer.isBlank(3));
+        }
+    }
+
+    @Test
+    void testUnquotedFileKeepsQuotes() throws IOException {
+        //Arrange
+        File file = Write("\"a,b\"\n");
+
+        //Act
+        //Assert
+        try (CsvTokenizer tokenizer = CsvTokenizer.Open(file)) {
+            assertTrue(tokenizer.nextRecord());
+            assertEquals(2, tokenizer.fieldCount());
+            assertEquals("\"a", tokenizer.getString(0));
+        }
+    }
+
+    @Test
+    void testRangeReadsOnlyItsBytes() throws IOException {
+        //Arrange
+        File file = Write("a,1\nb,2\nc,3\n");
+
+        //Act
+        //Assert
+        try (CsvTokenizer tokenizer = CsvTokenizer.Open(file, 4, 8)) {
+            assertTrue(tokenizer.nextRecord());
+            assertEquals("b", tokenizer.getString(0));
+            assertEquals(8, tokenizer.position());
+            assertFalse(tokenizer.nextRecord());
+        }
+    }
+
+    @Test
+    void testClosedFileCanBeRenamed() throws IOException {
+        //Arrange
+        File file = Write("a,1\n");
+        File moved = new File(folder, "moved.csv");
+
+        //Act
+        try (CsvTokenizer tokenizer = CsvTokenizer.Open(file)) {
+            assertTrue(tokenizer.nextRecord());
+        }
+        boolean renamed = file.renameTo(moved);
+
+        //Assert
+        assertTrue(renamed);
+        assertTrue(moved.exists());
+    }
+
+    @Test
+    void testLargeFileIsReadThroughTheMapping() throws IOException {
+        //Arrange
+        //Past the size that is copied into the heap, so the file is memory mapped
+        StringBuilder text = new StringBuilder();
+        int rows = 0;
+        while (text.length() <= (1 << 24)) {
+            text.append("food").append(rows).append(',').append(rows).append('\n');
+            rows++;
+        }
+        File file = Write(text.toString());
+
+        //Act
+        int read = 0;
+        int last = -1;
+        try (CsvTokenizer tokenizer = CsvTokenizer.Open(file)) {
+            while (tokenizer.nextRecord()) {
+                last = tokenizer.getInt(1);
+                read++;
+            }
+        }
+
+        //Assert
+        assertEquals(rows, read);
+        assertEquals(rows - 1, last);
+    }
+
+    @ParameterizedTest(name="Run {index}: line={0}")
+    @MethodSource("testSplitQuotedParameters")
+    void testSplitQuoted(String line, String[] expected) {
+        //Arrange
+        //Act
+        String[] result = CsvTokenizer.SplitQuoted(line);
+
+        //Assert
+        assertArrayEquals(expected, result);
+    }
+
+    static Stream<Arguments> testSplitQuotedParameters() {
+        return Stream.of(
+                Arguments.of("", new String[] {""}),
+                Arguments.of("food delete,apple", new String[] {"food delete", "apple"}),
+                Arguments.of("a,,b,", new String[] {"a", "", "b", ""}),
+                Arguments.of("food delete,\"cheese, cheddar\"", new String[] {"food delete", "cheese, cheddar"}),
+                Arguments.of("menu delete,\"the \"\"big\"\" one\",x", new String[] {"menu delete", "the \"big\" one", "x"})
+        );
+    }
+
+    @Test
+    void testSplitQuotedRejectsAnOpenQuote() {
+        //Arrange
+        //Act
+        //Assert
+        assertThrows(IllegalArgumentException.class, () -> CsvTokenizer.SplitQuoted("food delete,\"cheese"));
+    }
+}
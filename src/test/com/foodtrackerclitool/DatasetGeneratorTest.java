@@ -0,0 +1,98 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+    private static final String OPTIONS = "foods=300;menu-items=60;years=1;start=11/20/2021;seed=3";
+
+    @TempDir
+    File folder;
+
+    @Test
+    void testWritesOneFilePerMonthAndTheManifest() throws IOException {
+        //Act
+        DatasetGenerator generator = DatasetGenerator.Run(folder, OPTIONS);
+
+        //Assert
+        File history = new File(folder, DatasetGenerator.MEAL_DIRECTORY);
+        assertFalse(new File(folder, DatasetGenerator.LEGACY_MEAL_FILE).exists());
+        List<String> manifest = Files.readAllLines(new File(history, MealHistory.MANIFEST).toPath());
+        assertEquals(MealHistory.MANIFEST_HEADER, manifest.get(0));
+        assertEquals("2021-11", manifest.get(1).split(",")[0]);
+        assertEquals("2022-11", manifest.get(manifest.size() - 1).split(",")[0]);
+        assertEquals(14, manifest.size());
+
+        long meals = 0;
+        for (String line : manifest.subList(1, manifest.size())) {
+            String[] fields = line.split(",");
+            assertTrue(new File(history, fields[0] + ".csv").isFile(), fields[0]);
+            meals += Long.parseLong(fields[1]);
+        }
+        assertEquals(generator.meals(), meals);
+        assertEquals(365 * 3, meals);
+    }
+
+    @Test
+    void testGeneratedFilesReadBackWithEveryMeal() throws IOException, CorruptedFileException {
+        //Arrange
+        DatasetGenerator generator = DatasetGenerator.Run(folder, OPTIONS);
+        FoodStore foods = Main.ReadInFood(new File(folder, DatasetGenerator.FOOD_FILE));
+        MenuStore menuItems = Main.ReadMenuItems(new File(folder, DatasetGenerator.MENU_FILE), foods);
+
+        //Act
+        MealHistory history = MealHistory.Open(new File(folder, DatasetGenerator.MEAL_DIRECTORY), Main.mealHeader,
+                file -> Main.ReadMealData(file, menuItems), new DependencyGraph());
+
+        //Assert
+        assertEquals(300, foods.size());
+        assertEquals(60, menuItems.size());
+        assertEquals(generator.meals(), history.mealCount());
+        assertEquals(generator.meals(), history.all().mealCount());
+    }
+
+    @Test
+    void testSameOptionsGiveTheSameFiles() throws IOException {
+        //Arrange
+        File first = new File(folder, "first");
+        File second = new File(folder, "second");
+
+        //Act
+        DatasetGenerator.Run(first, OPTIONS);
+        DatasetGenerator.Run(second, OPTIONS);
+
+        //Assert
+        for (String name : new String[] {DatasetGenerator.FOOD_FILE, DatasetGenerator.MENU_FILE}) {
+            assertArrayEquals(Files.readAllBytes(new File(first, name).toPath()), Files.readAllBytes(new File(second, name).toPath()), name);
+        }
+        String[] months = new File(first, DatasetGenerator.MEAL_DIRECTORY).list();
+        Arrays.sort(months);
+        List<String> compared = new ArrayList<>();
+        for (String month : months) {
+            File a = new File(new File(first, DatasetGenerator.MEAL_DIRECTORY), month);
+            File b = new File(new File(second, DatasetGenerator.MEAL_DIRECTORY), month);
+            assertArrayEquals(Files.readAllBytes(a.toPath()), Files.readAllBytes(b.toPath()), month);
+            compared.add(month);
+        }
+        assertEquals(14, compared.size());
+    }
+
+    @Test
+    void testExistingMealHistoryIsNotOverwritten() {
+        //Arrange
+        assertTrue(new File(folder, DatasetGenerator.MEAL_DIRECTORY).mkdir());
+
+        //Act and Assert
+        assertThrows(IOException.class, () -> DatasetGenerator.Run(folder, OPTIONS));
+        assertFalse(new File(folder, DatasetGenerator.FOOD_FILE).exists());
+    }
+}
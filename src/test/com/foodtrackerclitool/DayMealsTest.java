@@ -0,0 +1,115 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayMealsTest {
+    private MenuItem toast;
+
+    @BeforeEach
+    void setUp() {
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        toast = new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60)));
+    }
+
+    private Meal Meal(MealType type) {
+        return new Meal(100, type, List.of(toast));
+    }
+
+    private static List<MealType> Types(DayMeals day) {
+        List<MealType> types = new ArrayList<>();
+        for (Meal meal : day) types.add(meal.getMealType());
+        return types;
+    }
+
+    @Test
+    void testMealsAreWalkedInMealTypeOrder() {
+        //Act
+        DayMeals day = DayMeals.EMPTY.with(Meal(MealType.SNACK)).with(Meal(MealType.BREAKFAST)).with(Meal(MealType.DINNER));
+
+        //Assert
+        assertEquals(List.of(MealType.BREAKFAST, MealType.DINNER, MealType.SNACK), Types(day));
+        assertEquals(3, day.size());
+        assertNull(day.get(MealType.LUNCH));
+    }
+
+    @Test
+    void testWithReplacesTheSameTypeAndLeavesTheOriginal() {
+        //Arrange
+        Meal first = Meal(MealType.LUNCH);
+        Meal second = Meal(MealType.LUNCH);
+        DayMeals day = DayMeals.EMPTY.with(first);
+
+        //Act
+        DayMeals replaced = day.with(second);
+
+        //Assert
+        assertSame(first, day.get(MealType.LUNCH));
+        assertSame(second, replaced.get(MealType.LUNCH));
+        assertEquals(1, replaced.size());
+        assertTrue(DayMeals.EMPTY.isEmpty());
+    }
+
+    @Test
+    void testWithAllTakesEveryMealOfTheOtherDay() {
+        //Arrange
+        Meal lunch = Meal(MealType.LUNCH);
+        DayMeals day = DayMeals.EMPTY.with(Meal(MealType.BREAKFAST)).with(Meal(MealType.LUNCH));
+        DayMeals other = DayMeals.EMPTY.with(lunch).with(Meal(MealType.DESSERT));
+
+        //Act
+        DayMeals merged = day.withAll(other);
+
+        //Assert
+        assertEquals(List.of(MealType.BREAKFAST, MealType.LUNCH, MealType.DESSERT), Types(merged));
+        assertSame(lunch, merged.get(MealType.LUNCH));
+    }
+
+    @Test
+    void testIteratorEndsAfterTheLastMeal() {
+        //Arrange
+        Iterator<Meal> meals = DayMeals.EMPTY.with(Meal(MealType.BRUNCH)).iterator();
+
+        //Act
+        meals.next();
+
+        //Assert
+        assertFalse(meals.hasNext());
+        assertThrows(NoSuchElementException.class, meals::next);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"Breakfast, BREAKFAST", "breakfast, BREAKFAST", "  DINNER , DINNER", "sNaCk, SNACK", "Brunch, BRUNCH"})
+    void testFindIgnoresCaseAndSpaces(String name, MealType expectedResult) {
+        //Act and Assert
+        assertEquals(expectedResult, MealType.Find(name));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "Supper", "Break fast"})
+    void testFindReturnsNullForOtherNames(String name) {
+        //Act and Assert
+        assertNull(MealType.Find(name));
+    }
+
+    @Test
+    void testNamesAndOrdinalsRoundTrip() {
+        for (MealType type : MealType.values()) {
+            //Assert
+            assertSame(type, MealType.Of(type.ordinal()));
+            assertSame(type, MealType.Find(type.toString()));
+        }
+        assertEquals(MealType.values().length, MealType.COUNT);
+    }
+}
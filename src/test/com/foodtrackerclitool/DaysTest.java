@@ -0,0 +1,78 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaysTest {
+
+    @ParameterizedTest
+    @CsvSource({"01/01/1970, 0", "01/02/1970, 1", "12/31/1969, -1", "02/29/2024, 19782", "1/5/2024, 19727", " 03/07/2021 , 18693"})
+    void testParse(String text, int expectedResult) throws ParseException {
+        //Act
+        int day = Days.Parse(text);
+
+        //Assert
+        assertEquals(expectedResult, day);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"02/30/2024", "02/29/2023", "13/01/2024", "00/10/2024", "1/32/2024", "2024-01-05", "", "ab/cd/efgh"})
+    void testParseRefusesWhatIsNotARealDate(String text) {
+        //Act and Assert
+        assertThrows(ParseException.class, () -> Days.Parse(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"01/01/0001", "12/31/1899", "01/01/2200", "12/31/9999", "1/1/0001"})
+    void testParseRefusesYearsOutsideTheWindow(String text) {
+        //Act
+        ParseException e = assertThrows(ParseException.class, () -> Days.Parse(text));
+
+        //Assert
+        assertTrue(e.getMessage().startsWith("Date Must Be Between 1900 And 2199"));
+    }
+
+    @Test
+    void testParseReadsTheFirstAndLastDayOfTheWindow() throws ParseException {
+        //Act and Assert
+        assertEquals(LocalDate.of(1900, 1, 1).toEpochDay(), Days.Parse("01/01/1900"));
+        assertEquals(LocalDate.of(2199, 12, 31).toEpochDay(), Days.Parse("12/31/2199"));
+    }
+
+    @Test
+    void testFormatMatchesTheFormatterForEveryDay() throws ParseException {
+        //Arrange
+        int first = (int) LocalDate.of(1900, 1, 1).toEpochDay();
+        int last = (int) LocalDate.of(2100, 12, 31).toEpochDay();
+
+        for (int day = first; day <= last; day++) {
+            //Act
+            String text = Days.Format(day);
+
+            //Assert
+            assertEquals(String.format("%tm/%<td/%<tY", LocalDate.ofEpochDay(day)), text);
+            assertEquals(day, Days.Parse(text));
+        }
+    }
+
+    @Test
+    void testMonthsAreConsecutive() {
+        //Arrange
+        int december = Days.MonthOf((int) LocalDate.of(2023, 12, 31).toEpochDay());
+
+        //Act
+        int january = Days.MonthOf((int) LocalDate.of(2024, 1, 1).toEpochDay());
+
+        //Assert
+        assertEquals(2023 * 12 + 11, december);
+        assertEquals(december + 1, january);
+        assertEquals(january, Days.MonthOf((int) LocalDate.of(2024, 1, 31).toEpochDay()));
+    }
+}
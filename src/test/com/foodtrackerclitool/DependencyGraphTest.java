@@ -0,0 +1,99 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+    private FoodStore foods;
+    private MenuStore menuItems;
+    private DependencyGraph graph;
+    private int bread;
+    private int egg;
+    private MenuItem toast;
+    private MenuItem eggs;
+
+    @BeforeEach
+    void setUp() {
+        foods = new FoodStore();
+        bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        egg = foods.put("Egg", 155, 11, 1.1, 13, 50);
+        toast = new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60)));
+        eggs = new MenuItem("Eggs", List.of(new Ingredient(foods, egg, 100)));
+        menuItems = new MenuStore();
+        menuItems.put(toast);
+        menuItems.put(eggs);
+
+        graph = new DependencyGraph();
+        graph.setMenuItems(menuItems.values());
+    }
+
+    @Test
+    void testOnlyUsersOfTheFoodAreFound() {
+        //Arrange
+        Meal breakfast = new Meal(18_000, MealType.BREAKFAST, List.of(toast));
+        Meal dinner = new Meal(18_000, MealType.DINNER, List.of(eggs));
+        graph.addMeal(breakfast);
+        graph.addMeal(dinner);
+
+        //Act
+        Set<MenuItem> items = graph.itemsUsing(bread);
+        Set<Meal> meals = graph.mealsUsing(items);
+
+        //Assert
+        assertEquals(Set.of(toast), items);
+        assertEquals(1, meals.size());
+        assertSame(breakfast, meals.iterator().next());
+    }
+
+    @Test
+    void testIngredientChangesMoveTheEdges() {
+        //Arrange
+        graph.itemsUsing(bread);
+
+        //Act
+        toast.addIngredient(new Ingredient(foods, egg, 50));
+        graph.ingredientAdded(toast, egg);
+        graph.ingredientRemoved(toast, bread);
+
+        //Assert
+        assertTrue(graph.itemsUsing(bread).isEmpty());
+        assertEquals(2, graph.itemsUsing(egg).size());
+    }
+
+    @Test
+    void testDeletedMenuItemHeldByAMealStillCounts() {
+        //Arrange
+        Meal breakfast = new Meal(18_000, MealType.BREAKFAST, List.of(toast));
+        graph.addMeal(breakfast);
+        graph.itemsUsing(bread);
+
+        //Act
+        menuItems.remove("Toast");
+        graph.removeMenuItem(toast);
+
+        //Assert
+        assertTrue(graph.itemsUsing(bread).contains(toast));
+        assertEquals(1, graph.mealsUsing(graph.itemsUsing(bread)).size());
+
+        graph.removeMeal(breakfast);
+        assertTrue(graph.mealsUsing(graph.itemsUsing(bread)).isEmpty());
+    }
+
+    @Test
+    void testMenuItemsAddedBeforeTheEdgesAreBuiltAreFound() {
+        //Arrange
+        MenuItem sandwich = new MenuItem("Egg Sandwich", List.of(new Ingredient(foods, bread, 80), new Ingredient(foods, egg, 50)));
+
+        //Act
+        menuItems.put(sandwich);
+        graph.addMenuItem(sandwich);
+
+        //Assert
+        assertEquals(Set.of(toast, sandwich), graph.itemsUsing(bread));
+    }
+}
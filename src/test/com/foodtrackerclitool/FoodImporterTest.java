@@ -0,0 +1,79 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodImporterTest {
+    private static final String MAPPING = "name=Name;fat=Fat;carbs=Carbs;protein=Protein";
+
+    @TempDir
+    File folder;
+
+    private List<Food> Import(String contents) throws IOException {
+        File file = new File(folder, "import.csv");
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+
+        List<Food> foods = new ArrayList<>();
+        FoodImporter.Run(file, MAPPING, batch -> {
+            foods.addAll(batch);
+            return batch.size();
+        });
+        return foods;
+    }
+
+    @Test
+    void testQuotedNameIsStoredLikeTheEditorStoresIt() throws IOException {
+        //Arrange
+        String contents = "Name,Fat,Carbs,Protein\n\"  Apples,  RAW \",0.2,14,0.3\n";
+
+        //Act
+        List<Food> foods = Import(contents);
+
+        //Assert
+        assertEquals(1, foods.size());
+        assertEquals("apples raw", foods.get(0).getName());
+        assertEquals(Food.StoredName("Apples, Raw"), foods.get(0).getName());
+    }
+
+    @Test
+    void testSameFoodSpelledDifferentlyGivesOneName() throws IOException {
+        //Arrange
+        String contents = "Name,Fat,Carbs,Protein\n" +
+                "Brown Rice,0.9,23,2.6\n" +
+                "\"brown  rice\",0.9,23,2.6\n" +
+                "\" BROWN RICE\",0.9,23,2.6\n";
+
+        //Act
+        List<Food> foods = Import(contents);
+
+        //Assert
+        assertEquals(3, foods.size());
+        for (Food food : foods) {
+            assertEquals("brown rice", food.getName());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Brown Rice", "brown  rice", " BROWN RICE ", "brown, rice"})
+    void testAnySpellingMatchesTheImportedName(String typed) throws IOException {
+        //Arrange
+        String contents = "Name,Fat,Carbs,Protein\nBrown Rice,0.9,23,2.6\n";
+
+        //Act
+        List<Food> foods = Import(contents);
+
+        //Assert
+        assertEquals(foods.get(0).getName(), Food.StoredName(typed));
+    }
+}
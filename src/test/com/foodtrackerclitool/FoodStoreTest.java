@@ -0,0 +1,248 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodStoreTest {
+
+    @Test
+    void testPutAndGet() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+
+        //Act
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int butter = foods.put("Butter", 717, 81, 0.1, 0.9, 14);
+
+        //Assert
+        assertEquals(0, bread);
+        assertEquals(1, butter);
+        assertEquals(2, foods.size());
+        assertEquals(butter, foods.idOf("Butter"));
+        assertEquals(-1, foods.idOf("butter"));
+        Food food = foods.get("Bread");
+        assertEquals("Bread", food.getName());
+        assertEquals(265, food.getCals());
+        assertEquals(49, foods.carbs(bread));
+        assertNull(foods.get("Jam"));
+    }
+
+    @Test
+    void testPutOverwritesTheSameName() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+
+        //Act
+        int again = foods.put("Bread", 250, 3, 47, 8, 100);
+
+        //Assert
+        assertEquals(bread, again);
+        assertEquals(1, foods.size());
+        assertEquals(250, foods.calories(bread));
+    }
+
+    @Test
+    void testRemoveKeepsTheRowForMenuItems() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int butter = foods.put("Butter", 717, 81, 0.1, 0.9, 14);
+
+        //Act
+        boolean removed = foods.remove("Bread");
+        int jam = foods.put("Jam", 278, 0.1, 69, 0.4, 20);
+
+        //Assert
+        assertTrue(removed);
+        assertFalse(foods.remove("Bread"));
+        assertFalse(foods.contains(bread));
+        assertTrue(foods.contains(butter));
+        assertEquals(-1, foods.idOf("Bread"));
+        assertEquals("Bread", foods.name(bread));
+        assertEquals(265, foods.calories(bread));
+        assertEquals(2, jam);
+        assertEquals(3, foods.idCount());
+        assertEquals(List.of("Butter", "Jam"), foods.names());
+    }
+
+    @Test
+    void testFoodAddedAgainTakesItsRowBack() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        foods.put("Butter", 717, 81, 0.1, 0.9, 14);
+        foods.remove("Bread");
+
+        //Act
+        int again = foods.put("Bread", 250, 3, 47, 8, 100);
+
+        //Assert
+        assertEquals(bread, again);
+        assertTrue(foods.contains(bread));
+        assertEquals(250, foods.calories(bread));
+        assertEquals(2, foods.size());
+        assertEquals(2, foods.idCount());
+        assertEquals(0, foods.deletedIds().length);
+    }
+
+    @Test
+    void testDeletedFoodIsStillFoundByRow() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+        foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int butter = foods.put("Butter", 717, 81, 0.1, 0.9, 14);
+
+        //Act
+        foods.remove("Butter");
+
+        //Assert
+        assertEquals(-1, foods.idOf("Butter"));
+        assertEquals(butter, foods.rowOf("Butter"));
+        assertTrue(foods.hasRow(butter));
+        assertFalse(foods.hasRow(2));
+        assertArrayEquals(new int[] {butter}, foods.deletedIds());
+        assertFalse(foods.load(5, "Butter", 717, 81, 0.1, 0.9, 14, true));
+    }
+
+    @Test
+    void testSortedIdsFollowNames() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+        foods.put("Oats", 389, 6.9, 66, 17, 40);
+        foods.put("Apple", 52, 0.2, 14, 0.3, 180);
+        foods.put("Milk", 42, 1, 5, 3.4, 250);
+
+        //Act
+        List<String> names = new ArrayList<>();
+        foods.forEach(food -> names.add(food.getName()));
+
+        //Assert
+        assertEquals(List.of("Apple", "Milk", "Oats"), names);
+        assertArrayEquals(new int[] {1, 2, 0}, foods.sortedIds());
+    }
+
+    @Test
+    void testManyFoodsGrowTheColumnsAndTable() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+
+        //Act
+        for (int i = 0; i < 5000; i++) {
+            foods.put("Food " + i, i, 0, 0, 0, 100);
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            foods.remove("Food " + i);
+        }
+
+        //Assert
+        assertEquals(2500, foods.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, foods.idOf("Food " + i));
+        }
+        assertEquals(4999, foods.calories(foods.idOf("Food 4999")));
+    }
+
+    @Test
+    void testMacrosForAWeight() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        Macros macros = new Macros();
+
+        //Act
+        foods.addTo(macros, bread, 50, 1);
+
+        //Assert
+        assertEquals(132.5, foods.caloriesFor(bread, 50), 1e-9);
+        assertEquals(132.5, macros.get(Macros.CALORIES), 1e-9);
+        assertEquals(1.6, macros.get(Macros.FAT), 1e-9);
+        assertEquals(24.5, macros.get(Macros.CARBS), 1e-9);
+        assertEquals(4.5, macros.get(Macros.PROTEIN), 1e-9);
+        assertEquals(50, macros.get(Macros.GRAMS), 1e-9);
+    }
+
+    @Test
+    void testReadersSeeWholeRowsWhileAWriterPuts() throws InterruptedException {
+        //Arrange
+        //Every row the writer puts has fat, carbs and protein equal, a torn read would mix two rows
+        FoodStore foods = new FoodStore();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(new Thread(() -> {
+                while (writing.get() && failure.get() == null) {
+                    for (int i = 0; i < 200; i++) {
+                        Food food = foods.get("Food " + i);
+                        if (food != null && (food.getFat() != food.getCarbs() || food.getCarbs() != food.getProtein())) {
+                            failure.set("Torn Row: " + food);
+                        }
+                    }
+                }
+            }));
+        }
+
+        //Act
+        for (Thread reader : readers) reader.start();
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 5000; i++) {
+                double value = round * 5000 + i;
+                foods.put("Food " + i, value, value, value, value, 100);
+            }
+        }
+        writing.set(false);
+        for (Thread reader : readers) reader.join();
+
+        //Assert
+        assertNull(failure.get());
+        assertEquals(5000, foods.size());
+        assertEquals(49 * 5000 + 7, foods.get("Food 7").getFat());
+    }
+
+    @Test
+    void testReadersFindEveryRowWhileTheColumnsAndTableGrow() throws InterruptedException {
+        //Arrange
+        //The first foods are never changed, every read of them has to succeed while the writer keeps growing the store
+        FoodStore foods = new FoodStore();
+        for (int i = 0; i < 100; i++) {
+            foods.put("Food " + i, i, i, i, i, 100);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(new Thread(() -> {
+                while (writing.get() && failure.get() == null) {
+                    for (int i = 0; i < 100; i++) {
+                        Macros macros = new Macros();
+                        foods.addTo(macros, i, 100, 1);
+                        if (foods.idOf("Food " + i) != i || foods.calories(i) != i || macros.get(Macros.FAT) != i
+                                || !("Food " + i).equals(foods.name(i)) || !foods.contains(i)) {
+                            failure.set("Missing Food " + i);
+                        }
+                    }
+                }
+            }));
+        }
+
+        //Act
+        for (Thread reader : readers) reader.start();
+        for (int i = 100; i < 100_000; i++) {
+            foods.put("Food " + i, i, i, i, i, 100);
+        }
+        writing.set(false);
+        for (Thread reader : readers) reader.join();
+
+        //Assert
+        assertNull(failure.get());
+        assertEquals(100_000, foods.size());
+        assertEquals(99_999, foods.get(99_999).getCals());
+    }
+}
@@ -0,0 +1,115 @@
+package com.foodtrackerclitool;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+    @TempDir
+    File folder;
+
+    //Runs the work inside a recording of every Food Tracker event and returns the events it recorded
+    private List<RecordedEvent> Record(Work work) throws Exception {
+        File dump = new File(folder, "events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"Load", "ParseChunk", "Save", "CorruptedFile", "Query"}) {
+                recording.enable("com.foodtrackerclitool." + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(dump.toPath());
+        }
+        return RecordingFile.readAllEvents(dump.toPath());
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> Named(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> named = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("com.foodtrackerclitool." + name)) named.add(event);
+        }
+        return named;
+    }
+
+    @Test
+    void testLoadingAFileRecordsTheLoadAndItsChunks() throws Exception {
+        //Arrange
+        DatasetGenerator.Run(folder, "foods=5000;menu-items=10;years=0");
+        File foodFile = new File(folder, DatasetGenerator.FOOD_FILE);
+
+        //Act
+        List<RecordedEvent> events = Record(() -> Main.ReadInFood(foodFile));
+
+        //Assert
+        List<RecordedEvent> loads = Named(events, "Load");
+        assertEquals(1, loads.size());
+        assertEquals(foodFile.getPath(), loads.get(0).getString("file"));
+        assertEquals(5000, loads.get(0).getLong("records"));
+        assertEquals(foodFile.length(), loads.get(0).getLong("bytes"));
+
+        long records = 0;
+        long bytes = 0;
+        for (RecordedEvent chunk : Named(events, "ParseChunk")) {
+            records += chunk.getLong("records");
+            bytes += chunk.getLong("bytes");
+        }
+        assertEquals(5000, records);
+        assertEquals(foodFile.length(), bytes);
+    }
+
+    @Test
+    void testRenamedFileIsMeasuredUnderItsNewName() throws Exception {
+        //Arrange
+        File file = new File(folder, "FoodItems.csv");
+        Files.write(file.toPath(), new byte[1234]);
+
+        //Act
+        List<RecordedEvent> events = Record(() -> Utilities.RenameCorruptedFile(file));
+
+        //Assert
+        List<RecordedEvent> corrupted = Named(events, "CorruptedFile");
+        assertEquals(1, corrupted.size());
+        assertEquals(file.getPath(), corrupted.get(0).getString("file"));
+        assertEquals(1234, corrupted.get(0).getLong("bytes"));
+        assertTrue(corrupted.get(0).getBoolean("renamed"));
+        assertTrue(new File(folder, "FoodItems.csv.corrupted").isFile());
+    }
+
+    @Test
+    void testQueriesRecordTheDaysAskedFor() throws Exception {
+        //Arrange
+        MealHistory history = MealHistory.Open(new File(folder, "MealHistory"), Main.mealHeader,
+                file -> MealDays.EMPTY, new DependencyGraph());
+        int from = Days.Parse("01/01/2021");
+        int to = Days.Parse("01/31/2021");
+
+        //Act
+        List<RecordedEvent> events = Record(() -> {
+            history.totals(from, to);
+            history.dailyAverages(from, to);
+        });
+
+        //Assert
+        List<RecordedEvent> queries = Named(events, "Query");
+        assertEquals(2, queries.size());
+        assertEquals("Totals", queries.get(0).getString("kind"));
+        assertEquals("01/01/2021", queries.get(0).getString("from"));
+        assertEquals(31, queries.get(0).getLong("days"));
+        assertEquals("Daily Averages", queries.get(1).getString("kind"));
+    }
+}
@@ -0,0 +1,227 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+    @TempDir
+    File folder;
+
+    //Writes down every replayed edit as one line of text
+    private static final class Recorder implements Journal.Handler {
+        final List<String> edits = new ArrayList<>();
+
+        @Override
+        public void foodUpserted(Food food) {
+            edits.add("food " + food.getName() + " " + food.getCals());
+        }
+
+        @Override
+        public void foodDeleted(String name) {
+            edits.add("delete food " + name);
+        }
+
+        @Override
+        public void ingredientChanged(String itemName, String foodName, double weight) {
+            edits.add("ingredient " + itemName + " " + foodName + " " + weight);
+        }
+
+        @Override
+        public void menuItemUpserted(String itemName, List<String> foodNames, List<Double> weights) {
+            edits.add("menu item " + itemName + " " + foodNames + " " + weights);
+        }
+
+        @Override
+        public void menuItemDeleted(String itemName) {
+            edits.add("delete menu item " + itemName);
+        }
+
+        @Override
+        public void mealSaved(int day, String mealType, List<String> itemNames) {
+            edits.add("meal " + day + " " + mealType + " " + itemNames);
+        }
+    }
+
+    private File WriteJournal() throws IOException {
+        File file = new File(folder, "Journal.bin");
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        MenuItem toast = new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60)));
+
+        try (Journal journal = Journal.Open(file, new Recorder())) {
+            journal.foodUpserted(foods.get(bread));
+            journal.menuItemUpserted(toast);
+            journal.ingredientChanged(toast, foods.get(bread), 80);
+            journal.foodDeleted("Jam");
+            journal.menuItemDeleted("Jam Toast");
+        }
+        return file;
+    }
+
+    @Test
+    void testReplaysEveryEdit() throws IOException {
+        //Arrange
+        File file = WriteJournal();
+        Recorder recorder = new Recorder();
+
+        //Act
+        try (Journal journal = Journal.Open(file, recorder)) {
+            //Assert
+            assertEquals(List.of("food Bread 265.0", "menu item Toast [Bread] [60.0]", "ingredient Toast Bread 80.0",
+                    "delete food Jam", "delete menu item Jam Toast"), recorder.edits);
+            assertEquals(file.length(), journal.size());
+        }
+    }
+
+    @Test
+    void testTornTailIsCutOff() throws IOException {
+        //Arrange
+        File file = WriteJournal();
+        long full = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(full - 3);
+        }
+        Recorder recorder = new Recorder();
+
+        //Act
+        try (Journal journal = Journal.Open(file, recorder)) {
+            //Assert
+            assertEquals(4, recorder.edits.size());
+            assertEquals("delete food Jam", recorder.edits.get(3));
+            assertEquals(journal.size(), file.length());
+            assertTrue(file.length() < full - 3);
+        }
+
+        //Edits made after the cut are replayed after the complete records
+        try (Journal journal = Journal.Open(file, new Recorder())) {
+            journal.foodDeleted("Bread");
+        }
+        Recorder reopened = new Recorder();
+        Journal.Open(file, reopened).close();
+        assertEquals(List.of("food Bread 265.0", "menu item Toast [Bread] [60.0]", "ingredient Toast Bread 80.0",
+                "delete food Jam", "delete food Bread"), reopened.edits);
+    }
+
+    @Test
+    void testDamagedRecordEndsReplay() throws IOException {
+        //Arrange
+        File file = WriteJournal();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            //The last byte of the first record's payload is part of the food's serving size
+            int length = raf.readInt();
+            raf.seek(2 * Integer.BYTES + length - 1);
+            int b = raf.read();
+            raf.seek(2 * Integer.BYTES + length - 1);
+            raf.write(b ^ 0xFF);
+        }
+        Recorder recorder = new Recorder();
+
+        //Act
+        Journal.Open(file, recorder).close();
+
+        //Assert
+        assertTrue(recorder.edits.isEmpty());
+        assertEquals(0, file.length());
+    }
+
+    @Test
+    void testTruncateEmptiesTheJournal() throws IOException {
+        //Arrange
+        File file = WriteJournal();
+
+        //Act
+        try (Journal journal = Journal.Open(file, new Recorder())) {
+            journal.truncate();
+
+            //Assert
+            assertEquals(0, journal.size());
+            assertTrue(journal.isHealthy());
+        }
+        Recorder recorder = new Recorder();
+        Journal.Open(file, recorder).close();
+        assertTrue(recorder.edits.isEmpty());
+    }
+
+    @Test
+    void testMealRecordReplaysItsDay() throws IOException, ParseException {
+        //Arrange
+        File file = new File(folder, "Journal.bin");
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        MenuItem toast = new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60)));
+        MenuItem jam = new MenuItem("Jam Toast", List.of(new Ingredient(foods, bread, 80)));
+        int day = Days.Parse("02/29/2024");
+        try (Journal journal = Journal.Open(file, new Recorder())) {
+            journal.mealSaved(new Meal(day, MealType.BREAKFAST, List.of(toast, jam)));
+        }
+        Recorder recorder = new Recorder();
+
+        //Act
+        Journal.Open(file, recorder).close();
+
+        //Assert
+        assertEquals(List.of("meal " + day + " Breakfast [Toast, Jam Toast]"), recorder.edits);
+    }
+
+    //Appends a record with a valid length and checksum around any payload
+    private static void AppendRecord(File file, ByteBuffer payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.writeInt(payload.capacity());
+            raf.writeInt((int) crc.getValue());
+            raf.write(payload.array());
+        }
+    }
+
+    @Test
+    void testRecordOfUnknownTypeEndsReplay() throws IOException {
+        //Arrange
+        File file = WriteJournal();
+        long valid = file.length();
+        ByteBuffer payload = ByteBuffer.allocate(1 + Integer.BYTES);
+        payload.put((byte) 99).putInt(0);
+        AppendRecord(file, payload);
+        Recorder recorder = new Recorder();
+
+        //Act
+        Journal.Open(file, recorder).close();
+
+        //Assert
+        assertEquals(5, recorder.edits.size());
+        assertEquals(valid, file.length());
+    }
+
+    @Test
+    void testMealRecordWithBytesLeftOverEndsReplay() throws IOException {
+        //Arrange
+        //A meal record with a checksum that matches, followed by a calorie total it does not have room for
+        File file = WriteJournal();
+        long valid = file.length();
+        byte[] type = "Breakfast".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(1 + Integer.BYTES + Integer.BYTES + type.length + Integer.BYTES + Double.BYTES);
+        payload.put((byte) 6).putInt(19_782).putInt(type.length).put(type).putInt(0).putDouble(159);
+        AppendRecord(file, payload);
+        Recorder recorder = new Recorder();
+
+        //Act
+        Journal.Open(file, recorder).close();
+
+        //Assert
+        assertEquals(5, recorder.edits.size());
+        assertEquals(valid, file.length());
+    }
+}
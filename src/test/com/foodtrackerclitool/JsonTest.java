@@ -0,0 +1,82 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+    private static String Nested(int depth) {
+        return "[".repeat(depth) + "]".repeat(depth);
+    }
+
+    @Test
+    void testReadsEveryKindOfValue() {
+        //Arrange
+        String text = "{\"name\": \"Oats \\\"Rolled\\\"\", \"fat\": 6.9, \"tags\": [true, false, null], \"empty\": {}}";
+
+        //Act
+        Object value = Json.Parse(text);
+
+        //Assert
+        Map<?, ?> object = (Map<?, ?>) value;
+        assertEquals("Oats \"Rolled\"", object.get("name"));
+        assertEquals(6.9, object.get("fat"));
+        assertEquals(Arrays.asList(true, false, null), object.get("tags"));
+        assertEquals(Map.of(), object.get("empty"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "{", "{\"a\" 1}", "[1,]", "tru", "\"open", "{} {}"})
+    void testInvalidTextIsRefused(String text) {
+        //Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> Json.Parse(text));
+    }
+
+    @Test
+    void testNestingUpToTheLimitIsRead() {
+        //Act
+        Object value = Json.Parse(Nested(Json.MAX_DEPTH));
+
+        //Assert
+        assertTrue(value instanceof List);
+    }
+
+    @Test
+    void testNestingPastTheLimitIsRefused() {
+        //Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> Json.Parse(Nested(Json.MAX_DEPTH + 1)));
+    }
+
+    @Test
+    void testVeryDeepNestingIsRefusedWithoutOverflowingTheStack() {
+        //Arrange
+        String text = "{\"a\":".repeat(1_000_000) + "1" + "}".repeat(1_000_000);
+
+        //Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> Json.Parse(text));
+    }
+
+    @Test
+    void testControlCharactersAreEscaped() {
+        //Act
+        String quoted = Json.Quote(new StringBuilder(), "a\"b\\c\nd\te\u0001").toString();
+
+        //Assert
+        assertEquals("\"a\\\"b\\\\c\\nd\\te\\u0001\"", quoted);
+        assertEquals("a\"b\\c\nd\te\u0001", Json.Parse(quoted));
+    }
+
+    @Test
+    void testNumbersThatAreNotFiniteAreWrittenAsNull() {
+        //Assert
+        assertEquals("null", Json.Number(new StringBuilder(), Double.NaN).toString());
+        assertEquals("12", Json.Number(new StringBuilder(), 12.0).toString());
+        assertEquals("1.5", Json.Number(new StringBuilder(), 1.5).toString());
+    }
+}
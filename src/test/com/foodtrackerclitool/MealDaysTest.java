@@ -0,0 +1,105 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MealDaysTest {
+    private MenuItem toast;
+
+    @BeforeEach
+    void setUp() {
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        toast = new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60)));
+    }
+
+    private Meal Meal(int day, MealType type) {
+        return new Meal(day, type, List.of(toast));
+    }
+
+    private static List<Integer> Days(MealDays meals) {
+        List<Integer> days = new ArrayList<>();
+        for (int i = 0; i < meals.size(); i++) days.add(meals.day(i));
+        return days;
+    }
+
+    @Test
+    void testBuilderSortsDaysAndLaterMealsWin() {
+        //Arrange
+        Meal replaced = Meal(5, MealType.LUNCH);
+        Meal later = Meal(5, MealType.LUNCH);
+
+        //Act
+        MealDays meals = new MealDays.Builder()
+                .add(Meal(9, MealType.DINNER))
+                .add(replaced)
+                .add(Meal(2, MealType.BREAKFAST))
+                .add(Meal(9, MealType.BREAKFAST))
+                .add(later)
+                .build();
+
+        //Assert
+        assertEquals(List.of(2, 5, 9), Days(meals));
+        assertEquals(4, meals.mealCount());
+        assertSame(later, meals.get(5).get(MealType.LUNCH));
+        assertEquals(2, meals.get(9).size());
+        assertNull(meals.get(3));
+    }
+
+    @Test
+    void testRangeIsASliceOfTheSameDays() {
+        //Arrange
+        MealDays.Builder builder = new MealDays.Builder();
+        for (int day = 10; day < 40; day += 3) builder.add(Meal(day, MealType.SNACK));
+        MealDays meals = builder.build();
+
+        //Act
+        MealDays range = meals.range(12, 22);
+
+        //Assert
+        assertEquals(List.of(13, 16, 19, 22), Days(range));
+        assertEquals(List.of(22), Days(range.range(20, 100)));
+        assertSame(meals, meals.range(0, 100));
+        assertTrue(meals.range(14, 15).isEmpty());
+        assertTrue(meals.range(22, 13).isEmpty());
+        assertNull(range.get(10));
+    }
+
+    @Test
+    void testWithLeavesTheOriginalUnchanged() {
+        //Arrange
+        MealDays meals = new MealDays.Builder().add(Meal(4, MealType.LUNCH)).add(Meal(8, MealType.LUNCH)).build();
+
+        //Act
+        MealDays added = meals.with(Meal(6, MealType.DINNER));
+        MealDays sameDay = meals.range(8, 8).with(Meal(8, MealType.DINNER));
+
+        //Assert
+        assertEquals(List.of(4, 8), Days(meals));
+        assertEquals(2, meals.mealCount());
+        assertEquals(List.of(4, 6, 8), Days(added));
+        assertEquals(List.of(8), Days(sameDay));
+        assertEquals(2, sameDay.get(8).size());
+        assertEquals(1, meals.get(8).size());
+    }
+
+    @Test
+    void testJoinKeepsDayOrder() {
+        //Arrange
+        MealDays january = new MealDays.Builder().add(Meal(1, MealType.LUNCH)).add(Meal(20, MealType.LUNCH)).build();
+        MealDays february = new MealDays.Builder().add(Meal(35, MealType.LUNCH)).build();
+
+        //Act
+        MealDays joined = MealDays.Join(List.of(january.range(10, 31), MealDays.EMPTY, february));
+
+        //Assert
+        assertEquals(List.of(20, 35), Days(joined));
+        assertSame(january, MealDays.Join(List.of(january)));
+        assertSame(MealDays.EMPTY, MealDays.Join(List.of(MealDays.EMPTY, MealDays.EMPTY)));
+    }
+}
@@ -0,0 +1,247 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MealHistoryTest {
+    private static final int JANUARY_5 = (int) LocalDate.of(2020, 1, 5).toEpochDay();
+    private static final int FEBRUARY_9 = (int) LocalDate.of(2020, 2, 9).toEpochDay();
+
+    @TempDir
+    File folder;
+
+    private File directory;
+    private MenuStore menuItems;
+    private final AtomicInteger snapshotReads = new AtomicInteger();
+    private final AtomicInteger csvReads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        directory = new File(folder, "MealHistory");
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int egg = foods.put("Egg", 155, 11, 1.1, 13, 50);
+        menuItems = new MenuStore();
+        menuItems.put(new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60))));
+        menuItems.put(new MenuItem("Eggs", List.of(new Ingredient(foods, egg, 100))));
+    }
+
+    //The same order Main reads a month in, counting which copy was used
+    private MealDays ReadSegment(File file) throws IOException, CorruptedFileException {
+        MealDays meals = Snapshot.ReadMonth(MealHistory.SnapshotFile(file), file, menuItems);
+        if (meals != null) {
+            snapshotReads.incrementAndGet();
+            return meals;
+        }
+        csvReads.incrementAndGet();
+        meals = Main.ReadMealData(file, menuItems);
+        MealHistory.WriteSnapshot(file, meals);
+        return meals;
+    }
+
+    private MealHistory Open() {
+        return MealHistory.Open(directory, Main.mealHeader, this::ReadSegment, new DependencyGraph());
+    }
+
+    private void SaveMeals() throws IOException {
+        MealHistory history = Open();
+        history.put(new Meal(JANUARY_5, MealType.BREAKFAST, List.of(menuItems.get("Toast"), menuItems.get("Eggs"))));
+        history.put(new Meal(JANUARY_5, MealType.DINNER, List.of(menuItems.get("Eggs"))));
+        history.put(new Meal(FEBRUARY_9, MealType.LUNCH, List.of(menuItems.get("Toast"))));
+        history.save();
+    }
+
+    @Test
+    void testSaveWritesMonthsManifestAndSnapshots() throws IOException {
+        //Arrange
+        //Act
+        SaveMeals();
+
+        //Assert
+        for (String name : new String[] {"manifest.csv", "2020-01.csv", "2020-01.bin", "2020-02.csv", "2020-02.bin"}) {
+            assertTrue(new File(directory, name).isFile(), name);
+        }
+        assertEquals(List.of("Month,Meals", "2020-01,2", "2020-02,1"), Files.readAllLines(new File(directory, "manifest.csv").toPath()));
+    }
+
+    @Test
+    void testReopenReadsMonthsFromSnapshots() throws IOException {
+        //Arrange
+        SaveMeals();
+
+        //Act
+        MealHistory history = Open();
+        MealDays meals = history.range(JANUARY_5, FEBRUARY_9);
+
+        //Assert
+        assertEquals(2, snapshotReads.get());
+        assertEquals(0, csvReads.get());
+        assertEquals(3, history.mealCount());
+        Meal breakfast = meals.get(JANUARY_5).get(MealType.BREAKFAST);
+        assertEquals(List.of(menuItems.get("Toast"), menuItems.get("Eggs")), breakfast.getMealItems());
+        assertEquals(159 + 310, breakfast.getTotalCalories(), 1e-9);
+        assertEquals(159, meals.get(FEBRUARY_9).get(MealType.LUNCH).getTotalCalories(), 1e-9);
+    }
+
+    @Test
+    void testChangedMonthIsReadFromCsv() throws IOException {
+        //Arrange
+        SaveMeals();
+        File january = new File(directory, "2020-01.csv");
+        Files.writeString(january.toPath(), Main.mealHeader + "\n01/05/2020\n,Lunch\n,," + menuItems.get("Toast").getId() + "\n,,,159\n");
+
+        //Act
+        MealHistory history = Open();
+        MealDays meals = history.range(JANUARY_5, JANUARY_5);
+
+        //Assert
+        assertEquals(1, csvReads.get());
+        assertNull(meals.get(JANUARY_5).get(MealType.BREAKFAST));
+        assertNotNull(meals.get(JANUARY_5).get(MealType.LUNCH));
+
+        //Reading the csv file wrote a current snapshot of it
+        assertNotNull(Snapshot.ReadMonth(MealHistory.SnapshotFile(january), january, menuItems));
+    }
+
+    @Test
+    void testCorruptedMonthIsRenamedNextToIt() throws IOException {
+        //Arrange
+        SaveMeals();
+        File january = new File(directory, "2020-01.csv");
+        Files.writeString(january.toPath(), Main.mealHeader + "\n01/05/2020\n,Lunch\n,,99\n,,,159\n");
+
+        //Act
+        Open().range(JANUARY_5, JANUARY_5);
+
+        //Assert
+        assertFalse(january.exists());
+        assertTrue(new File(directory, "2020-01.csv.corrupted").isFile());
+    }
+
+    //Puts a snack of toast on each of count days from the first day, each thread taking every threads'th day
+    //No saved meal is a snack, so every put adds a meal
+    private void PutToast(MealHistory history, int first, int count, int threads) throws InterruptedException {
+        MenuItem toast = menuItems.get("Toast");
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            writers.add(new Thread(() -> {
+                for (int d = offset; d < count; d += threads) {
+                    history.put(new Meal(first + d, MealType.SNACK, List.of(toast)));
+                }
+            }));
+        }
+        for (Thread writer : writers) writer.start();
+        for (Thread writer : writers) writer.join();
+    }
+
+    @Test
+    void testPinnedVersionDoesNotChangeWhileWritersPublish() throws IOException, InterruptedException {
+        //Arrange
+        SaveMeals();
+        MealHistory history = Open();
+        MealHistory.Version pinned = history.snapshot(JANUARY_5, JANUARY_5 + 2000);
+        double[] before = pinned.totals(JANUARY_5, JANUARY_5 + 2000);
+        int mealsBefore = pinned.all().mealCount();
+
+        //Act
+        PutToast(history, JANUARY_5 + 1, 2000, 4);
+
+        //Assert
+        assertArrayEquals(before, pinned.totals(JANUARY_5, JANUARY_5 + 2000));
+        assertEquals(mealsBefore, pinned.all().mealCount());
+        assertEquals(mealsBefore + 2000, history.all().mealCount());
+        assertTrue(history.snapshot(JANUARY_5, JANUARY_5).number() >= pinned.number() + 2000);
+    }
+
+    @Test
+    void testReaderScansWholeVersionsWhileWritersPublish() throws InterruptedException {
+        //Arrange
+        //Only toast is saved, so a version that is seen whole adds up to a whole number of toasts
+        MealHistory history = Open();
+        double toastCalories = menuItems.get("Toast").getMacros().get(Macros.CALORIES);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (writing.get()) {
+                    MealHistory.Version version = history.snapshot(JANUARY_5, JANUARY_5 + 2000);
+                    int meals = version.all().mealCount();
+                    double calories = version.totals(JANUARY_5, JANUARY_5 + 2000)[Macros.CALORIES];
+                    if (Math.abs(calories - meals * toastCalories) > 1e-6) {
+                        throw new AssertionError(meals + " Meals Add Up To " + calories);
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+
+        //Act
+        reader.start();
+        PutToast(history, JANUARY_5, 2000, 4);
+        writing.set(false);
+        reader.join();
+
+        //Assert
+        assertNull(failure.get());
+        assertEquals(2000, history.all().mealCount());
+    }
+
+    @Test
+    void testVersionTotalsMatchTheNutrientIndex() throws IOException, InterruptedException {
+        //Arrange
+        SaveMeals();
+        MealHistory history = Open();
+        PutToast(history, JANUARY_5 + 10, 500, 4);
+
+        //Act
+        MealHistory.Version version = history.snapshot(JANUARY_5, JANUARY_5 + 600);
+
+        //Assert
+        for (int[] range : new int[][] {{JANUARY_5, JANUARY_5}, {JANUARY_5, FEBRUARY_9}, {JANUARY_5 + 40, JANUARY_5 + 400}, {JANUARY_5, JANUARY_5 + 600}}) {
+            double[] expected = history.totals(range[0], range[1]);
+            double[] actual = version.totals(range[0], range[1]);
+            for (int macro = 0; macro < Macros.COUNT; macro++) {
+                assertEquals(expected[macro], actual[macro], 1e-6, "Macro " + macro);
+            }
+        }
+    }
+
+    @Test
+    void testUnreadableMonthIsNotSavedOver() throws IOException {
+        //Arrange
+        SaveMeals();
+        File january = new File(directory, "2020-01.csv");
+        String saved = Files.readString(january.toPath());
+        MealHistory history = MealHistory.Open(directory, Main.mealHeader, file -> {
+            if (file.equals(january)) throw new IOException("Disk Error");
+            return ReadSegment(file);
+        }, new DependencyGraph());
+
+        //Act
+        history.put(new Meal(JANUARY_5 + 1, MealType.LUNCH, List.of(menuItems.get("Toast"))));
+        history.put(new Meal(FEBRUARY_9, MealType.DINNER, List.of(menuItems.get("Eggs"))));
+        IOException e = assertThrows(IOException.class, history::save);
+
+        //Assert
+        assertEquals("Meal File 2020-01.csv Could Not Be Read: New Meals In It Were Not Saved", e.getMessage());
+        assertEquals(saved, Files.readString(january.toPath()));
+        MealHistory reopened = Open();
+        assertEquals(2, reopened.getDay(JANUARY_5).size());
+        assertEquals(2, reopened.getDay(FEBRUARY_9).size());
+    }
+}
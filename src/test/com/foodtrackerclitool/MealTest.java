@@ -0,0 +1,128 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MealTest {
+    @TempDir
+    File folder;
+
+    private FoodStore foods;
+    private MenuStore menuItems;
+    private int bread;
+
+    @BeforeEach
+    void setUp() {
+        foods = new FoodStore();
+        bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int egg = foods.put("Egg", 155, 11, 1.1, 13, 50);
+        menuItems = new MenuStore();
+        menuItems.put(new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60))));
+        menuItems.put(new MenuItem("Eggs", List.of(new Ingredient(foods, egg, 100))));
+    }
+
+    private static void AssertMacros(Macros expected, Macros actual) {
+        for (int macro = 0; macro < Macros.COUNT; macro++) {
+            assertEquals(expected.get(macro), actual.get(macro), 1e-9, "Macro " + macro);
+        }
+    }
+
+    private Macros SumOf(List<MenuItem> items) {
+        Macros sum = new Macros();
+        for (MenuItem item : items) sum.add(item.getMacros(), 1);
+        return sum;
+    }
+
+    @Test
+    void testEveryMacroComesFromTheMenuItems() {
+        //Arrange
+        List<MenuItem> items = List.of(menuItems.get("Toast"), menuItems.get("Eggs"));
+
+        //Act
+        Meal meal = new Meal(18_000, MealType.BREAKFAST, items);
+
+        //Assert
+        AssertMacros(SumOf(items), meal.getMacros());
+        assertEquals(159 + 310, meal.getTotalCalories(), 1e-9);
+    }
+
+    @Test
+    void testRecalculatedMealFollowsAnEditedFood() {
+        //Arrange
+        List<MenuItem> items = List.of(menuItems.get("Toast"));
+        Meal meal = new Meal(18_000, MealType.LUNCH, items);
+
+        //Act
+        foods.put("Bread", 300, 4, 50, 10, 100);
+        menuItems.get("Toast").recalculateTotal();
+        Meal recalculated = meal.recalculated();
+
+        //Assert
+        assertEquals(159, meal.getTotalCalories(), 1e-9);
+        assertEquals(180, recalculated.getTotalCalories(), 1e-9);
+        AssertMacros(SumOf(items), recalculated.getMacros());
+    }
+
+    @Test
+    void testSavedTotalIsNotReadBack() throws Exception {
+        //Arrange
+        File file = new File(folder, "2020-01.csv");
+        Files.writeString(file.toPath(), Main.mealHeader + "\n01/05/2020\n,Dinner\n,," + menuItems.get("Eggs").getId() + "\n,,,999\n");
+
+        //Act
+        MealDays meals = Main.ReadMealData(file, menuItems);
+
+        //Assert
+        Meal dinner = meals.meals(0).get(MealType.DINNER);
+        AssertMacros(menuItems.get("Eggs").getMacros(), dinner.getMacros());
+    }
+
+    @Test
+    void testDeletedFoodAndMenuItemAreReadBackForSavedMeals() throws Exception {
+        //Arrange
+        File foodFile = new File(folder, "FoodItems.csv");
+        File menuFile = new File(folder, "MenuItems.csv");
+        File mealFile = new File(folder, "2020-01.csv");
+        int toast = menuItems.get("Toast").getId();
+        Files.writeString(mealFile.toPath(), Main.mealHeader + "\n01/05/2020\n,Breakfast\n,," + toast + "\n,,,159\n");
+        foods.remove("Bread");
+        menuItems.remove("Toast");
+        Main.WriteFood(foodFile.getPath(), foods);
+        Main.WriteMenu(menuFile.getPath(), menuItems);
+
+        //Act
+        FoodStore readFoods = Main.ReadInFood(foodFile);
+        MenuStore readItems = Main.ReadMenuItems(menuFile, readFoods);
+        MealDays meals = Main.ReadMealData(mealFile, readItems);
+        readFoods.put("Bread", 300, 4, 50, 10, 100);
+        readItems.put(new MenuItem("Toast", List.of(new Ingredient(readFoods, bread, 50))));
+
+        //Assert
+        assertEquals(159, meals.meals(0).get(MealType.BREAKFAST).getTotalCalories(), 1e-9);
+        assertEquals(List.of("Bread", "Egg"), readFoods.names());
+        assertEquals(bread, readFoods.idOf("Bread"));
+        assertEquals(toast, readItems.get("Toast").getId());
+        assertEquals(2, readItems.size());
+    }
+
+    @Test
+    void testIdPastTheNextIdIsCorrupted() throws Exception {
+        //Arrange
+        File foodFile = new File(folder, "FoodItems.csv");
+        Files.writeString(foodFile.toPath(), Main.FoodHeader(2) + "\n0,Bread,265,3.2,49,9,100\n2000000000,Egg,155,11,1.1,13,50\n");
+
+        //Act
+        CorruptedFileException e = assertThrows(CorruptedFileException.class, () -> Main.ReadInFood(foodFile));
+
+        //Assert
+        assertEquals("Corrupted File Detected: Id Out Of Range", e.getMessage());
+        assertFalse(foodFile.exists());
+    }
+}
@@ -0,0 +1,151 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MenuStoreTest {
+
+    @Test
+    void testReplacingANameKeepsItsId() {
+        //Arrange
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        MenuStore menuItems = new MenuStore();
+        menuItems.put(new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60))));
+        menuItems.put(new MenuItem("Sandwich", List.of(new Ingredient(foods, bread, 120))));
+
+        //Act
+        MenuItem replaced = menuItems.put(new MenuItem("Toast", List.of(new Ingredient(foods, bread, 30))));
+
+        //Assert
+        assertEquals(0, replaced.getId());
+        assertEquals(0, menuItems.get("Toast").getId());
+        assertSame(menuItems.get("Toast"), menuItems.get(0));
+        assertEquals(2, menuItems.size());
+        assertEquals(2, menuItems.idCount());
+    }
+
+    @Test
+    void testRemovedMenuItemIsGoneByNameButKeptById() {
+        //Arrange
+        MenuStore menuItems = new MenuStore();
+        menuItems.put(new MenuItem("Toast", List.of()));
+
+        //Act
+        MenuItem removed = menuItems.remove("Toast");
+
+        //Assert
+        assertEquals("Toast", removed.getName());
+        assertNull(menuItems.get("Toast"));
+        assertSame(removed, menuItems.get(0));
+        assertEquals(List.of(removed), menuItems.deleted());
+        assertEquals(0, menuItems.size());
+        assertEquals(1, menuItems.idCount());
+    }
+
+    @Test
+    void testMenuItemSavedAgainTakesItsIdBack() {
+        //Arrange
+        MenuStore menuItems = new MenuStore();
+        menuItems.put(new MenuItem("Toast", List.of()));
+        menuItems.put(new MenuItem("Eggs", List.of()));
+        menuItems.remove("Toast");
+
+        //Act
+        MenuItem replaced = menuItems.put(new MenuItem("Toast", List.of()));
+
+        //Assert
+        assertNull(replaced);
+        assertEquals(0, menuItems.get("Toast").getId());
+        assertSame(menuItems.get("Toast"), menuItems.get(0));
+        assertTrue(menuItems.deleted().isEmpty());
+        assertEquals(2, menuItems.idCount());
+    }
+
+    @Test
+    void testReadersSeeEveryMenuItemWhileAWriterAddsMore() throws InterruptedException {
+        //Arrange
+        //The first items are never touched, readers must always find them by name, by id and in a scan
+        MenuStore menuItems = new MenuStore();
+        for (int i = 0; i < 100; i++) {
+            menuItems.put(new MenuItem(String.format("Item %05d", i), List.of()));
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(new Thread(() -> {
+                while (writing.get() && failure.get() == null) {
+                    for (int i = 0; i < 100; i++) {
+                        MenuItem item = menuItems.get(i);
+                        if (item == null || menuItems.get(item.getName()) != item) failure.set("Missing Item " + i);
+                    }
+                    List<MenuItem> first = menuItems.after(null, 100);
+                    for (int i = 1; i < first.size(); i++) {
+                        if (first.get(i - 1).getName().compareTo(first.get(i).getName()) >= 0) failure.set("Out Of Order");
+                    }
+                }
+            }));
+        }
+
+        //Act
+        for (Thread reader : readers) reader.start();
+        for (int i = 100; i < 20000; i++) {
+            menuItems.put(new MenuItem(String.format("Item %05d", i), List.of()));
+        }
+        writing.set(false);
+        for (Thread reader : readers) reader.join();
+
+        //Assert
+        assertNull(failure.get());
+        assertEquals(20000, menuItems.size());
+        assertEquals("Item 19999", menuItems.get(19999).getName());
+    }
+
+    @Test
+    void testIngredientsCanBeReadWhileTheyChange() throws InterruptedException {
+        //Arrange
+        //Every ingredient weighs 10 g, an iteration that saw a half made change would fail or add up to something else
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        MenuItem item = new MenuItem("Toast", List.of());
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (writing.get()) {
+                    double grams = 0;
+                    for (Ingredient ingredient : item.getIngredients()) grams += ingredient.getWeight();
+                    if (grams % 10 != 0) throw new AssertionError("Torn Ingredients: " + grams);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+
+        //Act
+        reader.start();
+        List<Ingredient> added = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Ingredient ingredient = new Ingredient(foods, bread, 10);
+            item.addIngredient(ingredient);
+            added.add(ingredient);
+            if (i % 3 == 0) {
+                item.removeIngredient(added.remove(0));
+            }
+        }
+        writing.set(false);
+        reader.join();
+
+        //Assert
+        assertNull(failure.get());
+        assertEquals(added.size(), item.getIngredients().size());
+        assertEquals(added.size() * 10, item.getMacros().get(Macros.GRAMS), 1e-6);
+    }
+}
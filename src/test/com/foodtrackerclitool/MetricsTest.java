@@ -0,0 +1,146 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+    //Metrics are shared by the whole JVM, so every test names its own
+    private static Object Attribute(String name) throws JMException {
+        Metrics.Register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        return server.getAttribute(new ObjectName(Metrics.OBJECT_NAME), name);
+    }
+
+    @Test
+    void testValuesBelowTwoSubBucketsHaveABucketEach() {
+        //Act
+        int below = Metrics.Timer.Bucket(63);
+        int first = Metrics.Timer.Bucket(64);
+        int second = Metrics.Timer.Bucket(65);
+
+        //Assert
+        assertEquals(63, below);
+        assertEquals(63, Metrics.Timer.HighestValue(below));
+        assertEquals(64, first);
+        assertEquals(first, second);
+        assertEquals(65, Metrics.Timer.HighestValue(first));
+        assertEquals(first + 1, Metrics.Timer.Bucket(66));
+    }
+
+    @Test
+    void testLargestTimeFitsInTheLastBucket() {
+        //Act
+        int bucket = Metrics.Timer.Bucket(Long.MAX_VALUE);
+
+        //Assert
+        assertEquals(Metrics.Timer.BUCKETS - 1, bucket);
+        assertEquals(Long.MAX_VALUE, Metrics.Timer.HighestValue(bucket));
+    }
+
+    @Test
+    void testEveryBucketHoldsTimesWithinThreePercentOfItsHighest() {
+        //Arrange
+        long[] times = {0, 1, 63, 64, 65, 127, 128, 1_000, 999_999, 1_000_000_007L, 20_000_000_000L, Long.MAX_VALUE / 3};
+
+        for (long time : times) {
+            //Act
+            long highest = Metrics.Timer.HighestValue(Metrics.Timer.Bucket(time));
+
+            //Assert
+            assertTrue(highest >= time, "Bucket of " + time + " ends at " + highest);
+            assertTrue(highest - time <= time / 32, "Bucket of " + time + " ends at " + highest);
+        }
+    }
+
+    @Test
+    void testPercentilesOfKnownTimes() {
+        //Arrange
+        //Every time from 1 us to 10 ms in steps of 1 us, so p50 is 5 ms and p99 is 9.9 ms
+        Metrics.Timer timer = Metrics.Timer("test.percentiles");
+        for (long time = 1_000; time <= 10_000_000; time += 1_000) {
+            timer.record(time);
+        }
+
+        //Act
+        Metrics.Timer.Summary summary = timer.summary();
+
+        //Assert
+        assertEquals(10_000, summary.count);
+        assertEquals(5_000_500, summary.mean, 1e-6);
+        assertEquals(10_000_000, summary.max);
+        assertEquals(5_000_000, summary.percentiles[0], 5_000_000 * 0.03);
+        assertEquals(9_900_000, summary.percentiles[2], 9_900_000 * 0.03);
+        assertTrue(summary.percentiles[0] >= 5_000_000);
+        assertTrue(summary.percentiles[2] >= 9_900_000);
+        assertEquals(10_000_000, summary.percentiles[3]);
+    }
+
+    @Test
+    void testPercentilesOfOneTimeAreThatTime() {
+        //Arrange
+        Metrics.Timer timer = Metrics.Timer("test.single");
+        timer.record(1_000);
+
+        //Act
+        Metrics.Timer.Summary summary = timer.summary();
+
+        //Assert
+        assertArrayEquals(new long[]{1_000, 1_000, 1_000, 1_000}, summary.percentiles);
+    }
+
+    @Test
+    void testCountersAndGaugesAreLongAttributes() throws JMException {
+        //Arrange
+        Metrics.Counter("test.counter").add(3);
+        Metrics.Gauge("test.gauge", () -> 42);
+
+        //Act
+        Object counter = Attribute("test.counter");
+        Object gauge = Attribute("test.gauge");
+
+        //Assert
+        assertEquals(3L, counter);
+        assertEquals(42L, gauge);
+    }
+
+    @Test
+    void testTimerStatisticsAreAttributesInMicroseconds() throws JMException {
+        //Arrange
+        Metrics.Timer timer = Metrics.Timer("test.attributes");
+        timer.record(1_000);
+        timer.record(3_000);
+
+        //Act
+        Object count = Attribute("test.attributes.count");
+        Object mean = Attribute("test.attributes.mean");
+        Object p50 = Attribute("test.attributes.p50");
+        Object p999 = Attribute("test.attributes.p999");
+        Object max = Attribute("test.attributes.max");
+
+        //Assert
+        assertEquals(2L, count);
+        assertEquals(2.0, mean);
+        assertEquals(1.0, (double) p50, 1.0 / 32);
+        assertEquals(3.0, p999);
+        assertEquals(3.0, max);
+    }
+
+    @Test
+    void testUnknownAttributesAreNotFound() {
+        //Arrange
+        Metrics.Timer("test.unknown").record(1_000);
+
+        //Act and Assert
+        assertThrows(AttributeNotFoundException.class, () -> Attribute("test.nothing"));
+        assertThrows(AttributeNotFoundException.class, () -> Attribute("test.unknown.p75"));
+        assertThrows(AttributeNotFoundException.class, () -> Attribute("test.unknown"));
+        assertThrows(AttributeNotFoundException.class, () -> Attribute("test.nothing.count"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameIndexTest {
+    private static final String[] SYLLABLES = {"ap", "ple", "ba", "na", "na", "ch", "ee", "se", "to", "ast", "mi",
+            "lk", "oat", "egg", "ri", "ce", "be", "an", "so", "up", "gr", "ain", "pe", "ar", "cor", "n"};
+
+    private static NameIndex IndexOf(List<String> names) {
+        return new NameIndex(() -> names);
+    }
+
+    @ParameterizedTest(name="Run {index}: name={0}, expectedResult={1}")
+    @MethodSource("testNormalizeParameters")
+    void testNormalize(String name, String expected) {
+        //Arrange
+        //Act
+        String result = NameIndex.Normalize(name);
+
+        //Assert
+        assertEquals(expected, result);
+    }
+
+    static Stream<Arguments> testNormalizeParameters() {
+        return Stream.of(
+                Arguments.of("", ""),
+                Arguments.of("Apple", "apple"),
+                Arguments.of("  Green   Apple ", "green apple"),
+                Arguments.of("GREEN\tAPPLE", "green apple")
+        );
+    }
+
+    @Test
+    void testFindIgnoresCaseAndSpaces() {
+        //Arrange
+        NameIndex index = IndexOf(List.of("Green Apple", "Banana"));
+
+        //Act
+        //Assert
+        assertEquals("Green Apple", index.find("  green   APPLE"));
+        assertNull(index.find("Green"));
+    }
+
+    @Test
+    void testStartingWithIsInNameOrder() {
+        //Arrange
+        NameIndex index = IndexOf(List.of("Cheddar", "Cheese Pizza", "Apple", "cheese"));
+
+        //Act
+        List<String> found = index.startingWith("CHE", 10);
+
+        //Assert
+        assertEquals(List.of("Cheddar", "cheese", "Cheese Pizza"), found);
+        assertEquals(List.of("Cheddar"), index.startingWith("che", 1));
+    }
+
+    @Test
+    void testSuggestRanksCaseThenPrefixThenEdits() {
+        //Arrange
+        NameIndex index = IndexOf(List.of("Banana", "Bananas", "Banana Bread", "Bandana", "Cabana"));
+
+        //Act
+        List<String> found = index.suggest("banana", 10);
+
+        //Assert
+        assertEquals("Banana", found.get(0));
+        assertEquals(Set.of("Bananas", "Banana Bread"), new HashSet<>(found.subList(1, 3)));
+        assertTrue(found.containsAll(List.of("Bandana", "Cabana")));
+        List<String> limited = index.suggest("banana", 2);
+        assertEquals(2, limited.size());
+        assertEquals("Banana", limited.get(0));
+    }
+
+    @Test
+    void testAddAndRemoveAfterTheIndexIsBuilt() {
+        //Arrange
+        List<String> names = new ArrayList<>(List.of("Toast"));
+        NameIndex index = IndexOf(names);
+        index.find("Toast");
+
+        //Act
+        index.add("French Toast");
+        index.remove("Toast");
+
+        //Assert
+        assertNull(index.find("toast"));
+        assertEquals("French Toast", index.find("french toast"));
+        assertEquals(List.of("French Toast"), index.suggest("frnch toast", 5));
+    }
+
+    @ParameterizedTest(name="Run {index}: a={0}, b={1}, expectedResult={2}")
+    @MethodSource("testEditDistanceParameters")
+    void testEditDistance(String a, String b, int expected) {
+        //Arrange
+        //Act
+        int result = NameIndex.EditDistance(a, b, NameIndex.MAX_EDITS);
+
+        //Assert
+        assertEquals(expected, result);
+    }
+
+    static Stream<Arguments> testEditDistanceParameters() {
+        return Stream.of(
+                Arguments.of("apple", "apple", 0),
+                Arguments.of("apple", "aple", 1),
+                Arguments.of("apple", "apples", 1),
+                Arguments.of("apple", "appel", 2),
+                Arguments.of("apple", "banana", 3),
+                Arguments.of("", "ab", 2)
+        );
+    }
+
+    //Every name within MAX_EDITS of the query has to be suggested, the same as checking every name one by one
+    @Test
+    void testSuggestMissesNoNameWithinTheEdits() {
+        //Arrange
+        Random random = new Random(7);
+        Set<String> unique = new LinkedHashSet<>();
+        while (unique.size() < 20_000) {
+            StringBuilder name = new StringBuilder();
+            while (name.length() < 8 + random.nextInt(10)) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                if (random.nextInt(6) == 0) name.append(' ');
+            }
+            unique.add(name.toString().trim());
+        }
+        List<String> names = new ArrayList<>(unique);
+        NameIndex index = IndexOf(names);
+
+        //Act
+        //Assert
+        for (int q = 0; q < 300; q++) {
+            String query = Edit(names.get(random.nextInt(names.size())), random.nextInt(NameIndex.MAX_EDITS + 1), random);
+            String key = NameIndex.Normalize(query);
+            Set<String> suggested = new HashSet<>(index.suggest(query, Integer.MAX_VALUE));
+
+            for (String name : names) {
+                if (NameIndex.EditDistance(key, NameIndex.Normalize(name), NameIndex.MAX_EDITS) <= NameIndex.MAX_EDITS) {
+                    assertTrue(suggested.contains(name), name + " Missing For " + query);
+                }
+            }
+        }
+    }
+
+    private static String Edit(String name, int edits, Random random) {
+        StringBuilder s = new StringBuilder(name);
+        for (int e = 0; e < edits; e++) {
+            int at = random.nextInt(s.length());
+            char c = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(3)) {
+                case 0:
+                    s.setCharAt(at, c);
+                    break;
+                case 1:
+                    s.insert(at, c);
+                    break;
+                default:
+                    s.deleteCharAt(at);
+            }
+        }
+        return s.toString();
+    }
+
+    @Test
+    void testSearchesRunAtOnceWhileNamesAreAdded() throws InterruptedException {
+        //Arrange
+        //Searches for the first names must give the same answers however the threads interleave
+        List<String> names = new ArrayList<>(List.of("Apple Pie", "Banana Bread", "Cheese Toast", "Rice Soup"));
+        NameIndex index = IndexOf(names);
+        index.find("Apple Pie");
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(new Thread(() -> {
+                while (writing.get() && failure.get() == null) {
+                    if (!"Cheese Toast".equals(index.find("cheese  toast"))) failure.set("Find");
+                    if (!index.suggest("banana bred", 3).contains("Banana Bread")) failure.set("Suggest");
+                    if (!index.startingWith("rice", 5).contains("Rice Soup")) failure.set("Starting With");
+                }
+            }));
+        }
+
+        //Act
+        for (Thread reader : readers) reader.start();
+        for (int i = 0; i < 20_000; i++) {
+            index.add("Added " + i);
+        }
+        writing.set(false);
+        for (Thread reader : readers) reader.join();
+
+        //Assert
+        assertNull(failure.get());
+        assertEquals("Added 19999", index.find("added 19999"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NutrientIndexTest {
+    private static final int FIRST_DAY = 18_000;
+    private static final int DAYS = 3000;
+
+    private static List<MenuItem> MenuItems() {
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int egg = foods.put("Egg", 155, 11, 1.1, 13, 50);
+        return List.of(new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60))),
+                new MenuItem("Eggs", List.of(new Ingredient(foods, egg, 100))),
+                new MenuItem("Egg Toast", List.of(new Ingredient(foods, bread, 30), new Ingredient(foods, egg, 50))));
+    }
+
+    private static double[] BruteForce(List<Meal> meals, int from, int to) {
+        double[] totals = new double[Macros.COUNT];
+        for (Meal meal : meals) {
+            if (meal.getMealDay() < from || meal.getMealDay() > to) continue;
+            for (int i = 0; i < Macros.COUNT; i++) totals[i] += meal.getMacros().get(i);
+        }
+        return totals;
+    }
+
+    @Test
+    void testRangeSumsMatchWalkingTheMeals() {
+        //Arrange
+        Random random = new Random(42);
+        List<MenuItem> items = MenuItems();
+        List<Meal> meals = new ArrayList<>();
+        NutrientIndex index = new NutrientIndex();
+
+        //Meals start in the middle of the span and then spread both ways, so the trees are rebuilt in each direction
+        for (int i = 0; i < 4000; i++) {
+            int spread = Math.min(DAYS / 2, 10 + i);
+            int day = FIRST_DAY + DAYS / 2 + random.nextInt(2 * spread) - spread;
+            Meal meal = new Meal(day, MealType.Of(random.nextInt(MealType.COUNT)),
+                    List.of(items.get(random.nextInt(items.size()))));
+            meals.add(meal);
+            index.add(meal, 1);
+        }
+
+        //Act
+        //Assert
+        for (int i = 0; i < 500; i++) {
+            int from = FIRST_DAY - 100 + random.nextInt(DAYS + 200);
+            int to = from + random.nextInt(400) - 50;
+            assertArrayEquals(BruteForce(meals, from, to), index.sum(from, to), 1e-6, from + " to " + to);
+        }
+        assertArrayEquals(BruteForce(meals, Integer.MIN_VALUE, Integer.MAX_VALUE),
+                index.sum(Integer.MIN_VALUE + 1, Integer.MAX_VALUE), 1e-6);
+    }
+
+    @Test
+    void testRemovingAMealTakesItOut() {
+        //Arrange
+        List<MenuItem> items = MenuItems();
+        NutrientIndex index = new NutrientIndex();
+        Meal kept = new Meal(FIRST_DAY, MealType.BREAKFAST, List.of(items.get(0)));
+        Meal replaced = new Meal(FIRST_DAY, MealType.LUNCH, List.of(items.get(1)));
+
+        //Act
+        index.add(kept, 1);
+        index.add(replaced, 1);
+        index.add(replaced, -1);
+
+        //Assert
+        assertArrayEquals(BruteForce(List.of(kept), FIRST_DAY, FIRST_DAY), index.sum(FIRST_DAY, FIRST_DAY), 1e-9);
+    }
+
+    @Test
+    void testDailyAverageCountsDaysWithoutMeals() {
+        //Arrange
+        List<MenuItem> items = MenuItems();
+        NutrientIndex index = new NutrientIndex();
+        Meal meal = new Meal(FIRST_DAY, MealType.DINNER, List.of(items.get(2)));
+        index.add(meal, 1);
+
+        //Act
+        double[] average = index.dailyAverage(FIRST_DAY, FIRST_DAY + 3);
+
+        //Assert
+        assertEquals(meal.getMacros().get(Macros.CALORIES) / 4, average[Macros.CALORIES], 1e-9);
+        assertEquals(meal.getMacros().get(Macros.GRAMS) / 4, average[Macros.GRAMS], 1e-9);
+        assertArrayEquals(new double[Macros.COUNT], index.sum(FIRST_DAY + 1, FIRST_DAY), 0);
+        assertArrayEquals(new double[Macros.COUNT], new NutrientIndex().sum(FIRST_DAY, FIRST_DAY + 10), 0);
+    }
+
+    @Test
+    void testFarOffDatesAreSummedWithoutADayPerSlot() {
+        //Arrange
+        //Days.Parse refuses these years, the index still has to stay correct for any epoch day it is given
+        List<MenuItem> items = MenuItems();
+        NutrientIndex index = new NutrientIndex();
+        int[] days = {(int) LocalDate.of(1, 1, 1).toEpochDay(), FIRST_DAY, FIRST_DAY + 31, (int) LocalDate.of(9999, 12, 31).toEpochDay()};
+        List<Meal> meals = new ArrayList<>();
+        for (int i = 0; i < days.length; i++) {
+            Meal meal = new Meal(days[i], MealType.LUNCH, List.of(items.get(i % items.size())));
+            meals.add(meal);
+            index.add(meal, 1);
+        }
+
+        //Act
+        //Assert
+        for (int from : days) {
+            for (int to : days) {
+                for (int offset = -1; offset <= 1; offset++) {
+                    assertArrayEquals(BruteForce(meals, from + offset, to), index.sum(from + offset, to), 1e-6, from + " to " + to);
+                }
+            }
+        }
+    }
+}
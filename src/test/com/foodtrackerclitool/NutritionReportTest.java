@@ -0,0 +1,118 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NutritionReportTest {
+    //Far more days than one task adds up, so the range is split and parts are joined inside weeks and months
+    private static final int DAYS = 400;
+    private static final int FIRST_DAY = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+    private static final int LAST_DAY = FIRST_DAY + DAYS - 1;
+
+    @TempDir
+    File folder;
+
+    private MenuStore menuItems;
+    private MealHistory history;
+
+    @BeforeEach
+    void setUp() {
+        FoodStore foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int egg = foods.put("Egg", 155, 11, 1.1, 13, 50);
+        menuItems = new MenuStore();
+        menuItems.put(new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60))));
+        menuItems.put(new MenuItem("Eggs", List.of(new Ingredient(foods, egg, 100))));
+
+        //Toast every morning, eggs for dinner every other day
+        history = MealHistory.Open(new File(folder, "MealHistory"), Main.mealHeader, file -> new MealDays.Builder().build(),
+                new DependencyGraph());
+        for (int day = FIRST_DAY; day <= LAST_DAY; day++) {
+            history.put(new Meal(day, MealType.BREAKFAST, List.of(menuItems.get("Toast"))));
+            if (day % 2 == 0) history.put(new Meal(day, MealType.DINNER, List.of(menuItems.get("Eggs"))));
+        }
+    }
+
+    private static double CaloriesBetween(int from, int to) {
+        double calories = 0;
+        for (int day = from; day <= to; day++) {
+            calories += 159;
+            if (day % 2 == 0) calories += 310;
+        }
+        return calories;
+    }
+
+    @Test
+    void testMonthsAreWholeAfterPartsAreJoined() {
+        //Act
+        NutritionReport report = NutritionReport.Build(history, NutritionReport.Period.MONTHLY, FIRST_DAY, LAST_DAY);
+
+        //Assert
+        LocalDate month = LocalDate.ofEpochDay(FIRST_DAY);
+        for (NutritionReport.Row row : report.rows()) {
+            int start = (int) month.toEpochDay();
+            int end = (int) Math.min(month.plusMonths(1).toEpochDay() - 1, LAST_DAY);
+            assertEquals(start, row.start);
+            assertEquals(end - start + 1, row.days());
+            assertEquals(CaloriesBetween(start, end), row.get(Macros.CALORIES), 1e-6);
+            month = month.plusMonths(1);
+        }
+        assertEquals(LocalDate.ofEpochDay(LAST_DAY).withDayOfMonth(1).plusMonths(1), month);
+    }
+
+    @Test
+    void testWeeksStartOnMondayAndAreNotRepeated() {
+        //Act
+        NutritionReport report = NutritionReport.Build(history, NutritionReport.Period.WEEKLY, FIRST_DAY, LAST_DAY);
+
+        //Assert
+        List<NutritionReport.Row> rows = report.rows();
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(DayOfWeek.MONDAY, LocalDate.ofEpochDay(rows.get(i).start).getDayOfWeek());
+            if (i > 0) assertEquals(rows.get(i - 1).start + 7, rows.get(i).start);
+        }
+        int days = 0;
+        for (NutritionReport.Row row : rows) days += row.days();
+        assertEquals(DAYS, days);
+    }
+
+    @Test
+    void testTotalCoversEveryDayAndMealType() {
+        //Act
+        NutritionReport report = NutritionReport.Build(history, NutritionReport.Period.DAILY, FIRST_DAY, LAST_DAY);
+
+        //Assert
+        NutritionReport.Row total = report.total();
+        assertEquals(DAYS, report.rows().size());
+        assertEquals(DAYS, total.days());
+        assertEquals(DAYS, total.mealCount(MealType.BREAKFAST));
+        assertEquals(DAYS / 2, total.mealCount(MealType.DINNER));
+        assertEquals(CaloriesBetween(FIRST_DAY, LAST_DAY), total.get(Macros.CALORIES), 1e-6);
+        assertEquals(DAYS * 159.0, total.get(MealType.BREAKFAST, Macros.CALORIES), 1e-6);
+    }
+
+    @Test
+    void testFormatEndsWithTheTotal() {
+        //Arrange
+        //An odd day, toast only
+        NutritionReport report = NutritionReport.Build(history, NutritionReport.Period.DAILY, FIRST_DAY + 1, FIRST_DAY + 1);
+
+        //Act
+        String[] lines = report.format().split("\n");
+
+        //Assert
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("Day\tCalories"));
+        assertEquals("01/02/2020\t159.0\t1.9\t29.4\t5.4\t60.0\t10.9\t74.0\t13.6", lines[1]);
+        assertTrue(lines[2].startsWith("  Breakfast (1 Meal)\t159.0"));
+        assertTrue(lines[3].startsWith("Total (1 Day)\t159.0"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCsvReaderTest {
+    //Rows with two ingredient rows each, enough to pass several times the size the reader splits at
+    private static final int RECORDS = 400_000;
+
+    @TempDir
+    File folder;
+
+    //Returns the id of each record and fails if a chunk starts on a continuation row or a record lost a row
+    private static List<Integer> ParseRecords(CsvTokenizer csvReader) throws IOException, CorruptedFileException {
+        List<Integer> ids = new ArrayList<>();
+        int rows = 2;
+
+        while (csvReader.nextRecord() && !csvReader.isEmptyRecord()) {
+            if (csvReader.startsWithDelimiter()) {
+                if (ids.isEmpty()) throw new CorruptedFileException("Chunk Starts Inside A Record");
+                rows++;
+                continue;
+            }
+            if (rows != 2) throw new CorruptedFileException("Record " + ids.get(ids.size() - 1) + " Has " + rows + " Rows");
+            ids.add(csvReader.getInt(0));
+            rows = 0;
+        }
+        if (!ids.isEmpty() && rows != 2) throw new CorruptedFileException("Last Record Has " + rows + " Rows");
+        return ids;
+    }
+
+    private File Write(int records, String tail) throws IOException {
+        File file = new File(folder, "records.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            writer.write("Id,Name,Food,Servings\n");
+            for (int i = 0; i < records; i++) {
+                writer.write(i + ",Menu Item Number " + i + "\n,Some Food,100.5\n,Other Food,25\n");
+            }
+            writer.write(tail);
+        }
+        return file;
+    }
+
+    @Test
+    void testChunksStartOnRecordsAndKeepFileOrder() throws Exception {
+        //Arrange
+        File file = Write(RECORDS, "");
+
+        //Act
+        List<List<Integer>> chunks = ParallelCsvReader.Join(ParallelCsvReader.Submit(file, ParallelCsvReaderTest::ParseRecords));
+
+        //Assert
+        assertTrue(chunks.size() > 1, "File was not split");
+        int expected = 0;
+        for (List<Integer> chunk : chunks) {
+            for (int id : chunk) {
+                assertEquals(expected++, id);
+            }
+        }
+        assertEquals(RECORDS, expected);
+    }
+
+    @Test
+    void testEmptyLineEndsTheFile() throws Exception {
+        //Arrange
+        File file = Write(RECORDS, "\n" + RECORDS + ",Ignored\n,Some Food,1\n,Other Food,1\n");
+
+        //Act
+        List<List<Integer>> chunks = ParallelCsvReader.Join(ParallelCsvReader.Submit(file, ParallelCsvReaderTest::ParseRecords));
+
+        //Assert
+        int count = 0;
+        for (List<Integer> chunk : chunks) count += chunk.size();
+        assertEquals(RECORDS, count);
+    }
+
+    @Test
+    void testSmallAndMissingFiles() throws Exception {
+        //Arrange
+        File small = Write(3, "");
+        File missing = new File(folder, "missing.csv");
+
+        //Act
+        List<List<Integer>> smallChunks = ParallelCsvReader.Join(ParallelCsvReader.Submit(small, ParallelCsvReaderTest::ParseRecords));
+        List<List<Integer>> missingChunks = ParallelCsvReader.Join(ParallelCsvReader.Submit(missing, ParallelCsvReaderTest::ParseRecords));
+
+        //Assert
+        assertEquals(List.of(List.of(0, 1, 2)), smallChunks);
+        assertTrue(missingChunks.isEmpty());
+    }
+
+    @Test
+    void testParserFailureIsRethrown() throws Exception {
+        //Arrange
+        File file = Write(3, ",Stray Row,1\n");
+
+        //Act
+        //Assert
+        assertThrows(CorruptedFileException.class,
+                () -> ParallelCsvReader.Join(ParallelCsvReader.Submit(file, ParallelCsvReaderTest::ParseRecords)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.foodtrackerclitool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+    @TempDir
+    File folder;
+
+    private File snapshotFile;
+    private File[] sources;
+    private FoodStore foods;
+    private MenuStore menuItems;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshotFile = new File(folder, "Snapshot.bin");
+        sources = new File[] {new File(folder, "Foods.csv"), new File(folder, "MenuItems.csv")};
+        Files.writeString(sources[0].toPath(), "foods");
+
+        foods = new FoodStore();
+        int bread = foods.put("Bread", 265, 3.2, 49, 9, 100);
+        int butter = foods.put("Butter", 717, 81, 0.1, 0.9, 14);
+        menuItems = new MenuStore();
+        menuItems.put(new MenuItem("Toast", List.of(new Ingredient(foods, bread, 60), new Ingredient(foods, butter, 10))));
+    }
+
+    //Changes one byte in place, so the size and last modified time checks alone cannot notice it
+    private static void FlipByte(File file, long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xFF);
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        //Arrange
+        Snapshot.Write(snapshotFile, sources, foods, menuItems);
+
+        //Act
+        Snapshot snapshot = Snapshot.Read(snapshotFile, sources);
+
+        //Assert
+        assertNotNull(snapshot);
+        assertEquals(foods.idOf("Butter"), snapshot.foodData.idOf("Butter"));
+        assertEquals(81, snapshot.foodData.fat(snapshot.foodData.idOf("Butter")));
+        MenuItem toast = snapshot.menuData.get("Toast");
+        assertEquals(menuItems.get("Toast").getId(), toast.getId());
+        assertEquals("Butter", toast.getIngredients().get(1).getFoodName());
+        assertEquals(menuItems.get("Toast").getTotalCalories(), toast.getTotalCalories(), 1e-9);
+    }
+
+    @Test
+    void testDeletedFoodsAndMenuItemsAreKept() throws IOException {
+        //Arrange
+        int butter = foods.idOf("Butter");
+        int toast = menuItems.get("Toast").getId();
+        foods.remove("Butter");
+        menuItems.remove("Toast");
+
+        //Act
+        Snapshot.Write(snapshotFile, sources, foods, menuItems);
+        Snapshot snapshot = Snapshot.Read(snapshotFile, sources);
+
+        //Assert
+        assertNotNull(snapshot);
+        assertFalse(snapshot.foodData.contains(butter));
+        assertEquals("Butter", snapshot.foodData.name(butter));
+        assertNull(snapshot.menuData.get("Toast"));
+        assertEquals("Butter", snapshot.menuData.get(toast).getIngredients().get(1).getFoodName());
+        assertEquals(1, snapshot.foodData.size());
+        assertEquals(0, snapshot.menuData.size());
+    }
+
+    @Test
+    void testChecksumMismatchFallsBack() throws IOException {
+        //Arrange
+        Snapshot.Write(snapshotFile, sources, foods, menuItems);
+        FlipByte(snapshotFile, snapshotFile.length() - 20);
+
+        //Act
+        Snapshot snapshot = Snapshot.Read(snapshotFile, sources);
+
+        //Assert
+        assertNull(snapshot);
+    }
+
+    @Test
+    void testOtherVersionFallsBack() throws IOException {
+        //Arrange
+        Snapshot.Write(snapshotFile, sources, foods, menuItems);
+        FlipByte(snapshotFile, 7);
+
+        //Act
+        Snapshot snapshot = Snapshot.Read(snapshotFile, sources);
+
+        //Assert
+        assertNull(snapshot);
+    }
+
+    @Test
+    void testChangedCsvFileFallsBack() throws IOException {
+        //Arrange
+        Snapshot.Write(snapshotFile, sources, foods, menuItems);
+        Files.writeString(sources[1].toPath(), "menu items written after the snapshot");
+
+        //Act
+        Snapshot snapshot = Snapshot.Read(snapshotFile, sources);
+
+        //Assert
+        assertNull(snapshot);
+    }
+
+    @Test
+    void testTruncatedSnapshotFallsBack() throws IOException {
+        //Arrange
+        Snapshot.Write(snapshotFile, sources, foods, menuItems);
+        try (RandomAccessFile raf = new RandomAccessFile(snapshotFile, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+
+        //Act
+        Snapshot snapshot = Snapshot.Read(snapshotFile, sources);
+
+        //Assert
+        assertNull(snapshot);
+        assertNull(Snapshot.Read(new File(folder, "Missing.bin"), sources));
+    }
+}